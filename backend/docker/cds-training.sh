@@ -0,0 +1,65 @@
+#!/bin/sh
+# AppCDS training run used by the Dockerfile: boots the application against a
+# local PostgreSQL with the production settings (Flyway, ddl-auto=validate),
+# drives the signup -> project -> issue -> list workflow (the same path
+# IssueTrackerIntegrationTest covers) and dumps every class that was loaded
+# into a dynamic CDS archive on exit.
+set -e
+
+ARCHIVE="$1"
+BASE_URL="http://localhost:8080/api"
+
+service postgresql start
+su postgres -c "psql -q -c \"ALTER USER postgres PASSWORD 'postgres'\""
+su postgres -c "createdb issuetracker"
+
+/opt/jre/bin/java -XX:ArchiveClassesAtExit="$ARCHIVE" @/app/classpath.args \
+    com.issuetracker.IssueTrackerApplication \
+    --spring.datasource.url=jdbc:postgresql://localhost:5432/issuetracker \
+    --spring.datasource.username=postgres \
+    --spring.datasource.password=postgres \
+    --logging.level.com.issuetracker=WARN \
+    --logging.level.org.springframework.security=WARN &
+PID=$!
+
+i=0
+until curl -sf "$BASE_URL/health" > /dev/null; do
+  i=$((i + 1))
+  if [ "$i" -gt 120 ]; then
+    echo "Application did not start" >&2
+    kill "$PID"
+    exit 1
+  fi
+  sleep 1
+done
+
+TOKEN=$(curl -sf -X POST "$BASE_URL/auth/signup" -H "Content-Type: application/json" \
+  -d '{"email":"training@issuetracker.com","password":"training123","name":"Training"}' \
+  | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+curl -sf -X POST "$BASE_URL/auth/login" -H "Content-Type: application/json" \
+  -d '{"email":"training@issuetracker.com","password":"training123"}' > /dev/null
+
+PROJECT_ID=$(curl -sf -X POST "$BASE_URL/projects" -H "Content-Type: application/json" \
+  -H "Authorization: Bearer $TOKEN" -d '{"name":"Training Project"}' \
+  | sed -n 's/.*"id":\([0-9]*\).*/\1/p')
+
+ISSUE_ID=$(curl -sf -X POST "$BASE_URL/issues" -H "Content-Type: application/json" \
+  -H "Authorization: Bearer $TOKEN" \
+  -d "{\"projectId\":$PROJECT_ID,\"title\":\"Training issue\",\"priority\":\"HIGH\",\"tags\":[\"cds\"]}" \
+  | sed -n 's/^{"id":\([0-9]*\).*/\1/p')
+
+curl -sf "$BASE_URL/projects" -H "Authorization: Bearer $TOKEN" > /dev/null
+curl -sf "$BASE_URL/projects/$PROJECT_ID" -H "Authorization: Bearer $TOKEN" > /dev/null
+curl -sf "$BASE_URL/issues?projectId=$PROJECT_ID&status=OPEN&search=train&page=0&size=10" \
+  -H "Authorization: Bearer $TOKEN" > /dev/null
+curl -sf "$BASE_URL/issues/$ISSUE_ID" -H "Authorization: Bearer $TOKEN" > /dev/null
+curl -sf -X PUT "$BASE_URL/issues/$ISSUE_ID" -H "Content-Type: application/json" \
+  -H "Authorization: Bearer $TOKEN" \
+  -d "{\"projectId\":$PROJECT_ID,\"title\":\"Training issue\",\"status\":\"CLOSED\"}" > /dev/null
+curl -sf -X DELETE "$BASE_URL/issues/$ISSUE_ID" -H "Authorization: Bearer $TOKEN" > /dev/null
+
+# SIGTERM runs the normal JVM exit path, which writes the archive
+kill -TERM "$PID"
+wait "$PID" || true
+service postgresql stop
+test -s "$ARCHIVE"
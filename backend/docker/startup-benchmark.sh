@@ -0,0 +1,71 @@
+#!/bin/bash
+# Compares container startup of the layered AppCDS image (backend/Dockerfile)
+# against the plain "java -jar" fat-jar image it replaced.
+#
+#   ./docker/startup-benchmark.sh [runs]
+#
+# Each run starts a fresh container against a throwaway PostgreSQL and measures
+# wall-clock time from "docker run" until /api/health answers, plus the time
+# Spring reports in its "Started IssueTrackerApplication" line.
+set -e
+
+RUNS=${1:-5}
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+NETWORK=issue-tracker-bench
+DB=issue-tracker-bench-db
+PORT=18080
+
+cleanup() {
+  docker rm -f "$DB" > /dev/null 2>&1 || true
+  docker network rm "$NETWORK" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+echo "Building images..."
+docker build -q -t issue-tracker-backend:cds "$BACKEND_DIR" > /dev/null
+docker build -q -t issue-tracker-backend:fatjar -f - "$BACKEND_DIR" > /dev/null <<'DOCKERFILE'
+FROM maven:3.9-eclipse-temurin-17 AS build
+WORKDIR /app
+COPY pom.xml .
+COPY src ./src
+RUN mvn clean package -DskipTests
+
+FROM eclipse-temurin:17-jre
+WORKDIR /app
+COPY --from=build /app/target/*.jar app.jar
+ENTRYPOINT ["java", "-jar", "app.jar"]
+DOCKERFILE
+
+docker network create "$NETWORK" > /dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+  -e POSTGRES_DB=issuetracker -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres \
+  postgres:15-alpine > /dev/null
+until docker exec "$DB" pg_isready -U postgres > /dev/null 2>&1; do sleep 1; done
+
+measure() {
+  local image=$1
+  local started ready name log
+  name="issue-tracker-bench-$RANDOM"
+  started=$(date +%s%N)
+  docker run -d --name "$name" --network "$NETWORK" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/issuetracker" \
+    -e LOGGING_LEVEL_COM_ISSUETRACKER=INFO \
+    -e LOGGING_LEVEL_ORG_SPRINGFRAMEWORK_SECURITY=WARN \
+    "$image" > /dev/null
+  until curl -sf "http://localhost:$PORT/api/health" > /dev/null; do sleep 0.05; done
+  ready=$(date +%s%N)
+  log=$(docker logs "$name" 2>&1 | sed -n 's/.*Started IssueTrackerApplication in \([0-9.]*\) seconds.*/\1/p')
+  docker rm -f "$name" > /dev/null
+  echo "$(( (ready - started) / 1000000 )) $log"
+}
+
+for image in issue-tracker-backend:fatjar issue-tracker-backend:cds; do
+  total=0
+  echo "== $image"
+  for run in $(seq 1 "$RUNS"); do
+    read -r millis spring <<< "$(measure "$image")"
+    total=$((total + millis))
+    printf "  run %d: ready in %5d ms (Spring: %ss)\n" "$run" "$millis" "$spring"
+  done
+  printf "  mean: %d ms\n" $((total / RUNS))
+done
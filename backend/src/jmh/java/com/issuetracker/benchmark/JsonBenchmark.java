@@ -0,0 +1,108 @@
+package com.issuetracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson configured the way Spring Boot configures the MVC converter
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private IssueRequest issueRequest;
+    private IssueResponse issueResponse;
+    private Page<IssueResponse> issuePage;
+    private byte[] issueRequestJson;
+    private byte[] issueResponseJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        issueRequest = new IssueRequest();
+        issueRequest.setProjectId(1L);
+        issueRequest.setTitle("Login page throws 500 when the session expires");
+        issueRequest.setDescription("Steps to reproduce: log in, wait for the session to expire, reload.");
+        issueRequest.setStatus(IssueStatus.OPEN);
+        issueRequest.setPriority(IssuePriority.HIGH);
+        issueRequest.setAssigneeId(7L);
+        issueRequest.setTags(List.of("auth", "bug"));
+
+        issueResponse = newIssueResponse(100L);
+        List<IssueResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(newIssueResponse(i));
+        }
+        issuePage = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("createdAt").descending()), 5000);
+
+        issueRequestJson = objectMapper.writeValueAsBytes(issueRequest);
+        issueResponseJson = objectMapper.writeValueAsBytes(issueResponse);
+    }
+
+    private IssueResponse newIssueResponse(long id) {
+        IssueResponse response = new IssueResponse();
+        response.setId(id);
+        response.setProjectId(1L);
+        response.setProjectName("Benchmark Project");
+        response.setTitle("Login page throws 500 when the session expires #" + id);
+        response.setDescription("Steps to reproduce: log in, wait for the session to expire, reload.");
+        response.setStatus(IssueStatus.IN_PROGRESS);
+        response.setPriority(IssuePriority.HIGH);
+        response.setAssigneeId(7L);
+        response.setAssigneeName("Benchmark User");
+        response.setTags(List.of("auth", "bug", "frontend"));
+        response.setCreatedAt(LocalDateTime.now());
+        response.setUpdatedAt(LocalDateTime.now());
+        response.setVersion(3L);
+        return response;
+    }
+
+    @Benchmark
+    public byte[] serializeIssueRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(issueRequest);
+    }
+
+    @Benchmark
+    public IssueRequest deserializeIssueRequest() throws Exception {
+        return objectMapper.readValue(issueRequestJson, IssueRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializeIssueResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(issueResponse);
+    }
+
+    @Benchmark
+    public IssueResponse deserializeIssueResponse() throws Exception {
+        return objectMapper.readValue(issueResponseJson, IssueResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeIssuePage() throws Exception {
+        return objectMapper.writeValueAsBytes(issuePage);
+    }
+}
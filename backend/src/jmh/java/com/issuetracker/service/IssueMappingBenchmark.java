@@ -0,0 +1,78 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Project;
+import com.issuetracker.model.User;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.repository.ProjectRepository;
+import com.issuetracker.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// mapToResponse with in-memory repositories: the entity -> DTO copy plus the
+// project and assignee name lookups, without database latency.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IssueMappingBenchmark {
+
+    private IssueService issueService;
+    private Issue issue;
+
+    @Setup
+    public void setUp() {
+        Project project = new Project();
+        project.setId(1L);
+        project.setName("Benchmark Project");
+        project.setProjectKey("BENCH");
+
+        User assignee = new User();
+        assignee.setId(7L);
+        assignee.setName("Benchmark User");
+
+        issueService = new IssueService(null, null, null,
+                findAllByIdStub(ProjectRepository.class, project),
+                findAllByIdStub(UserRepository.class, assignee),
+                null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+        issue = new Issue();
+        issue.setId(100L);
+        issue.setProjectId(1L);
+        issue.setNumber(100L);
+        issue.setTitle("Login page throws 500 when the session expires");
+        issue.setDescription("Steps to reproduce: log in, wait for the session to expire, reload.");
+        issue.setStatus(IssueStatus.IN_PROGRESS);
+        issue.setPriority(IssuePriority.HIGH);
+        issue.setAssigneeId(7L);
+        issue.setTags(List.of("auth", "bug", "frontend"));
+        issue.setCreatedAt(LocalDateTime.now());
+        issue.setUpdatedAt(LocalDateTime.now());
+        issue.setVersion(3L);
+    }
+
+    @Benchmark
+    public IssueResponse mapToResponse() {
+        return issueService.mapToResponse(issue);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R> R findAllByIdStub(Class<R> repositoryType, Object entity) {
+        List<Object> result = List.of(entity);
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllById")) {
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
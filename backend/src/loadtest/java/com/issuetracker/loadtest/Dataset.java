@@ -0,0 +1,27 @@
+package com.issuetracker.loadtest;
+
+// What the generator wrote, kept in compact arrays so the workload can pick
+// realistic actors and targets without querying the database.
+final class Dataset {
+    static final String PASSWORD = "loadtest123";
+
+    final int users;
+    final int projects;
+    // members[p - 1] = user ids of project p, owner first
+    final long[][] members;
+    // Issues of project p have ids firstIssueId[p - 1] .. firstIssueId[p - 1] + issueCount[p - 1] - 1
+    final long[] firstIssueId;
+    final long[] issueCount;
+
+    Dataset(int users, int projects, long[][] members, long[] firstIssueId, long[] issueCount) {
+        this.users = users;
+        this.projects = projects;
+        this.members = members;
+        this.firstIssueId = firstIssueId;
+        this.issueCount = issueCount;
+    }
+
+    static String email(long userId) {
+        return "user" + userId + "@loadtest.local";
+    }
+}
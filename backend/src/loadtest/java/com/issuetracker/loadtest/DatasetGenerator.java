@@ -0,0 +1,186 @@
+package com.issuetracker.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Bulk-loads a synthetic dataset with JDBC batches. Project sizes and user
+// activity follow a Zipf distribution: a few huge tenants, a long tail of small ones.
+final class DatasetGenerator {
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] WORDS = {
+        "login", "crash", "timeout", "export", "report", "dashboard", "payment", "search", "upload",
+        "notification", "session", "permission", "layout", "mobile", "cache", "email", "invoice",
+        "filter", "calendar", "sync", "import", "password", "profile", "chart", "billing", "webhook"
+    };
+    private static final String[] TAGS = {
+        "bug", "feature", "frontend", "backend", "ux", "security", "performance", "docs", "regression", "api"
+    };
+    private static final String[] STATUSES = {"OPEN", "OPEN", "IN_PROGRESS", "CLOSED", "CLOSED", "CLOSED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final String[] MEMBER_ROLES = {"MAINTAINER", "REPORTER", "REPORTER"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final LoadTestConfig config;
+    private final SplittableRandom random;
+
+    DatasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, LoadTestConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.config = config;
+        this.random = new SplittableRandom(config.seed);
+    }
+
+    Dataset generate() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insertUsers(now);
+        long[][] members = insertProjectsAndMembers(now);
+        long[] firstIssueId = new long[config.projects];
+        long[] issueCount = new long[config.projects];
+        insertIssues(members, firstIssueId, issueCount);
+        restartSequences();
+        return new Dataset(config.users, config.projects, members, firstIssueId, issueCount);
+    }
+
+    static String randomWord(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private void insertUsers(Timestamp now) {
+        // BCrypt is deliberately slow: hash once and share it
+        String passwordHash = passwordEncoder.encode(Dataset.PASSWORD);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= config.users; id++) {
+            batch.add(new Object[]{id, Dataset.email(id), passwordHash, "Load User " + id, now});
+            flushIfFull("INSERT INTO users (id, email, password, name, created_at) VALUES (?, ?, ?, ?, ?)", batch);
+        }
+        flush("INSERT INTO users (id, email, password, name, created_at) VALUES (?, ?, ?, ?, ?)", batch);
+        System.out.printf("  %,d users%n", config.users);
+    }
+
+    private long[][] insertProjectsAndMembers(Timestamp now) {
+        ZipfSampler activeUsers = new ZipfSampler(config.users, config.zipfExponent);
+        ZipfSampler teamSize = new ZipfSampler(config.maxMembersPerProject, config.zipfExponent);
+        long[][] members = new long[config.projects][];
+        List<Object[]> projects = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> memberships = new ArrayList<>(BATCH_SIZE);
+        long membershipId = 1;
+
+        for (int p = 1; p <= config.projects; p++) {
+            // Large (low-rank) projects get bigger teams
+            int size = Math.max(1, config.maxMembersPerProject / teamSize.sample(random));
+            Set<Long> team = new LinkedHashSet<>();
+            team.add((long) activeUsers.sample(random));
+            while (team.size() < Math.min(size, config.users)) {
+                team.add((long) activeUsers.sample(random));
+            }
+            members[p - 1] = team.stream().mapToLong(Long::longValue).toArray();
+
+            long ownerId = members[p - 1][0];
+            projects.add(new Object[]{(long) p, "Project " + p, "P" + p, ownerId, now});
+            for (int i = 0; i < members[p - 1].length; i++) {
+                String role = i == 0 ? "OWNER" : MEMBER_ROLES[random.nextInt(MEMBER_ROLES.length)];
+                memberships.add(new Object[]{membershipId++, (long) p, members[p - 1][i], role, now});
+            }
+            flushIfFull("INSERT INTO projects (id, name, project_key, owner_id, created_at) VALUES (?, ?, ?, ?, ?)", projects);
+            flushIfFull("INSERT INTO project_members (id, project_id, user_id, role, created_at) VALUES (?, ?, ?, ?, ?)", memberships);
+        }
+        flush("INSERT INTO projects (id, name, project_key, owner_id, created_at) VALUES (?, ?, ?, ?, ?)", projects);
+        flush("INSERT INTO project_members (id, project_id, user_id, role, created_at) VALUES (?, ?, ?, ?, ?)", memberships);
+        System.out.printf("  %,d projects, %,d memberships%n", config.projects, membershipId - 1);
+        return members;
+    }
+
+    private void insertIssues(long[][] members, long[] firstIssueId, long[] issueCount) {
+        double normalization = 0;
+        for (int p = 1; p <= config.projects; p++) {
+            normalization += ZipfSampler.weight(p, config.zipfExponent);
+        }
+
+        List<Object[]> issues = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> tags = new ArrayList<>(BATCH_SIZE);
+        long nextId = 1;
+        long remaining = config.issues;
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+
+        for (int p = 1; p <= config.projects; p++) {
+            long count = p == config.projects ? remaining
+                    : Math.min(remaining, Math.round(config.issues * ZipfSampler.weight(p, config.zipfExponent) / normalization));
+            remaining -= count;
+            firstIssueId[p - 1] = nextId;
+            issueCount[p - 1] = count;
+
+            for (long n = 0; n < count; n++) {
+                long id = nextId++;
+                Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(random.nextLong(365L * 24 * 3600)));
+                long[] team = members[p - 1];
+                Long assigneeId = random.nextInt(4) == 0 ? null : team[random.nextInt(team.length)];
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                issues.add(new Object[]{
+                    id, (long) p, n + 1,
+                    capitalize(randomWord(random)) + " " + randomWord(random) + " " + randomWord(random) + " #" + id,
+                    "Synthetic issue generated for load testing (" + randomWord(random) + ")",
+                    status,
+                    PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    // Fixed-width hex is a valid rank key (see RankKeys)
+                    assigneeId, String.format("%08xi", n + 1), createdAt, createdAt,
+                    "CLOSED".equals(status) ? createdAt : null, 0L
+                });
+                int tagCount = random.nextInt(4);
+                for (int t = 0; t < tagCount; t++) {
+                    tags.add(new Object[]{id, TAGS[random.nextInt(TAGS.length)]});
+                }
+                if (issues.size() >= BATCH_SIZE) {
+                    flushIssues(issues, tags);
+                }
+            }
+        }
+        flushIssues(issues, tags);
+        System.out.printf("  %,d issues (largest project: %,d)%n", config.issues, Arrays.stream(issueCount).max().orElse(0));
+    }
+
+    private void flushIssues(List<Object[]> issues, List<Object[]> tags) {
+        flush("INSERT INTO issues (id, project_id, issue_number, title, description, status, priority, assignee_id, issue_rank, created_at, updated_at, closed_at, version) " +
+              "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", issues);
+        flush("INSERT INTO issue_tags (issue_id, tag) VALUES (?, ?)", tags);
+    }
+
+    // Rows were inserted with explicit ids; move the identity columns past them
+    private void restartSequences() {
+        for (String table : List.of("users", "projects", "project_members", "issues")) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (config.usePostgres()) {
+                jdbcTemplate.queryForObject("SELECT setval('" + table + "_seq', ?, false)", Long.class, max + 1);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (max + 1));
+            }
+        }
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() >= BATCH_SIZE) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
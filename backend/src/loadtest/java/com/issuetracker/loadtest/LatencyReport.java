@@ -0,0 +1,63 @@
+package com.issuetracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Percentiles per endpoint on stdout, full HDR distributions (.hgrm, in ms)
+// under the report directory for plotting and comparison between runs.
+final class LatencyReport {
+    private final Map<Operation, OpenModelDriver.Stats> stats;
+    private final double seconds;
+
+    LatencyReport(Map<Operation, OpenModelDriver.Stats> stats, double seconds) {
+        this.stats = stats;
+        this.seconds = seconds;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-8s %10s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, OpenModelDriver.Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latencyMicros;
+            long count = histogram.getTotalCount();
+            if (count == 0 && entry.getValue().dropped.get() == 0) {
+                continue;
+            }
+            total += count;
+            out.printf("%-8s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), count,
+                    entry.getValue().errors.get(), entry.getValue().dropped.get(),
+                    count / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+        out.printf("%ntotal throughput: %.1f req/s over %.0f s%n", total / seconds, seconds);
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, OpenModelDriver.Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latencyMicros;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
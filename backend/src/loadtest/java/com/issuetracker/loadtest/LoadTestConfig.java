@@ -0,0 +1,71 @@
+package com.issuetracker.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options, all of the form --key=value
+final class LoadTestConfig {
+
+    final String database;
+    final String postgresUrl;
+    final String postgresUsername;
+    final String postgresPassword;
+    final long seed;
+
+    final int users;
+    final int projects;
+    final long issues;
+    final int maxMembersPerProject;
+    final double zipfExponent;
+
+    final Duration warmup;
+    final Duration duration;
+    final Map<Operation, Double> arrivalRates;
+    final int maxInFlight;
+    final int webSocketSubscribers;
+    final String reportDirectory;
+
+    private LoadTestConfig(Map<String, String> options) {
+        database = options.getOrDefault("db", "h2");
+        postgresUrl = options.getOrDefault("postgres.url", "jdbc:postgresql://localhost:5432/issuetracker_loadtest");
+        postgresUsername = options.getOrDefault("postgres.username", "postgres");
+        postgresPassword = options.getOrDefault("postgres.password", "postgres");
+        seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        users = Integer.parseInt(options.getOrDefault("users", "5000"));
+        projects = Integer.parseInt(options.getOrDefault("projects", "2000"));
+        issues = Long.parseLong(options.getOrDefault("issues", "500000"));
+        maxMembersPerProject = Integer.parseInt(options.getOrDefault("members", "25"));
+        zipfExponent = Double.parseDouble(options.getOrDefault("zipf", "1.1"));
+
+        warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15")));
+        duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        arrivalRates = new EnumMap<>(Operation.class);
+        arrivalRates.put(Operation.LIST, Double.parseDouble(options.getOrDefault("rate.list", "200")));
+        arrivalRates.put(Operation.SEARCH, Double.parseDouble(options.getOrDefault("rate.search", "50")));
+        arrivalRates.put(Operation.CREATE, Double.parseDouble(options.getOrDefault("rate.create", "20")));
+        arrivalRates.put(Operation.UPDATE, Double.parseDouble(options.getOrDefault("rate.update", "30")));
+        arrivalRates.put(Operation.LOGIN, Double.parseDouble(options.getOrDefault("rate.login", "5")));
+        maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        webSocketSubscribers = Integer.parseInt(options.getOrDefault("ws-subscribers", "200"));
+        reportDirectory = options.getOrDefault("report-dir", "target/loadtest");
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    boolean usePostgres() {
+        return database.equalsIgnoreCase("postgres");
+    }
+}
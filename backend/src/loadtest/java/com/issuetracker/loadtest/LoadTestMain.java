@@ -0,0 +1,99 @@
+package com.issuetracker.loadtest;
+
+import com.issuetracker.IssueTrackerApplication;
+import com.issuetracker.security.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Boots the backend in-process (H2 by default, or an empty local PostgreSQL
+// with --db=postgres), loads a synthetic dataset and drives an open-model mixed
+// workload against it. See README "Load Testing" for the options.
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        // Passed as command line arguments so they override application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(IssueTrackerApplication.class)
+                .run(applicationArguments(config));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Long existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            if (existingUsers != null && existingUsers > 0) {
+                throw new IllegalStateException("Load test database is not empty; use a dedicated database");
+            }
+
+            System.out.println("Generating dataset...");
+            long generationStart = System.nanoTime();
+            Dataset dataset = new DatasetGenerator(jdbcTemplate, context.getBean(PasswordEncoder.class), config).generate();
+            System.out.printf("Dataset ready in %.1f s%n", (System.nanoTime() - generationStart) / 1e9);
+
+            URI baseUri = URI.create("http://localhost:" + port);
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            Map<Long, String> tokens = Workload.newTokenCache();
+
+            try (StompSubscribers subscribers = new StompSubscribers()) {
+                subscribers.connect("ws://localhost:" + port + "/ws/websocket", config.webSocketSubscribers,
+                        dataset, config.zipfExponent, config.seed);
+                System.out.printf("%d WebSocket subscribers connected (%d failed)%n",
+                        subscribers.connected(), subscribers.failures.get());
+
+                System.out.printf("Running: %d s warmup + %d s measurement, rates %s%n",
+                        config.warmup.toSeconds(), config.duration.toSeconds(), config.arrivalRates);
+                OpenModelDriver driver = new OpenModelDriver(config, operation ->
+                        new Workload(dataset, baseUri, jwtUtil, tokens, config.zipfExponent, config.seed + operation.ordinal()));
+                LatencyReport report = new LatencyReport(driver.run(), config.duration.toMillis() / 1000.0);
+
+                report.print(System.out);
+                System.out.printf("WebSocket messages delivered: %d%n", subscribers.messages.get());
+                report.write(Path.of(config.reportDirectory));
+                System.out.println("HDR histograms written to " + config.reportDirectory);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String[] applicationArguments(LoadTestConfig config) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.com.issuetracker", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("spring.datasource.hikari.maximum-pool-size", 20);
+        // One client address and Zipf-skewed users: per-user rate limits would cap the
+        // offered load; the adaptive concurrency limit stays active
+        properties.put("app.admission.read.per-second", 1_000_000);
+        properties.put("app.admission.write.per-second", 1_000_000);
+        properties.put("app.admission.auth.per-second", 1_000_000);
+        if (config.usePostgres()) {
+            properties.put("spring.datasource.url", config.postgresUrl);
+            properties.put("spring.datasource.username", config.postgresUsername);
+            properties.put("spring.datasource.password", config.postgresPassword);
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            properties.put("spring.flyway.enabled", false);
+        }
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+}
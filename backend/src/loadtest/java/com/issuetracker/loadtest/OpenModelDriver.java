@@ -0,0 +1,124 @@
+package com.issuetracker.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Open-model load: every operation has its own Poisson arrival process and
+// requests are fired asynchronously at their scheduled time, whether or not
+// earlier ones have completed. Latency is measured from the scheduled start, so
+// a stalled server shows up in the percentiles instead of silently lowering the
+// offered load (no coordinated omission).
+final class OpenModelDriver {
+
+    static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+    }
+
+    private final LoadTestConfig config;
+    private final Function<Operation, Workload> workloads;
+    private final HttpClient httpClient;
+    private final ExecutorService httpExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    OpenModelDriver(LoadTestConfig config, Function<Operation, Workload> workloads) {
+        this.config = config;
+        this.workloads = workloads;
+        this.httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(httpExecutor)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    Map<Operation, Stats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup.toNanos();
+        long end = measureFrom + config.duration.toNanos();
+
+        List<Thread> arrivals = new ArrayList<>();
+        for (Map.Entry<Operation, Double> entry : config.arrivalRates.entrySet()) {
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            Operation operation = entry.getKey();
+            double ratePerNano = entry.getValue() / 1e9;
+            Workload workload = workloads.apply(operation);
+            SplittableRandom random = new SplittableRandom(config.seed * 31 + operation.ordinal());
+            Thread thread = new Thread(() -> generateArrivals(operation, workload, ratePerNano, random, start, measureFrom, end),
+                    "arrivals-" + operation.name().toLowerCase());
+            thread.setDaemon(true);
+            thread.start();
+            arrivals.add(thread);
+        }
+        for (Thread thread : arrivals) {
+            thread.join();
+        }
+        // Let in-flight requests finish so their latency is recorded
+        long drainDeadline = System.nanoTime() + 30_000_000_000L;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        httpExecutor.shutdown();
+        return stats;
+    }
+
+    private void generateArrivals(Operation operation, Workload workload, double ratePerNano,
+                                  SplittableRandom random, long start, long measureFrom, long end) {
+        Stats operationStats = stats.get(operation);
+        long scheduled = start;
+        while (true) {
+            // Exponential inter-arrival times give a Poisson process
+            scheduled += (long) (-Math.log(1d - random.nextDouble()) / ratePerNano);
+            if (scheduled >= end) {
+                return;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            if (inFlight.incrementAndGet() > config.maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    operationStats.dropped.incrementAndGet();
+                }
+                continue;
+            }
+            long intendedStart = scheduled;
+            HttpRequest request = workload.next(operation);
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intendedStart;
+                        inFlight.decrementAndGet();
+                        if (!measured) {
+                            return;
+                        }
+                        operationStats.latencyMicros.recordValue(Math.max(1, latency / 1000));
+                        if (error != null || response.statusCode() >= 400) {
+                            operationStats.errors.incrementAndGet();
+                        }
+                    });
+        }
+    }
+}
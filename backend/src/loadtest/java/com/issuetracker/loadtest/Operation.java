@@ -0,0 +1,9 @@
+package com.issuetracker.loadtest;
+
+enum Operation {
+    LIST,
+    SEARCH,
+    CREATE,
+    UPDATE,
+    LOGIN
+}
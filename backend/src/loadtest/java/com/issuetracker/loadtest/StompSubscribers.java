@@ -0,0 +1,72 @@
+package com.issuetracker.loadtest;
+
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Board viewers: STOMP subscribers on /topic/projects/{id}/issues, spread over
+// projects by the same Zipf popularity as the HTTP workload.
+final class StompSubscribers implements AutoCloseable {
+    private final WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+    final AtomicLong messages = new AtomicLong();
+    final AtomicLong failures = new AtomicLong();
+
+    StompSubscribers() {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new SimpleMessageConverter());
+    }
+
+    void connect(String url, int count, Dataset dataset, double zipfExponent, long seed) throws InterruptedException {
+        ZipfSampler projects = new ZipfSampler(dataset.projects, zipfExponent);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            int projectId = projects.sample(random);
+            try {
+                StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() { })
+                        .get(10, TimeUnit.SECONDS);
+                session.subscribe("/topic/projects/" + projectId + "/issues", new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return byte[].class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        messages.incrementAndGet();
+                    }
+                });
+                sessions.add(session);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    int connected() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() {
+        for (StompSession session : sessions) {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        }
+        stompClient.stop();
+    }
+}
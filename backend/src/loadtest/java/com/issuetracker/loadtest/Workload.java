@@ -0,0 +1,95 @@
+package com.issuetracker.loadtest;
+
+import com.issuetracker.security.JwtUtil;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Builds the next request of a given operation. Projects are picked by Zipf rank
+// (project 1 is the hottest), the acting user is a member of that project.
+// Not thread-safe: each arrival thread owns one instance.
+final class Workload {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Dataset dataset;
+    private final URI baseUri;
+    private final JwtUtil jwtUtil;
+    private final Map<Long, String> tokens;
+    private final ZipfSampler projectActivity;
+    private final SplittableRandom random;
+
+    Workload(Dataset dataset, URI baseUri, JwtUtil jwtUtil, Map<Long, String> tokens,
+             double zipfExponent, long seed) {
+        this.dataset = dataset;
+        this.baseUri = baseUri;
+        this.jwtUtil = jwtUtil;
+        this.tokens = tokens;
+        this.projectActivity = new ZipfSampler(dataset.projects, zipfExponent);
+        this.random = new SplittableRandom(seed);
+    }
+
+    static Map<Long, String> newTokenCache() {
+        return new ConcurrentHashMap<>();
+    }
+
+    HttpRequest next(Operation operation) {
+        int projectId = projectActivity.sample(random);
+        long[] team = dataset.members[projectId - 1];
+        long userId = team[random.nextInt(team.length)];
+
+        return switch (operation) {
+            case LIST -> get(userId, "/api/issues?projectId=" + projectId
+                    + "&page=" + (random.nextInt(5) == 0 ? random.nextInt(1, 5) : 0) + "&size=20");
+            case SEARCH -> get(userId, "/api/issues?projectId=" + projectId
+                    + "&search=" + DatasetGenerator.randomWord(random) + "&page=0&size=20");
+            case CREATE -> send(userId, "POST", "/api/issues",
+                    "{\"projectId\":" + projectId + ",\"title\":\"Load test " + DatasetGenerator.randomWord(random)
+                    + "\",\"description\":\"Created by the load generator\",\"priority\":\"MEDIUM\",\"tags\":[\"load\"]}");
+            case UPDATE -> update(userId, projectId);
+            case LOGIN -> HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + Dataset.email(userId)
+                            + "\",\"password\":\"" + Dataset.PASSWORD + "\"}"))
+                    .build();
+        };
+    }
+
+    private HttpRequest update(long userId, int projectId) {
+        long count = dataset.issueCount[projectId - 1];
+        if (count == 0) {
+            return get(userId, "/api/issues?projectId=" + projectId + "&page=0&size=20");
+        }
+        long issueId = dataset.firstIssueId[projectId - 1] + random.nextLong(count);
+        String status = random.nextBoolean() ? "IN_PROGRESS" : "CLOSED";
+        return send(userId, "PUT", "/api/issues/" + issueId,
+                "{\"projectId\":" + projectId + ",\"title\":\"Updated " + DatasetGenerator.randomWord(random)
+                + " #" + issueId + "\",\"status\":\"" + status + "\"}");
+    }
+
+    private HttpRequest get(long userId, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token(userId))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(long userId, String method, String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token(userId))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Tokens are minted directly instead of logging in: login has its own budget
+    String token(long userId) {
+        return tokens.computeIfAbsent(userId, id -> jwtUtil.generateToken(Dataset.email(id), id));
+    }
+}
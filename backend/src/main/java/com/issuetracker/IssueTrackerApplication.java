@@ -1,9 +1,12 @@
 package com.issuetracker;
 
+import com.issuetracker.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class IssueTrackerApplication {
     public static void main(String[] args) {
         SpringApplication.run(IssueTrackerApplication.class, args);
@@ -0,0 +1,99 @@
+package com.issuetracker.async;
+
+import com.issuetracker.exception.ServiceUnavailableException;
+import com.issuetracker.monitoring.RequestTrace;
+import com.issuetracker.monitoring.SqlStatementStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs read endpoints off the servlet thread on a bounded pool, each with a
+// deadline (app.async.request-timeout-ms, or shorter via X-Request-Timeout-Ms).
+// A full queue is answered with 503 right away; a passed deadline with 503 and
+// the request's running statements cancelled, as happens when the client goes away.
+@Component
+public class AsyncReads implements DisposableBean {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final long maxTimeoutMillis;
+
+    public AsyncReads(@Value("${app.async.read-threads:10}") int threads,
+                      @Value("${app.async.read-queue:100}") int queueCapacity,
+                      @Value("${app.async.request-timeout-ms:5000}") long maxTimeoutMillis,
+                      MeterRegistry meterRegistry) {
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "async-read-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "async.reads");
+        this.maxTimeoutMillis = maxTimeoutMillis;
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> submit(Long requestedTimeoutMillis, Supplier<T> work) {
+        long timeoutMillis = requestedTimeoutMillis != null && requestedTimeoutMillis > 0
+                ? Math.min(requestedTimeoutMillis, maxTimeoutMillis)
+                : maxTimeoutMillis;
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMillis);
+        result.onTimeout(() -> {
+            deadline.cancel();
+            result.setErrorResult(new ServiceUnavailableException("Request deadline exceeded"));
+        });
+        // Client disconnected (as far as the container can tell) or the request failed
+        result.onError(error -> deadline.cancel());
+        result.onCompletion(deadline::cancel);
+
+        // The worker continues the request: same user, trace and SQL counters
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        RequestTrace trace = RequestTrace.current();
+        SqlStatementStats stats = SqlStatementStats.current();
+        try {
+            executor.execute(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                RequestTrace.bind(trace);
+                SqlStatementStats.bind(stats);
+                RequestDeadline.bind(deadline);
+                try {
+                    if (!deadline.isCancelled()) {
+                        result.setResult(ResponseEntity.ok(work.get()));
+                    }
+                } catch (RuntimeException e) {
+                    result.setErrorResult(e);
+                } finally {
+                    RequestDeadline.bind(null);
+                    SqlStatementStats.clear();
+                    RequestTrace.clear();
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Server is busy, retry shortly");
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+package com.issuetracker.async;
+
+import com.issuetracker.exception.ServiceUnavailableException;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Deadline of the current request and the JDBC statements it has in flight.
+// Bound to the threads doing the request's database work; SqlStatementListener
+// caps each statement's query timeout at the time left and registers it here,
+// so cancel() - deadline passed, client gone - can abort it from another thread.
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    public RequestDeadline(long timeoutMillis) {
+        this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000;
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    // Returns the deadline bound before, for restore()
+    public static RequestDeadline bind(RequestDeadline deadline) {
+        RequestDeadline previous = CURRENT.get();
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+        return previous;
+    }
+
+    public static void restore(RequestDeadline previous) {
+        bind(previous);
+    }
+
+    public long remainingMillis() {
+        return (deadlineNanos - System.nanoTime()) / 1_000_000;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void checkActive() {
+        if (cancelled) {
+            throw new ServiceUnavailableException("Request cancelled");
+        }
+        if (remainingMillis() <= 0) {
+            throw new ServiceUnavailableException("Request deadline exceeded");
+        }
+    }
+
+    public void begin(Statement statement) {
+        statements.add(statement);
+        try {
+            checkActive();
+        } catch (RuntimeException e) {
+            statements.remove(statement);
+            throw e;
+        }
+        // JDBC timeouts are whole seconds; never raise one that is already lower
+        int seconds = (int) Math.max(1, (remainingMillis() + 999) / 1000);
+        try {
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException ignored) {
+            // driver without timeout support; cancel() still applies
+        }
+    }
+
+    public void end(Statement statement) {
+        statements.remove(statement);
+    }
+
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // already finished or closed
+            }
+        }
+    }
+}
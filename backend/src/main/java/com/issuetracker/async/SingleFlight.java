@@ -0,0 +1,148 @@
+package com.issuetracker.async;
+
+import com.issuetracker.datasource.ReadYourWritesFence;
+import com.issuetracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+// Coalesces identical concurrent reads: the first caller for a key runs the
+// query, callers arriving while it runs wait for and share its result (the
+// same objects - callers must not modify them). Call only after the caller's
+// permission check, with a key covering everything the result depends on,
+// and outside a transaction, with the loader opening its own: a joiner
+// waiting inside one holds a pooled connection for nothing.
+//
+// Keys carry a per-project generation that is bumped when a write to the
+// project commits, so nobody joins a read that started before a write they
+// may already have seen. Waiting is capped at app.single-flight.timeout-ms
+// and the request deadline; a caller whose wait times out or whose leader
+// failed runs the query itself.
+//
+// Users inside their read-your-writes window (see ReadYourWritesFence) read
+// from the primary, everyone else may get a lagging replica, so the two never
+// share a flight: a fenced user joining a replica read could miss their own write.
+@Component
+public class SingleFlight {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private enum Outcome { LEADER, JOINED, TIMEOUT, LEADER_FAILED }
+
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final ConcurrentHashMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWritesFence fence;
+    private final long timeoutMillis;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry, ObjectProvider<ReadYourWritesFence> fence,
+                        @Value("${app.single-flight.timeout-ms:1000}") long timeoutMillis) {
+        this(meterRegistry, fence.getIfAvailable(), timeoutMillis);
+    }
+
+    // fence is null without replicas: every read goes to the primary
+    SingleFlight(MeterRegistry meterRegistry, ReadYourWritesFence fence, long timeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.fence = fence;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Long projectId, Object key, Supplier<T> loader) {
+        boolean fenced = fence != null && fence.isFenced(ReadYourWritesFence.currentSubject());
+        FlightKey flightKey = new FlightKey(name, generations.get(stripe(projectId)), fenced, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existing == null) {
+            count(name, Outcome.LEADER);
+            try {
+                T result = loader.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        try {
+            Object result = existing.get(waitMillis(), TimeUnit.MILLISECONDS);
+            count(name, Outcome.JOINED);
+            return (T) result;
+        } catch (TimeoutException e) {
+            count(name, Outcome.TIMEOUT);
+        } catch (ExecutionException e) {
+            // The leader's failure may be its own (deadline, cancellation)
+            count(name, Outcome.LEADER_FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Request interrupted");
+        }
+        return loader.get();
+    }
+
+    // Call inside the writing transaction; takes effect once it commits
+    public void invalidateAfterCommit(Long projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(projectId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(projectId);
+            }
+        });
+    }
+
+    public void invalidate(Long projectId) {
+        generations.incrementAndGet(stripe(projectId));
+    }
+
+    private long waitMillis() {
+        RequestDeadline deadline = RequestDeadline.current();
+        long wait = deadline != null ? Math.min(timeoutMillis, deadline.remainingMillis()) : timeoutMillis;
+        return Math.max(1, wait);
+    }
+
+    private void count(String name, Outcome outcome) {
+        counters.computeIfAbsent(name, this::registerCounters)[outcome.ordinal()].increment();
+    }
+
+    private Counter[] registerCounters(String name) {
+        Counter[] byOutcome = new Counter[Outcome.values().length];
+        for (Outcome outcome : Outcome.values()) {
+            byOutcome[outcome.ordinal()] = Counter.builder("single_flight.calls")
+                    .tag("name", name)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return byOutcome;
+    }
+
+    private static int stripe(Long projectId) {
+        return Math.floorMod(Long.hashCode(projectId), GENERATION_STRIPES);
+    }
+
+    private record FlightKey(String name, long generation, boolean fenced, Object key) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.issuetracker.config;
+
+import com.issuetracker.dto.AuthResponse;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.LoginRequest;
+import com.issuetracker.dto.ProjectRequest;
+import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.SignupRequest;
+import com.issuetracker.model.IssueHistory;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.sharding.ShardAwareSequenceGenerator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+// Hints for the native image build (-Pnative). Controller payloads are picked up
+// by Spring AOT itself; this covers STOMP payloads, Page serialization, JJWT and
+// the history journal. Batch results declare their body as Object; the bodies
+// are the issue and project DTOs registered below. The search index and the
+// idempotency store need nothing: segments and the manifest are written with
+// DataOutputStream and plain text, and stored responses are raw bytes.
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_TYPES = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParser",
+        "io.jsonwebtoken.impl.DefaultClaims",
+        "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+        "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+        "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // DTOs travel over STOMP (SimpMessagingTemplate) as well as HTTP
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                AuthResponse.class, LoginRequest.class, SignupRequest.class,
+                IssueRequest.class, IssueResponse.class,
+                ProjectRequest.class, ProjectResponse.class,
+                IssueStatus.class, IssuePriority.class, UserRole.class,
+                PageImpl.class, PageRequest.class, Sort.class, Sort.Order.class);
+        // History entries are written to and replayed from the journal as JSON
+        bindingRegistrar.registerReflectionHints(hints.reflection(), IssueHistory.class);
+
+        // JJWT instantiates its implementation classes by name and finds the
+        // Jackson (de)serializer through ServiceLoader
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // SockJS frame encoding
+        hints.reflection().registerType(
+                TypeReference.of("org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // Hibernate instantiates the issue id generator by reflection
+        hints.reflection().registerType(ShardAwareSequenceGenerator.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // Flyway migrations are discovered by classpath scanning
+        hints.resources().registerPattern("db/migration/*.sql");
+        hints.resources().registerPattern("db/migration/*.sql.conf");
+        hints.resources().registerPattern("db/shard/*.sql");
+        hints.resources().registerPattern("db/shard/*.sql.conf");
+    }
+}
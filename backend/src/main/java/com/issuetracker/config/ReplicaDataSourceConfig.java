@@ -0,0 +1,104 @@
+package com.issuetracker.config;
+
+import com.issuetracker.datasource.ReadYourWritesFence;
+import com.issuetracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Only active when app.datasource.replica-urls is set; otherwise Boot's single
+// Hikari pool is used as before. spring.datasource.* still describes the primary.
+// Needs spring.jpa.open-in-view=false: an entity manager held open for the whole
+// request keeps the first transaction's connection, so later ones are not routed.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+
+    // Milliseconds of WAL replay lag; 0 when the replica has replayed everything it received
+    static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Value("${app.datasource.replica-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica-username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica-password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica-lag-query:}")
+    private String lagQuery;
+
+    @Value("${app.datasource.replica-max-lag-ms:1000}")
+    private long maxLagMillis;
+
+    @Value("${app.datasource.replica-check-interval-ms:1000}")
+    private long checkIntervalMillis;
+
+    @Value("${app.datasource.read-your-writes-ms:5000}")
+    private long readYourWritesMillis;
+
+    @Value("${spring.jpa.open-in-view:true}")
+    private boolean openInView;
+
+    // Also read by SingleFlight, which keeps fenced readers out of replica flights
+    @Bean
+    public ReadYourWritesFence readYourWritesFence() {
+        return new ReadYourWritesFence(readYourWritesMillis);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                               ReadYourWritesFence readYourWritesFence) {
+        if (openInView) {
+            throw new IllegalStateException("app.datasource.replica-urls needs spring.jpa.open-in-view=false");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                readYourWritesFence, maxLagMillis,
+                lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery, checkIntervalMillis);
+
+        for (String name : routing.getReplicaNames()) {
+            Gauge.builder("db.replica.lag", routing, r -> r.getLagMillis(name))
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .description("Replication lag last measured on the replica, -1 when unreachable")
+                    .register(meterRegistry);
+        }
+        return routing;
+    }
+}
@@ -0,0 +1,23 @@
+package com.issuetracker.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+// Background jobs (IssueArchiver, history and search index flushes). Named
+// taskScheduler so @Scheduled methods do not end up on the STOMP broker's
+// heartbeat scheduler; more than one thread so a long job, like building the
+// search index on first start, does not hold up the others.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("scheduled-");
+        return scheduler;
+    }
+}
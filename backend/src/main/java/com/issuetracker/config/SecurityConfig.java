@@ -1,8 +1,13 @@
 package com.issuetracker.config;
 
+import com.issuetracker.idempotency.IdempotencyFilter;
+import com.issuetracker.security.AdmissionControlFilter;
 import com.issuetracker.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,9 +28,16 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AdmissionControlFilter admissionControlFilter;
+    private final IdempotencyFilter idempotencyFilter;
+    // Actual port of the management server (management.server.port), once it listens
+    private volatile int managementPort = -1;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, AdmissionControlFilter admissionControlFilter,
+                          IdempotencyFilter idempotencyFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.admissionControlFilter = admissionControlFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
@@ -34,17 +46,32 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/api/health", "/health", "/ws/**").permitAll()
+                // Async results (AsyncReads) are dispatched after the request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api/auth/**", "/api/health", "/health", "/ws/**",
+                                 "/actuator/health").permitAll()
+                // Metrics only on the management port, which is not published outside the cluster
+                .requestMatchers(request -> request.getLocalPort() == managementPort
+                                 && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(admissionControlFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter, AdmissionControlFilter.class);
         
         return http.build();
     }
 
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
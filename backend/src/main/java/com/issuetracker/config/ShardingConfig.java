@@ -0,0 +1,113 @@
+package com.issuetracker.config;
+
+import com.issuetracker.sharding.ShardDataSources;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when app.sharding.shard-urls is set. Shard 0 is the directory
+// database from spring.datasource; the listed URLs become shards 1..N and hold
+// issues only. Not combinable with app.datasource.replica-urls (both define the DataSource).
+// Needs spring.jpa.open-in-view=false, see ReplicaDataSourceConfig.
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.shard-urls")
+public class ShardingConfig {
+
+    @Value("${app.sharding.shard-urls}")
+    private List<String> shardUrls;
+
+    @Value("${app.sharding.shard-username:${spring.datasource.username:}}")
+    private String shardUsername;
+
+    @Value("${app.sharding.shard-password:${spring.datasource.password:}}")
+    private String shardPassword;
+
+    @Value("${spring.flyway.enabled:true}")
+    private boolean flywayEnabled;
+
+    // Schema script for shards when Flyway is off (embedded test databases)
+    @Value("${app.sharding.schema-script:}")
+    private String schemaScript;
+
+    @Value("${spring.jpa.open-in-view:true}")
+    private boolean openInView;
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                             ResourceLoader resourceLoader) {
+        if (openInView) {
+            throw new IllegalStateException("app.sharding.shard-urls needs spring.jpa.open-in-view=false");
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        List<DataSource> shards = new ArrayList<>();
+
+        HikariDataSource directory = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        directory.setPoolName("shard-0");
+        directory.setMetricsTrackerFactory(metrics);
+        shards.add(directory);
+
+        for (int i = 0; i < shardUrls.size(); i++) {
+            int shardId = i + 1;
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(shardUrls.get(i).trim())
+                    .username(shardUsername)
+                    .password(shardPassword)
+                    .build();
+            shard.setPoolName("shard-" + shardId);
+            shard.setMetricsTrackerFactory(metrics);
+            prepareShard(shard, shardId, resourceLoader);
+            shards.add(shard);
+        }
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardDataSources shardDataSources) {
+        return new ShardRoutingDataSource(shardDataSources);
+    }
+
+    private void prepareShard(DataSource shard, int shardId, ResourceLoader resourceLoader) {
+        if (flywayEnabled) {
+            // Shards only get the issue tables. Shards set up when they still ran
+            // db/migration already have them and are baselined at V1.
+            Flyway.configure()
+                    .dataSource(shard)
+                    .locations("classpath:db/shard")
+                    .table("flyway_shard_history")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+        } else if (!schemaScript.isBlank()) {
+            new ResourceDatabasePopulator(resourceLoader.getResource(schemaScript)).execute(shard);
+        }
+
+        // Issue ids start at shardId * ISSUE_ID_SPAN, so ids stay unique across
+        // shards and a project can move without renumbering its issues. Done once
+        // per shard; shard_identity records that it happened.
+        JdbcTemplate jdbc = new JdbcTemplate(shard);
+        Integer initialized = jdbc.queryForObject("SELECT COUNT(*) FROM shard_identity", Integer.class);
+        if (initialized == 0) {
+            jdbc.execute("ALTER SEQUENCE issues_seq RESTART WITH " + shardId * ShardRouter.ISSUE_ID_SPAN);
+            jdbc.update("INSERT INTO shard_identity (shard_id) VALUES (?)", shardId);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.issuetracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class WebSocketMetrics implements MeterBinder {
+
+    // Executors behind the STOMP message channels (AbstractMessageBrokerConfiguration)
+    private static final List<String> CHANNEL_EXECUTORS = List.of(
+        "clientInboundChannelExecutor",
+        "clientOutboundChannelExecutor",
+        "brokerChannelExecutor"
+    );
+
+    private final ApplicationContext applicationContext;
+    private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+
+    public WebSocketMetrics(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.sessions", sessionIds, Set::size)
+                .description("Connected STOMP sessions")
+                .register(registry);
+
+        for (String name : CHANNEL_EXECUTORS) {
+            if (applicationContext.containsBean(name)
+                    && applicationContext.getBean(name) instanceof ThreadPoolTaskExecutor executor) {
+                Gauge.builder("websocket.channel.queue.size", executor,
+                                e -> e.getThreadPoolExecutor().getQueue().size())
+                        .description("Messages waiting for a thread on the STOMP channel")
+                        .tag("channel", name.replace("ChannelExecutor", ""))
+                        .register(registry);
+                Gauge.builder("websocket.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+                        .tag("channel", name.replace("ChannelExecutor", ""))
+                        .register(registry);
+            }
+        }
+    }
+
+    // A disconnect can be reported more than once per session, hence the set
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessionIds.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionIds.remove(event.getSessionId());
+    }
+}
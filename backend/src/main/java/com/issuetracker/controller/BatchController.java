@@ -0,0 +1,39 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.dto.BatchRequest;
+import com.issuetracker.dto.BatchResult;
+import com.issuetracker.security.JwtUtil;
+import com.issuetracker.service.BatchService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+    private final BatchService batchService;
+    private final JwtUtil jwtUtil;
+
+    public BatchController(BatchService batchService, JwtUtil jwtUtil) {
+        this.batchService = batchService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    
+    
+    // Results are in operation order. Runs on the request thread rather than
+    // through AsyncReads, since batches usually write
+    @PostMapping
+    public ResponseEntity<List<BatchResult>> execute(
+            @Valid @RequestBody BatchRequest request,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        return ResponseEntity.ok(batchService.execute(request, userId));
+    }
+    
+    private Long extractUserId(String token) {
+        String jwt = token.substring(7); // Remove "Bearer " prefix
+        return jwtUtil.extractUserId(jwt);
+    }
+}
@@ -1,7 +1,10 @@
 package com.issuetracker.controller;
 
+import com.issuetracker.async.AsyncReads;
+import com.issuetracker.dto.IssueHistoryPage;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.RankRequest;
 import com.issuetracker.model.enums.IssuePriority;
 import com.issuetracker.model.enums.IssueStatus;
 import com.issuetracker.security.JwtUtil;
@@ -13,16 +16,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping("/api/issues")
 public class IssueController {
     private final IssueService issueService;
     private final JwtUtil jwtUtil;
+    private final AsyncReads asyncReads;
 
-    public IssueController(IssueService issueService, JwtUtil jwtUtil) {
+    public IssueController(IssueService issueService, JwtUtil jwtUtil, AsyncReads asyncReads) {
         this.issueService = issueService;
         this.jwtUtil = jwtUtil;
+        this.asyncReads = asyncReads;
     }
 
     
@@ -36,17 +42,19 @@ public class IssueController {
     }
     
     @GetMapping
-    public ResponseEntity<Page<IssueResponse>> getIssues(
+    public DeferredResult<ResponseEntity<Page<IssueResponse>>> getIssues(
             @RequestParam Long projectId,
             @RequestParam(required = false) IssueStatus status,
             @RequestParam(required = false) IssuePriority priority,
             @RequestParam(required = false) Long assigneeId,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
         
         Long userId = extractUserId(token);
         
@@ -54,18 +62,38 @@ public class IssueController {
                 Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<IssueResponse> issues = issueService.getIssues(
-                projectId, status, priority, assigneeId, search, pageable, userId);
-        
-        return ResponseEntity.ok(issues);
+        return asyncReads.submit(timeoutMs, () -> issueService.getIssues(
+                projectId, status, priority, assigneeId, search, includeArchived, pageable, userId));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<IssueResponse> getIssue(
+    public DeferredResult<ResponseEntity<IssueResponse>> getIssue(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        return asyncReads.submit(timeoutMs, () -> issueService.getIssue(id, userId));
+    }
+    
+    @GetMapping("/by-key/{key}")
+    public DeferredResult<ResponseEntity<IssueResponse>> getIssueByKey(
+            @PathVariable String key,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
         Long userId = extractUserId(token);
-        return ResponseEntity.ok(issueService.getIssue(id, userId));
+        return asyncReads.submit(timeoutMs, () -> issueService.getIssueByKey(key, userId));
+    }
+    
+    @GetMapping("/{id}/history")
+    public DeferredResult<ResponseEntity<IssueHistoryPage>> getIssueHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        int pageSize = Math.max(1, Math.min(size, 200));
+        return asyncReads.submit(timeoutMs, () -> issueService.getIssueHistory(id, before, pageSize, userId));
     }
     
     @PutMapping("/{id}")
@@ -77,6 +105,15 @@ public class IssueController {
         return ResponseEntity.ok(issueService.updateIssue(id, request, userId));
     }
     
+    @PutMapping("/{id}/rank")
+    public ResponseEntity<IssueResponse> rankIssue(
+            @PathVariable Long id,
+            @RequestBody RankRequest request,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        return ResponseEntity.ok(issueService.rankIssue(id, request, userId));
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteIssue(
             @PathVariable Long id,
@@ -1,23 +1,36 @@
 package com.issuetracker.controller;
 
+import com.issuetracker.async.AsyncReads;
+import com.issuetracker.dto.BoardColumn;
 import com.issuetracker.dto.ProjectRequest;
 import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.Suggestion;
+import com.issuetracker.model.enums.IssueStatus;
 import com.issuetracker.security.JwtUtil;
+import com.issuetracker.service.IssueService;
 import com.issuetracker.service.ProjectService;
+import com.issuetracker.service.SuggestService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectController {
     private final ProjectService projectService;
+    private final IssueService issueService;
     private final JwtUtil jwtUtil;
+    private final AsyncReads asyncReads;
+    private final SuggestService suggestService;
 
-    public ProjectController(ProjectService projectService, JwtUtil jwtUtil) {
+    public ProjectController(ProjectService projectService, IssueService issueService, JwtUtil jwtUtil, AsyncReads asyncReads, SuggestService suggestService) {
         this.projectService = projectService;
+        this.issueService = issueService;
         this.jwtUtil = jwtUtil;
+        this.asyncReads = asyncReads;
+        this.suggestService = suggestService;
     }
 
     
@@ -31,18 +44,60 @@ public class ProjectController {
     }
     
     @GetMapping
-    public ResponseEntity<List<ProjectResponse>> getUserProjects(
-            @RequestHeader("Authorization") String token) {
+    public DeferredResult<ResponseEntity<List<ProjectResponse>>> getUserProjects(
+            @RequestParam(required = false) List<String> include,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
         Long userId = extractUserId(token);
-        return ResponseEntity.ok(projectService.getUserProjects(userId));
+        boolean includeStats = include != null && include.contains("stats");
+        return asyncReads.submit(timeoutMs, () -> projectService.getUserProjects(userId, includeStats));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponse> getProject(
+    public DeferredResult<ResponseEntity<ProjectResponse>> getProject(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        return asyncReads.submit(timeoutMs, () -> projectService.getProject(id, userId));
+    }
+    
+    @GetMapping("/{id}/board")
+    public DeferredResult<ResponseEntity<List<BoardColumn>>> getBoard(
             @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int perColumn,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        int limit = Math.max(1, Math.min(perColumn, 100));
+        return asyncReads.submit(timeoutMs, () -> issueService.getBoard(id, limit, userId));
+    }
+    
+    @GetMapping("/{id}/board/{status}")
+    public DeferredResult<ResponseEntity<BoardColumn>> getBoardColumn(
+            @PathVariable Long id,
+            @PathVariable IssueStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        return asyncReads.submit(timeoutMs, () -> issueService.getBoardColumn(id, status, after, pageSize, userId));
+    }
+    
+    // Answered from memory on the request thread once the project is loaded,
+    // so not through AsyncReads
+    @GetMapping("/{id}/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "issue") String type,
+            @RequestParam(defaultValue = "10") int limit,
             @RequestHeader("Authorization") String token) {
         Long userId = extractUserId(token);
-        return ResponseEntity.ok(projectService.getProject(id, userId));
+        int count = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(suggestService.suggest(id, q, type, count, userId));
     }
     
     @PutMapping("/{id}")
@@ -54,6 +109,16 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.updateProject(id, request, userId));
     }
     
+    @PostMapping("/{id}/move")
+    public ResponseEntity<Void> moveProject(
+            @PathVariable Long id,
+            @RequestParam int shard,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        projectService.moveProject(id, shard, userId);
+        return ResponseEntity.noContent().build();
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(
             @PathVariable Long id,
@@ -0,0 +1,82 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.async.AsyncReads;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.SavedFilterRequest;
+import com.issuetracker.dto.SavedFilterResponse;
+import com.issuetracker.security.JwtUtil;
+import com.issuetracker.service.SavedFilterService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/filters")
+public class SavedFilterController {
+    private final SavedFilterService savedFilterService;
+    private final JwtUtil jwtUtil;
+    private final AsyncReads asyncReads;
+
+    public SavedFilterController(SavedFilterService savedFilterService, JwtUtil jwtUtil, AsyncReads asyncReads) {
+        this.savedFilterService = savedFilterService;
+        this.jwtUtil = jwtUtil;
+        this.asyncReads = asyncReads;
+    }
+
+    
+    
+    @PostMapping
+    public ResponseEntity<SavedFilterResponse> createFilter(
+            @Valid @RequestBody SavedFilterRequest request,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        return ResponseEntity.ok(savedFilterService.createFilter(request, userId));
+    }
+    
+    @GetMapping
+    public DeferredResult<ResponseEntity<List<SavedFilterResponse>>> getFilters(
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        return asyncReads.submit(timeoutMs, () -> savedFilterService.getFilters(userId));
+    }
+    
+    @GetMapping("/{id}/issues")
+    public DeferredResult<ResponseEntity<Page<IssueResponse>>> getFilterIssues(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        int pageSize = Math.max(1, Math.min(size, 200));
+        int pageNumber = Math.max(0, page);
+        return asyncReads.submit(timeoutMs, () -> savedFilterService.getFilterIssues(id, pageNumber, pageSize, userId));
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<SavedFilterResponse> updateFilter(
+            @PathVariable Long id,
+            @Valid @RequestBody SavedFilterRequest request,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        return ResponseEntity.ok(savedFilterService.updateFilter(id, request, userId));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteFilter(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        Long userId = extractUserId(token);
+        savedFilterService.deleteFilter(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    private Long extractUserId(String token) {
+        String jwt = token.substring(7); // Remove "Bearer " prefix
+        return jwtUtil.extractUserId(jwt);
+    }
+}
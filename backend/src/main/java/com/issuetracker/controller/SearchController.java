@@ -0,0 +1,46 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.async.AsyncReads;
+import com.issuetracker.dto.SearchHit;
+import com.issuetracker.security.JwtUtil;
+import com.issuetracker.service.SearchService;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+    private final SearchService searchService;
+    private final JwtUtil jwtUtil;
+    private final AsyncReads asyncReads;
+
+    public SearchController(SearchService searchService, JwtUtil jwtUtil, AsyncReads asyncReads) {
+        this.searchService = searchService;
+        this.jwtUtil = jwtUtil;
+        this.asyncReads = asyncReads;
+    }
+
+    
+    
+    // Without projectId, searches every project the caller is a member of
+    @GetMapping
+    public DeferredResult<ResponseEntity<Page<SearchHit>>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = AsyncReads.TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Long userId = extractUserId(token);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        int pageNumber = Math.max(0, page);
+        return asyncReads.submit(timeoutMs, () -> searchService.search(q, projectId, pageNumber, pageSize, userId));
+    }
+    
+    private Long extractUserId(String token) {
+        String jwt = token.substring(7); // Remove "Bearer " prefix
+        return jwtUtil.extractUserId(jwt);
+    }
+}
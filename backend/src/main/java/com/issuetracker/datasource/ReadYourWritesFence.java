@@ -0,0 +1,53 @@
+package com.issuetracker.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-user time fence: after a user's write commits, their reads stay on the
+// primary for the configured window so they never see a replica that has not
+// caught up with their own change. The window should exceed the max tolerated lag.
+public class ReadYourWritesFence {
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> fencedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFence(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000;
+    }
+
+    // Authenticated user of the current request, null for anonymous/background work
+    public static String currentSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public void markWrite(String subject) {
+        fencedUntil.merge(subject, System.nanoTime() + windowNanos, Math::max);
+    }
+
+    public boolean isFenced(String subject) {
+        if (subject == null) {
+            return false;
+        }
+        Long until = fencedUntil.get(subject);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        fencedUntil.remove(subject, until);
+        return false;
+    }
+
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        fencedUntil.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+    }
+}
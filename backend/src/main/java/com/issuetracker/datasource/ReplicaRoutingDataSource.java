@@ -0,0 +1,164 @@
+package com.issuetracker.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends @Transactional(readOnly = true) work to a replica whose measured lag is
+// within maxLagMillis (round robin), everything else to the primary. The lazy
+// connection proxy matters: the transaction manager asks for a connection before
+// it publishes the read-only flag, so routing must wait for the first statement.
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesFence fence;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final long checkIntervalMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final List<DataSource> owned = new ArrayList<>();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesFence fence,
+                                    long maxLagMillis, String lagQuery, long checkIntervalMillis) {
+        this.fence = fence;
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery;
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        owned.add(primary);
+        replicas.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            owned.add(dataSource);
+            this.replicas.add(new Replica(name, dataSource));
+        });
+
+        Router router = new Router();
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        refreshLag();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::refreshLag, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs the lag query (milliseconds behind the primary) on every replica;
+    // an unreachable replica is taken out of rotation until it answers again
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                replica.lagMillis = rs.next() ? Math.max(0, (long) rs.getDouble(1)) : -1;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.lagMillis >= 0) {
+                    log.warn("Replica {} unavailable, routing its reads to the primary: {}", replica.name, e.getMessage());
+                }
+                replica.lagMillis = -1;
+            }
+        }
+        fence.purgeExpired();
+    }
+
+    public List<String> getReplicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    // -1 when unknown or unreachable
+    public long getLagMillis(String replicaName) {
+        return replicas.stream()
+                .filter(replica -> replica.name.equals(replicaName))
+                .mapToLong(replica -> replica.lagMillis)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (DataSource dataSource : owned) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Object route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String subject = ReadYourWritesFence.currentSubject();
+            if (subject != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        fence.markWrite(subject);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || fence.isFenced(ReadYourWritesFence.currentSubject())) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            long lag = replica.lagMillis;
+            if (lag >= 0 && lag <= maxLagMillis) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
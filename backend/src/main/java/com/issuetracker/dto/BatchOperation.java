@@ -0,0 +1,30 @@
+package com.issuetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// One operation of POST /api/batch. The fields used depend on op:
+//   GET_ISSUES: ids    GET_PROJECT: id    CREATE_ISSUE: issue
+//   UPDATE_ISSUE: id and issue            DELETE_ISSUE: id
+public class BatchOperation {
+    public enum Op { GET_ISSUES, GET_PROJECT, CREATE_ISSUE, UPDATE_ISSUE, DELETE_ISSUE }
+
+    @NotNull
+    private Op op;
+    private Long id;
+    @Size(max = 500)
+    private List<Long> ids;
+    @Valid
+    private IssueRequest issue;
+
+    public Op getOp() { return op; }
+    public void setOp(Op op) { this.op = op; }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public IssueRequest getIssue() { return issue; }
+    public void setIssue(IssueRequest issue) { this.issue = issue; }
+}
@@ -0,0 +1,22 @@
+package com.issuetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BatchRequest {
+    public static final int MAX_OPERATIONS = 100;
+
+    @NotEmpty
+    @Size(max = MAX_OPERATIONS)
+    private List<@Valid @NotNull BatchOperation> operations;
+    // All operations commit together, or none does
+    private boolean atomic;
+
+    public List<BatchOperation> getOperations() { return operations; }
+    public void setOperations(List<BatchOperation> operations) { this.operations = operations; }
+    public boolean isAtomic() { return atomic; }
+    public void setAtomic(boolean atomic) { this.atomic = atomic; }
+}
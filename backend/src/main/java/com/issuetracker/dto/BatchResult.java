@@ -0,0 +1,25 @@
+package com.issuetracker.dto;
+
+// The outcome of one batch operation, in request order: the status its own
+// endpoint would have answered with, and its response body or error
+public class BatchResult {
+    private int status;
+    private Object body;
+    private String error;
+
+    public BatchResult() {
+    }
+
+    public BatchResult(int status, Object body, String error) {
+        this.status = status;
+        this.body = body;
+        this.error = error;
+    }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    public Object getBody() { return body; }
+    public void setBody(Object body) { this.body = body; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
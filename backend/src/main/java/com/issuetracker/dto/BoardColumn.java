@@ -0,0 +1,33 @@
+package com.issuetracker.dto;
+
+import com.issuetracker.model.enums.IssueStatus;
+import java.util.List;
+
+// One status column of a project's board in rank order; total counts the
+// whole column. Pass nextCursor as "after" to load more (null when the column
+// has no more issues).
+public class BoardColumn {
+    private IssueStatus status;
+    private long total;
+    private List<IssueResponse> issues;
+    private String nextCursor;
+
+    public BoardColumn() {
+    }
+
+    public BoardColumn(IssueStatus status, long total, List<IssueResponse> issues, String nextCursor) {
+        this.status = status;
+        this.total = total;
+        this.issues = issues;
+        this.nextCursor = nextCursor;
+    }
+
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public List<IssueResponse> getIssues() { return issues; }
+    public void setIssues(List<IssueResponse> issues) { this.issues = issues; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
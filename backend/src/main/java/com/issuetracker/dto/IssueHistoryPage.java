@@ -0,0 +1,23 @@
+package com.issuetracker.dto;
+
+import java.util.List;
+
+// One page of an issue's history, newest first; pass nextCursor as "before"
+// for the next page (null on the last one)
+public class IssueHistoryPage {
+    private List<IssueHistoryResponse> entries;
+    private Long nextCursor;
+
+    public IssueHistoryPage() {
+    }
+
+    public IssueHistoryPage(List<IssueHistoryResponse> entries, Long nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<IssueHistoryResponse> getEntries() { return entries; }
+    public void setEntries(List<IssueHistoryResponse> entries) { this.entries = entries; }
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,28 @@
+package com.issuetracker.dto;
+
+import java.time.LocalDateTime;
+
+public class IssueHistoryResponse {
+    private Long id;
+    private String field;
+    private String oldValue;
+    private String newValue;
+    private Long changedBy;
+    private String changedByName;
+    private LocalDateTime changedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+    public String getOldValue() { return oldValue; }
+    public void setOldValue(String oldValue) { this.oldValue = oldValue; }
+    public String getNewValue() { return newValue; }
+    public void setNewValue(String newValue) { this.newValue = newValue; }
+    public Long getChangedBy() { return changedBy; }
+    public void setChangedBy(Long changedBy) { this.changedBy = changedBy; }
+    public String getChangedByName() { return changedByName; }
+    public void setChangedByName(String changedByName) { this.changedByName = changedByName; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
@@ -7,6 +7,8 @@ import java.util.List;
 
 public class IssueResponse {
     private Long id;
+    private Long number;
+    private String key;
     private Long projectId;
     private String projectName;
     private String title;
@@ -15,13 +17,19 @@ public class IssueResponse {
     private IssuePriority priority;
     private Long assigneeId;
     private String assigneeName;
+    private String rank;
     private List<String> tags;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long version;
+    private boolean archived;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
+    public Long getNumber() { return number; }
+    public void setNumber(Long number) { this.number = number; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
     public Long getProjectId() { return projectId; }
     public void setProjectId(Long projectId) { this.projectId = projectId; }
     public String getProjectName() { return projectName; }
@@ -38,6 +46,8 @@ public class IssueResponse {
     public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
     public String getAssigneeName() { return assigneeName; }
     public void setAssigneeName(String assigneeName) { this.assigneeName = assigneeName; }
+    public String getRank() { return rank; }
+    public void setRank(String rank) { this.rank = rank; }
     public List<String> getTags() { return tags; }
     public void setTags(List<String> tags) { this.tags = tags; }
     public LocalDateTime getCreatedAt() { return createdAt; }
@@ -46,4 +56,6 @@ public class IssueResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
@@ -1,11 +1,22 @@
 package com.issuetracker.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 
 public class ProjectRequest {
     @NotBlank
     private String name;
+    // Only used on create; derived from the name when absent
+    @Pattern(regexp = "[A-Z][A-Z0-9]{1,9}", message = "must be 2-10 upper-case letters or digits, starting with a letter")
+    private String key;
+    @Min(1)
+    private Integer archiveAfterDays;
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public Integer getArchiveAfterDays() { return archiveAfterDays; }
+    public void setArchiveAfterDays(Integer archiveAfterDays) { this.archiveAfterDays = archiveAfterDays; }
 }
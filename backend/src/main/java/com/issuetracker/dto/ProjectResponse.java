@@ -1,22 +1,42 @@
 package com.issuetracker.dto;
 
+import com.issuetracker.model.enums.UserRole;
+
 import java.time.LocalDateTime;
 
 public class ProjectResponse {
     private Long id;
     private String name;
+    private String key;
     private Long ownerId;
     private String ownerName;
     private LocalDateTime createdAt;
+    private Integer archiveAfterDays;
+    private UserRole role;
+    private Long openIssues;
+    private Long inProgressIssues;
+    private Long closedIssues;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
     public Long getOwnerId() { return ownerId; }
     public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
     public String getOwnerName() { return ownerName; }
     public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Integer getArchiveAfterDays() { return archiveAfterDays; }
+    public void setArchiveAfterDays(Integer archiveAfterDays) { this.archiveAfterDays = archiveAfterDays; }
+    public UserRole getRole() { return role; }
+    public void setRole(UserRole role) { this.role = role; }
+    public Long getOpenIssues() { return openIssues; }
+    public void setOpenIssues(Long openIssues) { this.openIssues = openIssues; }
+    public Long getInProgressIssues() { return inProgressIssues; }
+    public void setInProgressIssues(Long inProgressIssues) { this.inProgressIssues = inProgressIssues; }
+    public Long getClosedIssues() { return closedIssues; }
+    public void setClosedIssues(Long closedIssues) { this.closedIssues = closedIssues; }
 }
@@ -0,0 +1,19 @@
+package com.issuetracker.dto;
+
+import com.issuetracker.model.enums.IssueStatus;
+
+// A drop on the board: the issue goes between afterId (the issue above it)
+// and beforeId (the one below), either null at the column's ends. status moves
+// it to another column at the same time.
+public class RankRequest {
+    private IssueStatus status;
+    private Long afterId;
+    private Long beforeId;
+
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public Long getAfterId() { return afterId; }
+    public void setAfterId(Long afterId) { this.afterId = afterId; }
+    public Long getBeforeId() { return beforeId; }
+    public void setBeforeId(Long beforeId) { this.beforeId = beforeId; }
+}
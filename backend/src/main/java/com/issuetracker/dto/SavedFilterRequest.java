@@ -0,0 +1,34 @@
+package com.issuetracker.dto;
+
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// The filter parameters of GET /api/issues, under a name
+public class SavedFilterRequest {
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+    @NotNull
+    private Long projectId;
+    private IssueStatus status;
+    private IssuePriority priority;
+    private Long assigneeId;
+    @Size(max = 255)
+    private String search;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public IssuePriority getPriority() { return priority; }
+    public void setPriority(IssuePriority priority) { this.priority = priority; }
+    public Long getAssigneeId() { return assigneeId; }
+    public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = search; }
+}
@@ -0,0 +1,37 @@
+package com.issuetracker.dto;
+
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+
+import java.time.LocalDateTime;
+
+public class SavedFilterResponse {
+    private Long id;
+    private String name;
+    private Long projectId;
+    private IssueStatus status;
+    private IssuePriority priority;
+    private Long assigneeId;
+    private String search;
+    private long matchCount;
+    private LocalDateTime createdAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public IssuePriority getPriority() { return priority; }
+    public void setPriority(IssuePriority priority) { this.priority = priority; }
+    public Long getAssigneeId() { return assigneeId; }
+    public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = search; }
+    public long getMatchCount() { return matchCount; }
+    public void setMatchCount(long matchCount) { this.matchCount = matchCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
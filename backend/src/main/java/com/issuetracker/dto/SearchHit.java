@@ -0,0 +1,20 @@
+package com.issuetracker.dto;
+
+// A search result: the issue and its relevance score (BM25, higher is better)
+public class SearchHit {
+    private double score;
+    private IssueResponse issue;
+
+    public SearchHit() {
+    }
+
+    public SearchHit(double score, IssueResponse issue) {
+        this.score = score;
+        this.issue = issue;
+    }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public IssueResponse getIssue() { return issue; }
+    public void setIssue(IssueResponse issue) { this.issue = issue; }
+}
@@ -0,0 +1,30 @@
+package com.issuetracker.dto;
+
+// One typeahead entry. Issues: id, title as text and the issue key as detail.
+// Tags: the tag as text and the number of live issues carrying it as count.
+// Users: id, name as text and email as detail.
+public class Suggestion {
+    private Long id;
+    private String text;
+    private String detail;
+    private Integer count;
+
+    public Suggestion() {
+    }
+
+    public Suggestion(Long id, String text, String detail, Integer count) {
+        this.id = id;
+        this.text = text;
+        this.detail = detail;
+        this.count = count;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+    public Integer getCount() { return count; }
+    public void setCount(Integer count) { this.count = count; }
+}
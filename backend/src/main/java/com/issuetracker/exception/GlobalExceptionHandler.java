@@ -1,8 +1,10 @@
 package com.issuetracker.exception;
 
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +19,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    // Deadline passed, database saturated or a lock conflict lost: worth a retry, unlike the 400s above
+    @ExceptionHandler({ServiceUnavailableException.class, TransientDataAccessException.class,
+                       CannotCreateTransactionException.class})
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(RuntimeException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex instanceof ServiceUnavailableException ? ex.getMessage() : "Database unavailable, retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception ex) {
         Map<String, String> error = new HashMap<>();
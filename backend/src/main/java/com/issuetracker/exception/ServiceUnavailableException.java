@@ -0,0 +1,8 @@
+package com.issuetracker.exception;
+
+// Retryable failures (deadline exceeded, server saturated); answered with 503
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,119 @@
+package com.issuetracker.idempotency;
+
+import com.issuetracker.security.CachedBodyRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Runs after AdmissionControlFilter on issue writes (create, update, rank,
+// delete) that carry an Idempotency-Key header. The first request with a key
+// runs and its response is kept (see IdempotencyStore); a retry with the same
+// key and request gets that response again with Idempotent-Replayed: true,
+// without reaching the controller. The same key with a different method, path
+// or body is a 422; a retry while the first is still running elsewhere is a 409.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(KEY_HEADER) == null
+                || method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")
+                || !request.getRequestURI().startsWith("/api/issues");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Rejected further down the chain
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpServletResponse.SC_BAD_REQUEST, KEY_HEADER + " must be 1 to 255 characters");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        IdempotencyStore.Claim claim = store.claim(authentication.getName(), key, fingerprint(request, body));
+        switch (claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case MISMATCH -> reject(response, 422, KEY_HEADER + " was already used for a different request");
+            case IN_PROGRESS -> reject(response, HttpServletResponse.SC_CONFLICT,
+                    "A request with this " + KEY_HEADER + " is still in progress, retry shortly");
+            case RUN -> run(new CachedBodyRequest(request, body), response, filterChain, claim);
+        }
+    }
+
+    private void run(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                     IdempotencyStore.Claim claim) throws ServletException, IOException {
+        // Issue writes are answered synchronously, so the body is complete once the chain returns
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            store.complete(claim, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray());
+            completed = true;
+        } finally {
+            if (!completed) {
+                store.release(claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,246 @@
+package com.issuetracker.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Responses to requests sent with an Idempotency-Key, per user and key. The
+// newest app.idempotency.max-entries are kept in memory, so a retry reaching
+// the node that ran the request is a map lookup. Every key is also a row in
+// idempotency_keys (directory), inserted before the request runs: a retry
+// reaching another node replays the stored response, or is told the request
+// is still in progress. Concurrent duplicates on one node wait for the first.
+// Only 2xx responses and client errors that the same request would get again
+// are kept; for anything else (5xx, 429, 408, ...) the key is released so the
+// retry runs again.
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome { RUN, REPLAY, MISMATCH, IN_PROGRESS }
+
+    // Rejections of the request itself; transient failures are 503s (see GlobalExceptionHandler)
+    private static final Set<Integer> DETERMINISTIC_CLIENT_ERRORS = Set.of(400, 404, 405, 410, 413, 415, 422);
+
+    private final Map<Scope, StoredResponse> completed;
+    private final ConcurrentHashMap<Scope, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final long staleMillis;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl-ms:86400000}") long ttlMillis,
+                            @Value("${app.idempotency.wait-ms:5000}") long waitMillis,
+                            @Value("${app.idempotency.stale-ms:60000}") long staleMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        this.staleMillis = staleMillis;
+        // Insertion order is completion order, so the eldest entry is also the first to expire
+        this.completed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Scope, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // RUN means the caller runs the request and then calls complete() or release()
+    public Claim claim(String principal, String key, String fingerprint) {
+        Scope scope = new Scope(principal, key);
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            StoredResponse done = cached(scope);
+            if (done != null) {
+                return replay(done, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> flight = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(scope, flight);
+            if (existing == null) {
+                return claimRow(scope, fingerprint, flight);
+            }
+
+            try {
+                long remaining = Math.max(1, deadline - System.currentTimeMillis());
+                done = existing.get(remaining, TimeUnit.MILLISECONDS);
+                if (done != null) {
+                    return replay(done, fingerprint);
+                }
+                // The first request's response was not kept; try to run it ourselves
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, null, null, null, null);
+            } catch (ExecutionException e) {
+                // Same as above
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, null, null, null, null);
+            }
+        }
+    }
+
+    public void complete(Claim claim, int status, String contentType, byte[] body) {
+        if (!(status >= 200 && status < 300) && !DETERMINISTIC_CLIENT_ERRORS.contains(status)) {
+            release(claim);
+            return;
+        }
+        StoredResponse response = new StoredResponse(claim.fingerprint(), status, contentType, body,
+                System.currentTimeMillis());
+        try {
+            jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, content_type = ?, body = ? " +
+                            "WHERE principal = ? AND idempotency_key = ?",
+                    status, contentType, new String(body, StandardCharsets.UTF_8),
+                    claim.scope().principal(), claim.scope().key());
+        } catch (RuntimeException e) {
+            // The request went through; only retries on other nodes miss it
+            log.warn("Storing the response for an idempotency key failed: {}", e.getMessage());
+        }
+        synchronized (completed) {
+            completed.put(claim.scope(), response);
+        }
+        finish(claim, response);
+    }
+
+    // The request failed without a response worth replaying
+    public void release(Claim claim) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE principal = ? AND idempotency_key = ?",
+                    claim.scope().principal(), claim.scope().key());
+        } catch (RuntimeException e) {
+            log.warn("Releasing an idempotency key failed: {}", e.getMessage());
+        } finally {
+            finish(claim, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void expire() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        synchronized (completed) {
+            Iterator<StoredResponse> responses = completed.values().iterator();
+            while (responses.hasNext() && responses.next().storedAt() < cutoff) {
+                responses.remove();
+            }
+        }
+        try {
+            int removed = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", new Timestamp(cutoff));
+            if (removed > 0) {
+                log.info("Expired {} idempotency keys", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Expiring idempotency keys failed: {}", e.getMessage());
+        }
+    }
+
+    private Claim claimRow(Scope scope, String fingerprint, CompletableFuture<StoredResponse> flight) {
+        Claim claim = new Claim(Outcome.RUN, scope, fingerprint, flight, null);
+        try {
+            // A request that completed here between the lookup and putIfAbsent
+            StoredResponse done = cached(scope);
+            if (done != null) {
+                finish(claim, done);
+                return replay(done, fingerprint);
+            }
+            for (int attempt = 0; attempt < 2; attempt++) {
+                long now = System.currentTimeMillis();
+                try {
+                    jdbcTemplate.update("INSERT INTO idempotency_keys (principal, idempotency_key, fingerprint, created_at) " +
+                            "VALUES (?, ?, ?, ?)", scope.principal(), scope.key(), fingerprint, new Timestamp(now));
+                    return claim;
+                } catch (DuplicateKeyException e) {
+                    Row row = readRow(scope);
+                    if (row == null) {
+                        continue;
+                    }
+                    if (row.response() != null) {
+                        finish(claim, row.response());
+                        return replay(row.response(), fingerprint);
+                    }
+                    // Still running on some node, unless that node died with it
+                    if (row.createdAt() < now - staleMillis && jdbcTemplate.update("UPDATE idempotency_keys " +
+                                    "SET fingerprint = ?, created_at = ? WHERE principal = ? AND idempotency_key = ? " +
+                                    "AND status_code IS NULL AND created_at = ?",
+                            fingerprint, new Timestamp(now), scope.principal(), scope.key(),
+                            new Timestamp(row.createdAt())) == 1) {
+                        return claim;
+                    }
+                    finish(claim, null);
+                    return new Claim(row.fingerprint().equals(fingerprint) ? Outcome.IN_PROGRESS : Outcome.MISMATCH,
+                            null, null, null, null);
+                }
+            }
+            finish(claim, null);
+            return new Claim(Outcome.IN_PROGRESS, null, null, null, null);
+        } catch (RuntimeException e) {
+            finish(claim, null);
+            throw e;
+        }
+    }
+
+    private Row readRow(Scope scope) {
+        return jdbcTemplate.query("SELECT fingerprint, status_code, content_type, body, created_at FROM idempotency_keys " +
+                        "WHERE principal = ? AND idempotency_key = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    String fingerprint = rs.getString("fingerprint");
+                    long createdAt = rs.getTimestamp("created_at").getTime();
+                    int status = rs.getInt("status_code");
+                    StoredResponse response = rs.wasNull() ? null : new StoredResponse(fingerprint, status,
+                            rs.getString("content_type"), rs.getString("body").getBytes(StandardCharsets.UTF_8),
+                            createdAt);
+                    return new Row(fingerprint, createdAt, response);
+                }, scope.principal(), scope.key());
+    }
+
+    private StoredResponse cached(Scope scope) {
+        synchronized (completed) {
+            StoredResponse response = completed.get(scope);
+            return response != null && response.storedAt() >= System.currentTimeMillis() - ttlMillis ? response : null;
+        }
+    }
+
+    private void finish(Claim claim, StoredResponse response) {
+        claim.flight().complete(response);
+        inFlight.remove(claim.scope(), claim.flight());
+    }
+
+    private static Claim replay(StoredResponse response, String fingerprint) {
+        return response.fingerprint().equals(fingerprint)
+                ? new Claim(Outcome.REPLAY, null, null, null, response)
+                : new Claim(Outcome.MISMATCH, null, null, null, null);
+    }
+
+    public record Claim(Outcome outcome, Scope scope, String fingerprint, CompletableFuture<StoredResponse> flight,
+                        StoredResponse response) {
+    }
+
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body, long storedAt) {
+    }
+
+    public record Scope(String principal, String key) {
+    }
+
+    private record Row(String fingerprint, long createdAt, StoredResponse response) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.issuetracker.model;
+
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Same shape as Issue, filled by IssueArchiver with rows copied from issues (ids
+// included). Rows are never updated here; an update moves the issue back to issues.
+@Entity
+@Table(name = "archived_issues", indexes = {
+    @Index(name = "idx_archived_issue_project", columnList = "project_id, created_at DESC"),
+    @Index(name = "uk_archived_issue_project_number", columnList = "project_id, issue_number", unique = true)
+})
+public class ArchivedIssue {
+    @Id
+    private Long id;
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+    @Column(name = "issue_number", nullable = false)
+    private Long number;
+    @Column(nullable = false)
+    private String title;
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IssueStatus status;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IssuePriority priority;
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+    @Column(name = "issue_rank", nullable = false)
+    private String rank;
+    @ElementCollection
+    @CollectionTable(name = "archived_issue_tags", joinColumns = @JoinColumn(name = "issue_id"))
+    @Column(name = "tag")
+    private List<String> tags = new ArrayList<>();
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+    private Long version;
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public Long getNumber() { return number; }
+    public void setNumber(Long number) { this.number = number; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public IssuePriority getPriority() { return priority; }
+    public void setPriority(IssuePriority priority) { this.priority = priority; }
+    public Long getAssigneeId() { return assigneeId; }
+    public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+    public String getRank() { return rank; }
+    public void setRank(String rank) { this.rank = rank; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDateTime getClosedAt() { return closedAt; }
+    public void setClosedAt(LocalDateTime closedAt) { this.closedAt = closedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
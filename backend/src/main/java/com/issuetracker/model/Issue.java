@@ -2,7 +2,10 @@ package com.issuetracker.model;
 
 import com.issuetracker.model.enums.IssuePriority;
 import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.sharding.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,17 +15,27 @@ import java.util.List;
     @Index(name = "idx_issue_project", columnList = "project_id"),
     @Index(name = "idx_issue_status", columnList = "status"),
     @Index(name = "idx_issue_priority", columnList = "priority"),
-    @Index(name = "idx_issue_assignee", columnList = "assignee_id")
+    @Index(name = "idx_issue_assignee_set", columnList = "assignee_id"),
+    @Index(name = "idx_issue_updated_at", columnList = "updated_at"),
+    @Index(name = "uk_issue_project_number", columnList = "project_id, issue_number", unique = true)
 })
 public class Issue {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "issues_seq")
+    @GenericGenerator(name = "issues_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+        @Parameter(name = "sequence_name", value = "issues_seq"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
     @Column(name = "project_id", nullable = false)
     private Long projectId;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", insertable = false, updatable = false)
     private Project project;
+    // Per-project number, shown as <project key>-<number>; see IssueNumberAllocator
+    @Column(name = "issue_number", nullable = false, updatable = false)
+    private Long number;
     @Column(nullable = false)
     private String title;
     @Column(columnDefinition = "TEXT")
@@ -35,6 +48,11 @@ public class Issue {
     private IssuePriority priority = IssuePriority.MEDIUM;
     @Column(name = "assignee_id")
     private Long assigneeId;
+    // Manual order within the status column, a fractional key (see RankKeys).
+    // Written only by insert and IssueRepository.updateRank, so saving the
+    // entity never overwrites a concurrent move or rebalance.
+    @Column(name = "issue_rank", nullable = false, updatable = false)
+    private String rank;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id", insertable = false, updatable = false)
     private User assignee;
@@ -46,6 +64,9 @@ public class Issue {
     private LocalDateTime createdAt;
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+    // When the issue last became CLOSED, null while it is not; IssueArchiver ages issues by it
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
     @Version
     private Long version;
 
@@ -66,16 +87,27 @@ public class Issue {
     public void setProjectId(Long projectId) { this.projectId = projectId; }
     public Project getProject() { return project; }
     public void setProject(Project project) { this.project = project; }
+    public Long getNumber() { return number; }
+    public void setNumber(Long number) { this.number = number; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public IssueStatus getStatus() { return status; }
-    public void setStatus(IssueStatus status) { this.status = status; }
+    public void setStatus(IssueStatus status) {
+        if (status != IssueStatus.CLOSED) {
+            closedAt = null;
+        } else if (this.status != IssueStatus.CLOSED) {
+            closedAt = LocalDateTime.now();
+        }
+        this.status = status;
+    }
     public IssuePriority getPriority() { return priority; }
     public void setPriority(IssuePriority priority) { this.priority = priority; }
     public Long getAssigneeId() { return assigneeId; }
     public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+    public String getRank() { return rank; }
+    public void setRank(String rank) { this.rank = rank; }
     public User getAssignee() { return assignee; }
     public void setAssignee(User assignee) { this.assignee = assignee; }
     public List<String> getTags() { return tags; }
@@ -84,6 +116,8 @@ public class Issue {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDateTime getClosedAt() { return closedAt; }
+    public void setClosedAt(LocalDateTime closedAt) { this.closedAt = closedAt; }
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,52 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One changed field of one issue. Append-only; rows are written in batches by
+// IssueHistoryWriter, event_id makes a replayed journal entry recognizable.
+@Entity
+@Table(name = "issue_history", indexes = {
+    @Index(name = "idx_issue_history_issue", columnList = "issue_id, id DESC"),
+    @Index(name = "uk_issue_history_event", columnList = "event_id", unique = true)
+})
+public class IssueHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+    @Column(name = "issue_id", nullable = false)
+    private Long issueId;
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+    @Column(name = "field_name", nullable = false, length = 32)
+    private String fieldName;
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+    @Column(name = "changed_by", nullable = false)
+    private Long changedBy;
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public Long getIssueId() { return issueId; }
+    public void setIssueId(Long issueId) { this.issueId = issueId; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public String getFieldName() { return fieldName; }
+    public void setFieldName(String fieldName) { this.fieldName = fieldName; }
+    public String getOldValue() { return oldValue; }
+    public void setOldValue(String oldValue) { this.oldValue = oldValue; }
+    public String getNewValue() { return newValue; }
+    public void setNewValue(String newValue) { this.newValue = newValue; }
+    public Long getChangedBy() { return changedBy; }
+    public void setChangedBy(Long changedBy) { this.changedBy = changedBy; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
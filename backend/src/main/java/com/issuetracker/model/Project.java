@@ -9,10 +9,14 @@ import java.time.LocalDateTime;
 })
 public class Project {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String name;
+    // Prefix of the project's issue keys (API-1234); fixed once the project exists
+    @Column(name = "project_key", nullable = false, unique = true, updatable = false, length = 10)
+    private String projectKey;
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,6 +24,9 @@ public class Project {
     private User owner;
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+    // Days a closed issue stays in the hot table; null means app.archive.retention-days
+    @Column(name = "archive_after_days")
+    private Integer archiveAfterDays;
 
     @PrePersist
     protected void onCreate() {
@@ -30,10 +37,14 @@ public class Project {
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public String getProjectKey() { return projectKey; }
+    public void setProjectKey(String projectKey) { this.projectKey = projectKey; }
     public Long getOwnerId() { return ownerId; }
     public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Integer getArchiveAfterDays() { return archiveAfterDays; }
+    public void setArchiveAfterDays(Integer archiveAfterDays) { this.archiveAfterDays = archiveAfterDays; }
 }
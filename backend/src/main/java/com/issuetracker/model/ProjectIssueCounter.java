@@ -0,0 +1,37 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+// Directory row per project: the first issue number not yet handed to any node.
+// IssueNumberAllocator moves it forward a whole block at a time.
+@Entity
+@Table(name = "project_issue_counters")
+public class ProjectIssueCounter implements Persistable<Long> {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+    @Column(name = "next_number", nullable = false)
+    private Long nextNumber;
+
+    // Ids are assigned, so Spring Data can't tell new rows from the id; without
+    // this save() would SELECT before every insert
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Long getId() { return projectId; }
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public Long getNextNumber() { return nextNumber; }
+    public void setNextNumber(Long nextNumber) { this.nextNumber = nextNumber; }
+}
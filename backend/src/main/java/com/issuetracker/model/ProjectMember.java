@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
        })
 public class ProjectMember {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_members_seq")
+    @SequenceGenerator(name = "project_members_seq", sequenceName = "project_members_seq", allocationSize = 50)
     private Long id;
     @Column(name = "project_id", nullable = false)
     private Long projectId;
@@ -0,0 +1,51 @@
+package com.issuetracker.model;
+
+import com.issuetracker.model.enums.ShardStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Persistable;
+
+// Directory entry: which shard holds a project's issues. Projects without an
+// entry live on shard 0 (the directory database itself).
+@Entity
+@Table(name = "project_shards")
+public class ProjectShard implements Persistable<Long> {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+    @Column(name = "shard_id", nullable = false)
+    private Integer shardId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ShardStatus status = ShardStatus.ACTIVE;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    // Assigned id: lets save() insert without looking the row up first
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Long getId() { return projectId; }
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public Integer getShardId() { return shardId; }
+    public void setShardId(Integer shardId) { this.shardId = shardId; }
+    public ShardStatus getStatus() { return status; }
+    public void setStatus(ShardStatus status) { this.status = status; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,100 @@
+package com.issuetracker.model;
+
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// A user's bookmarked issue list: the filter parameters of GET /api/issues.
+// The ids of the matching live issues are kept in saved_filter_matches and
+// matchCount by SavedFilterIndex as issues change.
+@Entity
+@Table(name = "saved_filters", indexes = {
+    @Index(name = "idx_saved_filter_user", columnList = "user_id"),
+    @Index(name = "idx_saved_filter_project", columnList = "project_id")
+})
+public class SavedFilter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_filters_seq")
+    @SequenceGenerator(name = "saved_filters_seq", sequenceName = "saved_filters_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+    @Column(nullable = false, length = 100)
+    private String name;
+    @Enumerated(EnumType.STRING)
+    private IssueStatus status;
+    @Enumerated(EnumType.STRING)
+    private IssuePriority priority;
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+    @Column(name = "search_text")
+    private String searchText;
+    @Column(name = "match_count", nullable = false)
+    private long matchCount;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @Transient
+    private Pattern searchPattern;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Same predicate as IssueRepository.findByFilters, including LIKE wildcards
+    // in the search text
+    public boolean matches(IssueStatus status, IssuePriority priority, Long assigneeId, String title) {
+        if (this.status != null && this.status != status) {
+            return false;
+        }
+        if (this.priority != null && this.priority != priority) {
+            return false;
+        }
+        if (this.assigneeId != null && !this.assigneeId.equals(assigneeId)) {
+            return false;
+        }
+        if (searchText == null || searchText.isEmpty()) {
+            return true;
+        }
+        return title != null && searchPattern().matcher(title.toLowerCase(Locale.ROOT)).matches();
+    }
+
+    private Pattern searchPattern() {
+        if (searchPattern == null) {
+            StringBuilder regex = new StringBuilder(".*");
+            for (char c : searchText.toLowerCase(Locale.ROOT).toCharArray()) {
+                regex.append(c == '%' ? ".*" : c == '_' ? "." : Pattern.quote(String.valueOf(c)));
+            }
+            searchPattern = Pattern.compile(regex.append(".*").toString(), Pattern.DOTALL);
+        }
+        return searchPattern;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+    public IssuePriority getPriority() { return priority; }
+    public void setPriority(IssuePriority priority) { this.priority = priority; }
+    public Long getAssigneeId() { return assigneeId; }
+    public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+    public String getSearchText() { return searchText; }
+    public void setSearchText(String searchText) {
+        this.searchText = searchText;
+        this.searchPattern = null;
+    }
+    public long getMatchCount() { return matchCount; }
+    public void setMatchCount(long matchCount) { this.matchCount = matchCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
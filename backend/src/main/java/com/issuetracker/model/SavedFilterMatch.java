@@ -0,0 +1,46 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// One live issue currently matching a saved filter. No foreign key to issues,
+// which may live on another shard. Written in bulk by SavedFilterIndex.
+@Entity
+@Table(name = "saved_filter_matches")
+@IdClass(SavedFilterMatch.Key.class)
+public class SavedFilterMatch {
+    @Id
+    @Column(name = "filter_id")
+    private Long filterId;
+    @Id
+    @Column(name = "issue_id")
+    private Long issueId;
+
+    public Long getFilterId() { return filterId; }
+    public Long getIssueId() { return issueId; }
+
+    public static class Key implements Serializable {
+        private Long filterId;
+        private Long issueId;
+
+        public Key() {
+        }
+
+        public Key(Long filterId, Long issueId) {
+            this.filterId = filterId;
+            this.issueId = issueId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(filterId, key.filterId) && Objects.equals(issueId, key.issueId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filterId, issueId);
+        }
+    }
+}
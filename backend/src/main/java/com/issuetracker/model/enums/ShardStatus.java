@@ -0,0 +1,7 @@
+package com.issuetracker.model.enums;
+
+public enum ShardStatus {
+    ACTIVE,
+    COPYING,
+    MOVING
+}
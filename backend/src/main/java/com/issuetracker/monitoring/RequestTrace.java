@@ -0,0 +1,104 @@
+package com.issuetracker.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+// Where the time of the current request went (see RequestTraceFilter). Phases
+// nest - a permission check calls a repository, mapping resolves names - and
+// elapsed time is always charged to the innermost open phase, so the phase
+// totals add up to at most the request total.
+public final class RequestTrace {
+
+    public enum Phase { AUTH, PERMISSION, REPOSITORY, MAPPING, SERIALIZATION, WEBSOCKET }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = () -> { };
+    private static final int MAX_STATEMENTS = 50;
+
+    private final long startedAt = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final Deque<Phase> open = new ArrayDeque<>();
+    private long markedAt = startedAt;
+    private final List<String> statements = new ArrayList<>();
+    private int droppedStatements;
+
+    public static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    // Continues a request's trace on another thread (async processing)
+    public static void bind(RequestTrace trace) {
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // try (RequestTrace.Scope ignored = RequestTrace.enter(Phase.MAPPING)) { ... }
+    // A no-op outside a traced request (benchmarks, scheduled jobs)
+    public static Scope enter(Phase phase) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return NOOP;
+        }
+        trace.charge();
+        trace.open.push(phase);
+        return () -> {
+            trace.charge();
+            trace.open.pop();
+        };
+    }
+
+    private void charge() {
+        long now = System.nanoTime();
+        if (!open.isEmpty()) {
+            phaseNanos[open.peek().ordinal()] += now - markedAt;
+        }
+        markedAt = now;
+    }
+
+    void recordStatement(String sql, long nanos) {
+        if (statements.size() >= MAX_STATEMENTS) {
+            droppedStatements++;
+            return;
+        }
+        statements.add(String.format("%.1fms %s", nanos / 1_000_000.0, sql));
+    }
+
+    // Statements run for the same request on another thread, once that thread is
+    // done. Its phase time is not added: it overlaps this thread's wait for it
+    public void addStatements(RequestTrace other) {
+        for (String statement : other.statements) {
+            if (statements.size() >= MAX_STATEMENTS) {
+                droppedStatements++;
+            } else {
+                statements.add(statement);
+            }
+        }
+        droppedStatements += other.droppedStatements;
+    }
+
+    public long getPhaseNanos(Phase phase) { return phaseNanos[phase.ordinal()]; }
+    public long getElapsedNanos() { return System.nanoTime() - startedAt; }
+    public List<String> getStatements() { return Collections.unmodifiableList(statements); }
+    public int getDroppedStatements() { return droppedStatements; }
+}
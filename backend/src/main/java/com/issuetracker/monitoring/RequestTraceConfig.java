@@ -0,0 +1,52 @@
+package com.issuetracker.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+@Configuration
+public class RequestTraceConfig {
+
+    // Spring Data repositories are already AOP proxies; put the timing advice
+    // first so it also covers the exception translation advice.
+    @Bean
+    public static BeanPostProcessor repositoryTracePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Repository<?, ?> && bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, (MethodInterceptor) invocation -> {
+                        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.REPOSITORY)) {
+                            return invocation.proceed();
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Replaces Boot's default JSON converter (same ObjectMapper) to time response serialization
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.SERIALIZATION)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.issuetracker.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Outermost filter: opens a RequestTrace and, when the request took longer than
+// app.trace.slow-request-threshold-ms, writes one key=value line with the phase
+// breakdown and the SQL it issued (statement text only, bind values are not logged).
+// Async requests (AsyncReads) keep their trace in a request attribute and are
+// logged at the end of the async dispatch.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTraceFilter.class);
+
+    private static final String TRACE_ATTRIBUTE = RequestTrace.class.getName();
+
+    private final long thresholdNanos;
+
+    public RequestTraceFilter(@Value("${app.trace.slow-request-threshold-ms:500}") long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = isAsyncDispatch(request) ? (RequestTrace) request.getAttribute(TRACE_ATTRIBUTE) : null;
+        if (trace == null) {
+            trace = RequestTrace.start();
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+        } else {
+            RequestTrace.bind(trace);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.clear();
+            long elapsed = trace.getElapsedNanos();
+            if (!isAsyncStarted(request) && elapsed >= thresholdNanos && log.isWarnEnabled()) {
+                log.warn(format(request, response, trace, elapsed));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private String format(HttpServletRequest request, HttpServletResponse response, RequestTrace trace, long elapsed) {
+        StringBuilder line = new StringBuilder("slow_request")
+                .append(" method=").append(request.getMethod())
+                .append(" uri=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=").append(millis(elapsed));
+
+        long attributed = 0;
+        for (RequestTrace.Phase phase : RequestTrace.Phase.values()) {
+            long nanos = trace.getPhaseNanos(phase);
+            attributed += nanos;
+            line.append(' ').append(phase.name().toLowerCase(Locale.ROOT)).append("_ms=").append(millis(nanos));
+        }
+        line.append(" other_ms=").append(millis(Math.max(0, elapsed - attributed)));
+
+        line.append(" sql_count=").append(trace.getStatements().size() + trace.getDroppedStatements());
+        if (trace.getDroppedStatements() > 0) {
+            line.append(" sql_dropped=").append(trace.getDroppedStatements());
+        }
+        line.append(" sql=[");
+        for (int i = 0; i < trace.getStatements().size(); i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append('"').append(trace.getStatements().get(i).replaceAll("\\s+", " ").replace("\"", "'")).append('"');
+        }
+        return line.append(']').toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.issuetracker.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+// Scopes SqlStatementStats to one HTTP request. Runs ahead of the security
+// filters so the user lookup done during authentication is counted too.
+// With app.sql-stats.response-headers=true (debug/test only) the totals are
+// returned as X-Sql-Statements, X-Sql-Rows and X-Sql-Time-Ms. Async requests
+// carry their stats over to the async dispatch, where the headers are set.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private final boolean responseHeaders;
+
+    public SqlStatementFilter(@Value("${app.sql-stats.response-headers:false}") boolean responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean asyncDispatch = isAsyncDispatch(request);
+        SqlStatementStats stats = asyncDispatch ? (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE) : null;
+        if (stats == null) {
+            stats = SqlStatementStats.start();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        } else {
+            SqlStatementStats.bind(stats);
+        }
+        try {
+            if (!responseHeaders) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // Buffer the body so the headers can still be set once the totals are known.
+            // An async dispatch gets the wrapper created by the initial one.
+            HttpServletResponse responseToUse = asyncDispatch ? response : new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, responseToUse);
+            ContentCachingResponseWrapper wrapper =
+                    WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+            if (isAsyncStarted(request) || wrapper == null) {
+                return;
+            }
+            wrapper.setHeader(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+            wrapper.setHeader(ROWS_HEADER, Long.toString(stats.getRows()));
+            wrapper.setHeader(TIME_HEADER, Long.toString(stats.getElapsedMillis()));
+            wrapper.copyBodyToResponse();
+        } finally {
+            SqlStatementStats.clear();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
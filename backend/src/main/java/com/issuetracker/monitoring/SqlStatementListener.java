@@ -0,0 +1,82 @@
+package com.issuetracker.monitoring;
+
+import com.issuetracker.async.RequestDeadline;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Feeds SqlStatementStats from the datasource-proxy callbacks. Statements are
+// counted per execution (a JDBC batch is one round trip); rows are rows read
+// through ResultSet.next() plus update counts. The statement text also goes to
+// the RequestTrace for the slow-request log. Statements of a request with a
+// RequestDeadline get its remaining time as query timeout and can be cancelled.
+@Component
+public class SqlStatementListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<long[]> QUERY_STARTED_AT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.begin(execInfo.getStatement());
+        }
+        QUERY_STARTED_AT.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - QUERY_STARTED_AT.get()[0];
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.end(execInfo.getStatement());
+        }
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.recordStatement(nanos, updateCount(execInfo.getResult()));
+        }
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.recordStatement(queryInfoList.stream()
+                    .map(QueryInfo::getQuery)
+                    .collect(Collectors.joining("; ")), nanos);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && executionContext.getMethod().getName().equals("next")) {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null) {
+                stats.recordRow();
+            }
+        }
+    }
+
+    private long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.issuetracker.monitoring;
+
+// SQL issued by the current thread, usually one HTTP request (see SqlStatementFilter)
+public final class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    // Continues a request's stats on another thread (async processing)
+    public static void bind(SqlStatementStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(long nanos, long affectedRows) {
+        statements++;
+        elapsedNanos += nanos;
+        rows += affectedRows;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    // Counts of SQL run for the same request on another thread, once that thread is done
+    public void add(SqlStatementStats other) {
+        statements += other.statements;
+        elapsedNanos += other.elapsedNanos;
+        rows += other.rows;
+    }
+
+    public int getStatements() { return statements; }
+    public long getRows() { return rows; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+}
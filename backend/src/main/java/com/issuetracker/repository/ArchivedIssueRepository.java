@@ -0,0 +1,80 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.ArchivedIssue;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedIssueRepository extends JpaRepository<ArchivedIssue, Long> {
+    
+    @Query("SELECT i FROM ArchivedIssue i WHERE " +
+           "(:projectId IS NULL OR i.projectId = :projectId) AND " +
+           "(:status IS NULL OR i.status = :status) AND " +
+           "(:priority IS NULL OR i.priority = :priority) AND " +
+           "(:assigneeId IS NULL OR i.assigneeId = :assigneeId) AND " +
+           "(:searchText IS NULL OR :searchText = '' OR LOWER(i.title) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+    Page<ArchivedIssue> findByFilters(
+        @Param("projectId") Long projectId,
+        @Param("status") IssueStatus status,
+        @Param("priority") IssuePriority priority,
+        @Param("assigneeId") Long assigneeId,
+        @Param("searchText") String searchText,
+        Pageable pageable
+    );
+    
+    @Query("SELECT COUNT(i) FROM ArchivedIssue i WHERE " +
+           "(:projectId IS NULL OR i.projectId = :projectId) AND " +
+           "(:status IS NULL OR i.status = :status) AND " +
+           "(:priority IS NULL OR i.priority = :priority) AND " +
+           "(:assigneeId IS NULL OR i.assigneeId = :assigneeId) AND " +
+           "(:searchText IS NULL OR :searchText = '' OR LOWER(i.title) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+    long countByFilters(
+        @Param("projectId") Long projectId,
+        @Param("status") IssueStatus status,
+        @Param("priority") IssuePriority priority,
+        @Param("assigneeId") Long assigneeId,
+        @Param("searchText") String searchText
+    );
+    
+    Optional<ArchivedIssue> findByProjectIdAndNumber(Long projectId, Long number);
+    
+    @Query("SELECT MAX(i.number) FROM ArchivedIssue i WHERE i.projectId = :projectId")
+    Long findMaxNumber(@Param("projectId") Long projectId);
+    
+    @Query("SELECT i.projectId AS projectId, i.status AS status, COUNT(i) AS count FROM ArchivedIssue i " +
+           "WHERE i.projectId IN :projectIds GROUP BY i.projectId, i.status")
+    List<IssueRepository.StatusCount> countByStatus(@Param("projectIds") List<Long> projectIds);
+    
+    // Moves rows of issues/issue_tags as they are; see IssueArchiver
+    @Modifying
+    @Query(value = "INSERT INTO archived_issues (id, project_id, issue_number, title, description, status, priority, " +
+                   "assignee_id, issue_rank, created_at, updated_at, closed_at, version, archived_at) " +
+                   "SELECT id, project_id, issue_number, title, description, status, priority, " +
+                   "assignee_id, issue_rank, created_at, updated_at, closed_at, version, :archivedAt FROM issues WHERE id IN :ids",
+           nativeQuery = true)
+    int copyFromIssues(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query(value = "INSERT INTO archived_issue_tags (issue_id, tag) " +
+                   "SELECT issue_id, tag FROM issue_tags WHERE issue_id IN :ids",
+           nativeQuery = true)
+    int copyTagsFromIssues(@Param("ids") List<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM archived_issue_tags WHERE issue_id IN :ids", nativeQuery = true)
+    int deleteTagRows(@Param("ids") List<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM archived_issues WHERE id IN :ids", nativeQuery = true)
+    int deleteRows(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,18 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.IssueHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface IssueHistoryRepository extends JpaRepository<IssueHistory, Long> {
+
+    // Newest first; the cursor is the id of the last entry of the previous page
+    @Query("SELECT h FROM IssueHistory h WHERE h.issueId = :issueId AND " +
+           "(:before IS NULL OR h.id < :before) ORDER BY h.id DESC")
+    List<IssueHistory> findPage(@Param("issueId") Long issueId, @Param("before") Long before, Pageable pageable);
+}
@@ -5,10 +5,16 @@ import com.issuetracker.model.enums.IssuePriority;
 import com.issuetracker.model.enums.IssueStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IssueRepository extends JpaRepository<Issue, Long> {
@@ -18,7 +24,7 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
            "(:status IS NULL OR i.status = :status) AND " +
            "(:priority IS NULL OR i.priority = :priority) AND " +
            "(:assigneeId IS NULL OR i.assigneeId = :assigneeId) AND " +
-           "(:searchText IS NULL OR :searchText = '' OR LOWER(CAST(i.title AS string)) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+           "(:searchText IS NULL OR :searchText = '' OR LOWER(i.title) LIKE LOWER(CONCAT('%', :searchText, '%')))")
     Page<Issue> findByFilters(
         @Param("projectId") Long projectId,
         @Param("status") IssueStatus status,
@@ -28,5 +34,119 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
         Pageable pageable
     );
     
+    // Ids of every match, for (re)building a saved filter's match set
+    @Query("SELECT i.id FROM Issue i WHERE i.projectId = :projectId AND " +
+           "(:status IS NULL OR i.status = :status) AND " +
+           "(:priority IS NULL OR i.priority = :priority) AND " +
+           "(:assigneeId IS NULL OR i.assigneeId = :assigneeId) AND " +
+           "(:searchText IS NULL OR :searchText = '' OR LOWER(i.title) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+    List<Long> findIdsByFilters(
+        @Param("projectId") Long projectId,
+        @Param("status") IssueStatus status,
+        @Param("priority") IssuePriority priority,
+        @Param("assigneeId") Long assigneeId,
+        @Param("searchText") String searchText
+    );
+    
     Page<Issue> findByProjectId(Long projectId, Pageable pageable);
+    
+    Optional<Issue> findByProjectIdAndNumber(Long projectId, Long number);
+    
+    @Query("SELECT MAX(i.number) FROM Issue i WHERE i.projectId = :projectId")
+    Long findMaxNumber(@Param("projectId") Long projectId);
+    
+    // Served from idx_issue_project_status_rank
+    @Query("SELECT i.projectId AS projectId, i.status AS status, COUNT(i) AS count FROM Issue i " +
+           "WHERE i.projectId IN :projectIds GROUP BY i.projectId, i.status")
+    List<StatusCount> countByStatus(@Param("projectIds") List<Long> projectIds);
+    
+    interface StatusCount {
+        Long getProjectId();
+        IssueStatus getStatus();
+        long getCount();
+    }
+    
+    // The board in one statement: the first ids of every status column in rank
+    // order plus the column's size, an index-only scan of idx_issue_project_status_rank
+    @Query(value = "SELECT id, issue_rank AS rank, status, total FROM (" +
+                   "SELECT id, issue_rank, status, " +
+                   "ROW_NUMBER() OVER (PARTITION BY status ORDER BY issue_rank, id DESC) AS rn, " +
+                   "COUNT(*) OVER (PARTITION BY status) AS total " +
+                   "FROM issues WHERE project_id = :projectId) ranked " +
+                   "WHERE rn <= :perColumn ORDER BY issue_rank, id DESC",
+           nativeQuery = true)
+    List<BoardSlot> findBoard(@Param("projectId") Long projectId, @Param("perColumn") int perColumn);
+    
+    interface RankedId {
+        Long getId();
+        String getRank();
+    }
+    
+    interface BoardSlot extends RankedId {
+        String getStatus();
+        long getTotal();
+    }
+    
+    // "Load more" of one board column, continuing after the cursor issue
+    @Query("SELECT i.id AS id, i.rank AS rank FROM Issue i WHERE i.projectId = :projectId AND i.status = :status AND " +
+           "(:afterRank IS NULL OR i.rank > :afterRank OR (i.rank = :afterRank AND i.id < :afterId)) " +
+           "ORDER BY i.rank, i.id DESC")
+    List<RankedId> findColumn(@Param("projectId") Long projectId, @Param("status") IssueStatus status,
+                              @Param("afterRank") String afterRank, @Param("afterId") Long afterId,
+                              Pageable pageable);
+    
+    long countByProjectIdAndStatus(Long projectId, IssueStatus status);
+    
+    @Query("SELECT MIN(i.rank) FROM Issue i WHERE i.projectId = :projectId AND i.status = :status")
+    String findFirstRank(@Param("projectId") Long projectId, @Param("status") IssueStatus status);
+    
+    // The neighbours of a drop; shared locks, so a rebalance of their column
+    // either finishes first or waits for the move
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT i FROM Issue i WHERE i.id IN :ids")
+    List<Issue> findForPlacement(@Param("ids") List<Long> ids);
+    
+    // Leaves version and updated_at alone: a move is not an edit (ShardMover compares ranks as well)
+    @Modifying
+    @Query(value = "UPDATE issues SET issue_rank = :rank WHERE id = :id", nativeQuery = true)
+    int updateRank(@Param("id") Long id, @Param("rank") String rank);
+    
+    @Query(value = "SELECT id FROM issues WHERE project_id = :projectId AND status = :status " +
+                   "ORDER BY issue_rank, id DESC FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockColumn(@Param("projectId") Long projectId, @Param("status") String status);
+    
+    // Issues closed before the cutoff, locked so a concurrent reopen either
+    // happens before the archiver sees them or waits for it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Issue i WHERE i.projectId = :projectId AND " +
+           "i.status = com.issuetracker.model.enums.IssueStatus.CLOSED AND i.closedAt < :cutoff ORDER BY i.id")
+    List<Issue> findArchivable(@Param("projectId") Long projectId, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Projects that may have archivable issues; served by idx_issue_closed_at
+    @Query(value = "SELECT DISTINCT project_id FROM issues WHERE status = 'CLOSED' AND closed_at < :cutoff",
+           nativeQuery = true)
+    List<Long> findProjectIdsClosedBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query(value = "INSERT INTO issues (id, project_id, issue_number, title, description, status, priority, " +
+                   "assignee_id, issue_rank, created_at, updated_at, closed_at, version) " +
+                   "SELECT id, project_id, issue_number, title, description, status, priority, " +
+                   "assignee_id, issue_rank, created_at, updated_at, closed_at, version FROM archived_issues WHERE id IN :ids",
+           nativeQuery = true)
+    int copyFromArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query(value = "INSERT INTO issue_tags (issue_id, tag) " +
+                   "SELECT issue_id, tag FROM archived_issue_tags WHERE issue_id IN :ids",
+           nativeQuery = true)
+    int copyTagsFromArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM issue_tags WHERE issue_id IN :ids", nativeQuery = true)
+    int deleteTagRows(@Param("ids") List<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM issues WHERE id IN :ids", nativeQuery = true)
+    int deleteRows(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,19 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.ProjectIssueCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface ProjectIssueCounterRepository extends JpaRepository<ProjectIssueCounter, Long> {
+
+    // Held only while a node reserves its next block
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectIssueCounter c WHERE c.projectId = :projectId")
+    Optional<ProjectIssueCounter> findForUpdate(@Param("projectId") Long projectId);
+}
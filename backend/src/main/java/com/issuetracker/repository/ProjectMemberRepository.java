@@ -1,8 +1,12 @@
 package com.issuetracker.repository;
 
 import com.issuetracker.model.ProjectMember;
+import com.issuetracker.model.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,22 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Lo
     List<ProjectMember> findByProjectId(Long projectId);
     List<ProjectMember> findByUserId(Long userId);
     boolean existsByProjectIdAndUserId(Long projectId, Long userId);
+    
+    // Every project the user belongs to, with their role and the owner's name, in one query
+    @Query("SELECT p.id AS id, p.name AS name, p.projectKey AS projectKey, p.ownerId AS ownerId, o.name AS ownerName, " +
+           "p.createdAt AS createdAt, p.archiveAfterDays AS archiveAfterDays, m.role AS role " +
+           "FROM ProjectMember m JOIN Project p ON p.id = m.projectId LEFT JOIN p.owner o " +
+           "WHERE m.userId = :userId ORDER BY p.id")
+    List<ProjectSummary> findProjectSummaries(@Param("userId") Long userId);
+    
+    interface ProjectSummary {
+        Long getId();
+        String getName();
+        String getProjectKey();
+        Long getOwnerId();
+        String getOwnerName();
+        LocalDateTime getCreatedAt();
+        Integer getArchiveAfterDays();
+        UserRole getRole();
+    }
 }
@@ -5,11 +5,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByOwnerId(Long ownerId);
     
+    Optional<Project> findByProjectKey(String projectKey);
+    
+    boolean existsByProjectKey(String projectKey);
+    
     @Query("SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.owner WHERE p.ownerId = :ownerId")
     List<Project> findByOwnerIdWithOwner(Long ownerId);
+    
+    @Query("SELECT MIN(p.archiveAfterDays) FROM Project p")
+    Integer findShortestArchiveAfterDays();
 }
@@ -0,0 +1,24 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.ProjectShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface ProjectShardRepository extends JpaRepository<ProjectShard, Long> {
+
+    // Shared lock held by issue writes until their transaction ends (FOR SHARE on PostgreSQL)
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT ps FROM ProjectShard ps WHERE ps.projectId = :projectId")
+    Optional<ProjectShard> findForWrite(@Param("projectId") Long projectId);
+
+    // Exclusive lock taken by a move; waits for in-flight writes to finish
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ps FROM ProjectShard ps WHERE ps.projectId = :projectId")
+    Optional<ProjectShard> findForMove(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,38 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.SavedFilterMatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedFilterMatchRepository extends JpaRepository<SavedFilterMatch, SavedFilterMatch.Key> {
+
+    // Newest issues first, read straight off the primary key
+    @Query("SELECT m.issueId FROM SavedFilterMatch m WHERE m.filterId = :filterId ORDER BY m.issueId DESC")
+    List<Long> findIssueIds(@Param("filterId") Long filterId, Pageable pageable);
+
+    // Returns 1 if the row was added, 0 if it was already there
+    @Modifying
+    @Query(value = "INSERT INTO saved_filter_matches (filter_id, issue_id) SELECT CAST(:filterId AS BIGINT), CAST(:issueId AS BIGINT) " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM saved_filter_matches WHERE filter_id = :filterId AND issue_id = :issueId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("filterId") Long filterId, @Param("issueId") Long issueId);
+
+    @Modifying
+    @Query("DELETE FROM SavedFilterMatch m WHERE m.filterId = :filterId AND m.issueId = :issueId")
+    int deleteMatch(@Param("filterId") Long filterId, @Param("issueId") Long issueId);
+
+    @Modifying
+    @Query("DELETE FROM SavedFilterMatch m WHERE m.filterId = :filterId")
+    void deleteByFilter(@Param("filterId") Long filterId);
+
+    @Modifying
+    @Query("DELETE FROM SavedFilterMatch m WHERE m.filterId IN :filterIds AND m.issueId IN :issueIds")
+    int deleteIssues(@Param("filterIds") Collection<Long> filterIds, @Param("issueIds") Collection<Long> issueIds);
+}
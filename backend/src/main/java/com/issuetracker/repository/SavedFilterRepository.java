@@ -0,0 +1,31 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.SavedFilter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedFilterRepository extends JpaRepository<SavedFilter, Long> {
+
+    List<SavedFilter> findByProjectId(Long projectId);
+
+    // Filters on projects the user has since left are kept but not shown
+    @Query("SELECT f FROM SavedFilter f WHERE f.userId = :userId AND EXISTS " +
+           "(SELECT m FROM ProjectMember m WHERE m.projectId = f.projectId AND m.userId = :userId) " +
+           "ORDER BY f.createdAt")
+    List<SavedFilter> findVisible(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE SavedFilter f SET f.matchCount = f.matchCount + :delta WHERE f.id = :id")
+    void addToMatchCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE SavedFilter f SET f.matchCount = " +
+           "(SELECT COUNT(m) FROM SavedFilterMatch m WHERE m.filterId = f.id) WHERE f.id IN :ids")
+    void recount(@Param("ids") Collection<Long> ids);
+}
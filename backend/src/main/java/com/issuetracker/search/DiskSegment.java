@@ -0,0 +1,251 @@
+package com.issuetracker.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// An immutable segment file, memory-mapped for searching. Layout (big-endian):
+//
+//   header     magic, format, docCount
+//   docs       issueId, projectId, version (longs) and length (int), per document
+//   postings   per term, per document: doc, freq, freq positions
+//   terms      per term: UTF-8 length (short) and bytes, docFreq, postings offset
+//   term table offset of each term entry, in term order
+//   trailer    termCount, term table offset, magic
+//
+// Offsets are ints: a segment is at most 2GB, which SearchIndex keeps merges under.
+final class DiskSegment extends SegmentReader {
+
+    static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    private static final int MAGIC = 0x49545358;
+    private static final int FORMAT = 1;
+    private static final int HEADER = 12;
+    private static final int DOC_ENTRY = 28;
+    private static final int TRAILER = 12;
+
+    private final String name;
+    private final ByteBuffer data;
+    private final int docCount;
+    private final int termCount;
+    private final int termTable;
+
+    private DiskSegment(String name, ByteBuffer data) throws IOException {
+        int size = data.limit();
+        if (size < HEADER + TRAILER || data.getInt(0) != MAGIC || data.getInt(size - 4) != MAGIC
+                || data.getInt(4) != FORMAT) {
+            throw new IOException("Not a search segment: " + name);
+        }
+        this.name = name;
+        this.data = data;
+        this.docCount = data.getInt(8);
+        this.termCount = data.getInt(size - TRAILER);
+        this.termTable = data.getInt(size - TRAILER + 4);
+    }
+
+    static DiskSegment open(Path file, String name) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new DiskSegment(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Writes and fsyncs a new segment; terms must come in String order
+    static void write(Path file, List<Doc> docs, Iterator<Map.Entry<String, List<Posting>>> terms)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(docs.size());
+            for (Doc doc : docs) {
+                out.writeLong(doc.issueId());
+                out.writeLong(doc.projectId());
+                out.writeLong(doc.version());
+                out.writeInt(doc.length());
+            }
+
+            List<byte[]> termBytes = new ArrayList<>();
+            List<int[]> termStats = new ArrayList<>();
+            while (terms.hasNext()) {
+                Map.Entry<String, List<Posting>> term = terms.next();
+                termBytes.add(term.getKey().getBytes(StandardCharsets.UTF_8));
+                termStats.add(new int[] {term.getValue().size(), out.size()});
+                for (Posting posting : term.getValue()) {
+                    out.writeInt(posting.doc());
+                    out.writeInt(posting.positions().length);
+                    for (int position : posting.positions()) {
+                        out.writeInt(position);
+                    }
+                }
+            }
+
+            int[] entries = new int[termBytes.size()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = out.size();
+                out.writeShort(termBytes.get(i).length);
+                out.write(termBytes.get(i));
+                out.writeInt(termStats.get(i)[0]);
+                out.writeInt(termStats.get(i)[1]);
+            }
+            int termTable = out.size();
+            for (int entry : entries) {
+                out.writeInt(entry);
+            }
+            out.writeInt(entries.length);
+            out.writeInt(termTable);
+            out.writeInt(MAGIC);
+            out.flush();
+            // size() stops counting at Integer.MAX_VALUE
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("Search segment over 2GB: " + file);
+            }
+            channel.force(true);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    long sizeInBytes() {
+        return data.limit();
+    }
+
+    @Override
+    int docCount() {
+        return docCount;
+    }
+
+    @Override
+    Doc doc(int doc) {
+        int offset = HEADER + doc * DOC_ENTRY;
+        return new Doc(data.getLong(offset), data.getLong(offset + 8), data.getLong(offset + 16),
+                data.getInt(offset + 24));
+    }
+
+    @Override
+    long projectId(int doc) {
+        return data.getLong(HEADER + doc * DOC_ENTRY + 8);
+    }
+
+    @Override
+    int length(int doc) {
+        return data.getInt(HEADER + doc * DOC_ENTRY + 24);
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    String term(int index) {
+        int entry = data.getInt(termTable + index * 4);
+        byte[] bytes = new byte[data.getShort(entry)];
+        data.get(entry + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    int docFreq(String term) {
+        int index = find(term);
+        return index >= 0 ? data.getInt(statsOffset(index)) : 0;
+    }
+
+    @Override
+    PostingsCursor postings(String term) {
+        int index = find(term);
+        return index >= 0 ? postingsAt(index) : null;
+    }
+
+    PostingsCursor postingsAt(int index) {
+        int stats = statsOffset(index);
+        return new MappedCursor(data, data.getInt(stats + 4), data.getInt(stats));
+    }
+
+    @Override
+    List<String> termsWithPrefix(String prefix, int limit) {
+        List<String> terms = new ArrayList<>();
+        int index = find(prefix);
+        for (int i = index >= 0 ? index : -index - 1; i < termCount && terms.size() < limit; i++) {
+            String term = term(i);
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    // The term's index, or -(insertion point) - 1
+    private int find(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = term(mid).compareTo(term);
+            if (cmp == 0) {
+                return mid;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int statsOffset(int index) {
+        int entry = data.getInt(termTable + index * 4);
+        return entry + 2 + data.getShort(entry);
+    }
+
+    private static final class MappedCursor extends PostingsCursor {
+
+        private final ByteBuffer data;
+        private int remaining;
+        private int next;
+        private int positions;
+        private int freq;
+
+        MappedCursor(ByteBuffer data, int offset, int docFreq) {
+            this.data = data;
+            this.next = offset;
+            this.remaining = docFreq;
+        }
+
+        @Override
+        int nextDoc() {
+            if (remaining == 0) {
+                doc = NO_MORE_DOCS;
+                return doc;
+            }
+            remaining--;
+            doc = data.getInt(next);
+            freq = data.getInt(next + 4);
+            positions = next + 8;
+            next = positions + freq * 4;
+            return doc;
+        }
+
+        @Override
+        int freq() {
+            return freq;
+        }
+
+        @Override
+        int position(int index) {
+            return data.getInt(positions + index * 4);
+        }
+    }
+}
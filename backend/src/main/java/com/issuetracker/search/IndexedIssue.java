@@ -0,0 +1,16 @@
+package com.issuetracker.search;
+
+import com.issuetracker.dto.IssueResponse;
+
+import java.util.List;
+
+// The searchable fields of an issue, plus what the index keeps per document
+public record IndexedIssue(long issueId, long projectId, long version, String title, String description,
+                           List<String> tags) {
+
+    public static IndexedIssue of(IssueResponse issue) {
+        return new IndexedIssue(issue.getId(), issue.getProjectId(),
+                issue.getVersion() != null ? issue.getVersion() : 0, issue.getTitle(), issue.getDescription(),
+                issue.getTags());
+    }
+}
@@ -0,0 +1,106 @@
+package com.issuetracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// The segment new documents go to until SearchIndex writes it to disk
+final class MemorySegment extends SegmentReader {
+
+    private final List<Doc> docs = new ArrayList<>();
+    private final TreeMap<String, List<Posting>> postings = new TreeMap<>();
+
+    int add(IndexedIssue issue) {
+        int doc = docs.size();
+        int length = 0;
+        for (Map.Entry<String, List<Integer>> term : SearchAnalyzer.analyze(issue).entrySet()) {
+            int[] positions = term.getValue().stream().mapToInt(Integer::intValue).toArray();
+            for (int position : positions) {
+                length += SearchAnalyzer.weight(position);
+            }
+            postings.computeIfAbsent(term.getKey(), key -> new ArrayList<>()).add(new Posting(doc, positions));
+        }
+        docs.add(new Doc(issue.issueId(), issue.projectId(), issue.version(), length));
+        return doc;
+    }
+
+    List<Doc> docs() {
+        return docs;
+    }
+
+    TreeMap<String, List<Posting>> postings() {
+        return postings;
+    }
+
+    @Override
+    int docCount() {
+        return docs.size();
+    }
+
+    @Override
+    Doc doc(int doc) {
+        return docs.get(doc);
+    }
+
+    @Override
+    long projectId(int doc) {
+        return docs.get(doc).projectId();
+    }
+
+    @Override
+    int length(int doc) {
+        return docs.get(doc).length();
+    }
+
+    @Override
+    int docFreq(String term) {
+        List<Posting> list = postings.get(term);
+        return list != null ? list.size() : 0;
+    }
+
+    @Override
+    PostingsCursor postings(String term) {
+        List<Posting> list = postings.get(term);
+        return list != null ? new ListCursor(list) : null;
+    }
+
+    @Override
+    List<String> termsWithPrefix(String prefix, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (String term : postings.tailMap(prefix).keySet()) {
+            if (!term.startsWith(prefix) || terms.size() == limit) {
+                break;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    static final class ListCursor extends PostingsCursor {
+
+        private final List<Posting> list;
+        private int index = -1;
+
+        ListCursor(List<Posting> list) {
+            this.list = list;
+        }
+
+        @Override
+        int nextDoc() {
+            index++;
+            doc = index < list.size() ? list.get(index).doc() : NO_MORE_DOCS;
+            return doc;
+        }
+
+        @Override
+        int freq() {
+            return list.get(index).positions().length;
+        }
+
+        @Override
+        int position(int i) {
+            return list.get(index).positions()[i];
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.issuetracker.search;
+
+// Walks the documents containing one term, in document order, with the term's
+// positions in the current document
+abstract class PostingsCursor {
+
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    protected int doc = -1;
+
+    int doc() {
+        return doc;
+    }
+
+    abstract int nextDoc();
+
+    abstract int freq();
+
+    abstract int position(int index);
+
+    int advance(int target) {
+        while (doc < target) {
+            nextDoc();
+        }
+        return doc;
+    }
+
+    // Term frequency with title positions counted twice
+    int weightedFreq() {
+        int freq = 0;
+        for (int i = 0; i < freq(); i++) {
+            freq += SearchAnalyzer.weight(position(i));
+        }
+        return freq;
+    }
+
+    boolean hasPosition(int position) {
+        int low = 0;
+        int high = freq() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int found = position(mid);
+            if (found == position) {
+                return true;
+            }
+            if (found < position) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.issuetracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Terms are lower-cased runs of letters and digits. The title, description and
+// tags of an issue are one position space with the fields far apart, so a
+// phrase never matches across two of them; a term in the title counts twice.
+final class SearchAnalyzer {
+
+    static final int FIELD_SPAN = 1 << 20;
+    static final int MAX_TERM_LENGTH = 64;
+
+    private static final int TITLE = 0;
+    private static final int DESCRIPTION = FIELD_SPAN;
+    private static final int TAGS = 2 * FIELD_SPAN;
+
+    private SearchAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // term -> its positions in the issue, ascending
+    static TreeMap<String, List<Integer>> analyze(IndexedIssue issue) {
+        TreeMap<String, List<Integer>> positions = new TreeMap<>();
+        add(positions, terms(issue.title()), TITLE);
+        add(positions, terms(issue.description()), DESCRIPTION);
+        int position = TAGS;
+        if (issue.tags() != null) {
+            for (String tag : issue.tags()) {
+                List<String> terms = terms(tag);
+                add(positions, terms, position);
+                // A gap, so a phrase does not run from one tag into the next
+                position += terms.size() + 1;
+            }
+        }
+        return positions;
+    }
+
+    static int weight(int position) {
+        return position < DESCRIPTION ? 2 : 1;
+    }
+
+    private static void add(Map<String, List<Integer>> positions, List<String> terms, int start) {
+        // Terms past the end of the field's span are dropped
+        int count = Math.min(terms.size(), FIELD_SPAN - start % FIELD_SPAN);
+        for (int i = 0; i < count; i++) {
+            positions.computeIfAbsent(terms.get(i), term -> new ArrayList<>()).add(start + i);
+        }
+    }
+}
@@ -0,0 +1,596 @@
+package com.issuetracker.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Inverted index over issue titles, descriptions and tags, kept in local files.
+// New and changed issues go to an in-memory segment that a background flush
+// writes out as an immutable, memory-mapped segment file; an update marks the
+// issue's previous copy deleted. Once there are more than
+// app.search.max-segments files, the smallest are merged into one outside the
+// lock, dropping deleted copies. The manifest names the committed segments and
+// the checkpoint, in database time, up to which SearchIndexer had read every
+// shard's changes when they were written; it reads the issues changed since then.
+@Component
+public class SearchIndex implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)");
+    private static final String MANIFEST = "manifest";
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparingLong(Hit::issueId);
+
+    public record Hit(long issueId, long projectId, double score) {
+    }
+
+    public record Hits(List<Hit> hits, long total) {
+    }
+
+    private record DocRef(SegmentReader segment, int doc, long version, long generation) {
+    }
+
+    private record Tombstone(long version, long removedAt) {
+    }
+
+    private final Path directory;
+    private final int maxSegments;
+    private final long tombstoneMillis;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One flush or merge at a time
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    // Guarded by lock
+    private List<DiskSegment> segments = new ArrayList<>();
+    private MemorySegment buffer = new MemorySegment();
+    private final Map<Long, DocRef> live = new HashMap<>();
+    // Recently removed issues, so a late copy of an older version is not added back
+    private final Map<Long, Tombstone> tombstones = new HashMap<>();
+    private final Set<DiskSegment> changedDeletions = new HashSet<>();
+    private long totalLength;
+    private long generation;
+    private long nextSegment = 1;
+    private long checkpoint;
+    private boolean dirty;
+
+    public SearchIndex(MeterRegistry meterRegistry,
+                       @Value("${app.search.index-dir:data/search-index}") Path directory,
+                       @Value("${app.search.max-segments:8}") int maxSegments,
+                       @Value("${app.search.catch-up-margin-ms:60000}") long tombstoneMillis) throws IOException {
+        this.directory = directory;
+        this.maxSegments = Math.max(maxSegments, 1);
+        this.tombstoneMillis = tombstoneMillis;
+        Files.createDirectories(directory);
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            // SearchIndexer rebuilds an index without a checkpoint from the database
+            log.warn("Search index in {} is unreadable, starting a new one: {}", directory, e.getMessage());
+            segments = new ArrayList<>();
+            live.clear();
+            changedDeletions.clear();
+            totalLength = 0;
+            checkpoint = 0;
+            deleteFiles(Set.of());
+        }
+
+        Gauge.builder("search_index.documents", this, index -> index.size())
+                .register(meterRegistry);
+        Gauge.builder("search_index.segments", this, index -> index.segmentCount())
+                .register(meterRegistry);
+    }
+
+    // Adds or replaces the issue unless a newer version is already indexed
+    public void index(IndexedIssue issue) {
+        lock.writeLock().lock();
+        try {
+            Tombstone tombstone = tombstones.get(issue.issueId());
+            if (tombstone != null && tombstone.version() >= issue.version()) {
+                return;
+            }
+            DocRef previous = live.get(issue.issueId());
+            if (previous != null) {
+                if (previous.version() >= issue.version()) {
+                    return;
+                }
+                delete(previous);
+            }
+            tombstones.remove(issue.issueId());
+            int doc = buffer.add(issue);
+            live.put(issue.issueId(), new DocRef(buffer, doc, issue.version(), ++generation));
+            totalLength += buffer.length(doc);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // version is the removed row's, or null to go by the indexed one
+    public void remove(long issueId, Long version) {
+        lock.writeLock().lock();
+        try {
+            DocRef previous = live.remove(issueId);
+            if (previous != null) {
+                delete(previous);
+            }
+            long removedVersion = Math.max(version != null ? version : -1, previous != null ? previous.version() : -1);
+            if (removedVersion >= 0) {
+                tombstones.put(issueId, new Tombstone(removedVersion, System.currentTimeMillis()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes issues that are not in present, other than those indexed after
+    // generation was read
+    public int retainOnly(Set<Long> present, long generation) {
+        lock.writeLock().lock();
+        try {
+            List<Long> missing = live.entrySet().stream()
+                    .filter(entry -> entry.getValue().generation() <= generation && !present.contains(entry.getKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (Long issueId : missing) {
+                delete(live.remove(issueId));
+            }
+            return missing.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The best limit matches in projects accepted by projectFilter, and how many there are
+    public Hits search(String text, LongPredicate projectFilter, int limit) {
+        SearchQuery parsed = SearchQuery.parse(text);
+        lock.readLock().lock();
+        try {
+            List<SegmentReader> readers = new ArrayList<>(segments);
+            readers.add(buffer);
+            SearchQuery query = parsed.expandPrefixes(prefix -> {
+                TreeSet<String> terms = new TreeSet<>();
+                for (SegmentReader reader : readers) {
+                    terms.addAll(reader.termsWithPrefix(prefix, MAX_PREFIX_TERMS));
+                }
+                return terms.stream().limit(MAX_PREFIX_TERMS).toList();
+            });
+
+            long docCount = live.size();
+            double averageLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+            Map<String, Double> idfs = new HashMap<>();
+            ToDoubleFunction<String> idf = term -> idfs.computeIfAbsent(term, key -> {
+                long docFreq = 0;
+                for (SegmentReader reader : readers) {
+                    docFreq += reader.docFreq(key);
+                }
+                // Deleted copies still count in docFreq
+                docFreq = Math.min(docFreq, docCount);
+                return Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+            });
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(WORST_FIRST);
+            long[] total = {0};
+            for (SegmentReader reader : readers) {
+                SegmentSearcher.search(reader, query, idf, averageLength, projectFilter, (segment, doc, score) -> {
+                    total[0]++;
+                    if (limit <= 0 || (top.size() == limit && score < top.peek().score())) {
+                        return;
+                    }
+                    SegmentReader.Doc found = segment.doc(doc);
+                    top.add(new Hit(found.issueId(), found.projectId(), score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                });
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(WORST_FIRST.reversed());
+            return new Hits(hits, total[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Epoch millis (database time) up to which every change has been read; 0 for a new index
+    public long checkpoint() {
+        lock.readLock().lock();
+        try {
+            return checkpoint;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call after indexing what was read; the next flush commits both together
+    public void advanceCheckpoint(long millis) {
+        lock.writeLock().lock();
+        try {
+            if (millis > checkpoint) {
+                checkpoint = millis;
+                dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.flush-interval-ms:1000}")
+    public void flush() {
+        maintenanceLock.lock();
+        lock.writeLock().lock();
+        try {
+            long cutoff = System.currentTimeMillis() - tombstoneMillis;
+            tombstones.values().removeIf(tombstone -> tombstone.removedAt() < cutoff);
+            if (dirty) {
+                commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write search index", e);
+        } finally {
+            lock.writeLock().unlock();
+            maintenanceLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.merge-interval-ms:10000}")
+    public void merge() {
+        maintenanceLock.lock();
+        try {
+            List<DiskSegment> sources = new ArrayList<>();
+            List<BitSet> deletions = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                if (segments.size() <= maxSegments) {
+                    return;
+                }
+                List<DiskSegment> bySize = new ArrayList<>(segments);
+                bySize.sort(Comparator.comparingLong(DiskSegment::sizeInBytes));
+                long bytes = 0;
+                for (DiskSegment segment : bySize) {
+                    bytes += segment.sizeInBytes();
+                    if (sources.size() > segments.size() - maxSegments || bytes > DiskSegment.MAX_BYTES / 2) {
+                        break;
+                    }
+                    sources.add(segment);
+                    deletions.add((BitSet) segment.deleted.clone());
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (sources.size() < 2) {
+                return;
+            }
+
+            // Deletions after the snapshot are carried over when the merged segment is swapped in
+            String name = "segment-" + nextSegment++;
+            Path file = directory.resolve(name + ".idx");
+            int[][] newDocs;
+            DiskSegment merged;
+            try {
+                newDocs = writeMerged(file, sources, deletions);
+                merged = DiskSegment.open(file, name);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < sources.size(); i++) {
+                    DiskSegment source = sources.get(i);
+                    for (int doc = 0; doc < newDocs[i].length; doc++) {
+                        int newDoc = newDocs[i][doc];
+                        if (newDoc < 0) {
+                            continue;
+                        }
+                        long issueId = merged.doc(newDoc).issueId();
+                        DocRef ref = live.get(issueId);
+                        if (ref != null && ref.segment() == source && ref.doc() == doc) {
+                            live.put(issueId, new DocRef(merged, newDoc, ref.version(), ref.generation()));
+                        } else {
+                            merged.deleted.set(newDoc);
+                        }
+                    }
+                }
+                List<DiskSegment> remaining = new ArrayList<>(segments);
+                remaining.removeAll(sources);
+                remaining.add(merged);
+                segments = remaining;
+                changedDeletions.removeAll(sources);
+                if (!merged.deleted.isEmpty()) {
+                    changedDeletions.add(merged);
+                }
+                commit();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (DiskSegment source : sources) {
+                Files.deleteIfExists(directory.resolve(source.name() + ".idx"));
+                Files.deleteIfExists(directory.resolve(source.name() + ".del"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not merge search index segments", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void delete(DocRef ref) {
+        ref.segment().deleted.set(ref.doc());
+        totalLength -= ref.segment().length(ref.doc());
+        if (ref.segment() instanceof DiskSegment segment) {
+            changedDeletions.add(segment);
+        }
+        dirty = true;
+    }
+
+    // Writes the buffer as a new segment, then the changed deletions, then the
+    // manifest; the manifest replacing the old one is the commit
+    private void commit() throws IOException {
+        if (buffer.docCount() > 0) {
+            String name = "segment-" + nextSegment++;
+            Path file = directory.resolve(name + ".idx");
+            DiskSegment.write(file, buffer.docs(), buffer.postings().entrySet().iterator());
+            DiskSegment segment = DiskSegment.open(file, name);
+            segment.deleted.or(buffer.deleted);
+            for (int doc = 0; doc < buffer.docCount(); doc++) {
+                if (buffer.isLive(doc)) {
+                    DocRef ref = live.get(buffer.doc(doc).issueId());
+                    live.put(buffer.doc(doc).issueId(), new DocRef(segment, doc, ref.version(), ref.generation()));
+                }
+            }
+            List<DiskSegment> withNew = new ArrayList<>(segments);
+            withNew.add(segment);
+            segments = withNew;
+            if (!segment.deleted.isEmpty()) {
+                changedDeletions.add(segment);
+            }
+            buffer = new MemorySegment();
+        }
+        for (DiskSegment segment : changedDeletions) {
+            writeAtomically(directory.resolve(segment.name() + ".del"), segment.deleted.toByteArray());
+        }
+        changedDeletions.clear();
+
+        StringBuilder manifest = new StringBuilder("checkpoint=").append(checkpoint).append('\n');
+        for (DiskSegment segment : segments) {
+            manifest.append("segment=").append(segment.name()).append('\n');
+        }
+        writeAtomically(directory.resolve(MANIFEST), manifest.toString().getBytes(StandardCharsets.UTF_8));
+        dirty = false;
+    }
+
+    private void load() throws IOException {
+        Set<String> kept = new HashSet<>();
+        kept.add(MANIFEST);
+        Path manifest = directory.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (line.startsWith("checkpoint=")) {
+                    checkpoint = Long.parseLong(line.substring("checkpoint=".length()));
+                } else if (line.startsWith("segment=")) {
+                    String name = line.substring("segment=".length());
+                    DiskSegment segment = DiskSegment.open(directory.resolve(name + ".idx"), name);
+                    Path deletions = directory.resolve(name + ".del");
+                    if (Files.exists(deletions)) {
+                        segment.deleted.or(BitSet.valueOf(Files.readAllBytes(deletions)));
+                    }
+                    segments.add(segment);
+                    kept.add(name + ".idx");
+                    kept.add(name + ".del");
+                    Matcher matcher = SEGMENT_NAME.matcher(name);
+                    if (matcher.matches()) {
+                        nextSegment = Math.max(nextSegment, Long.parseLong(matcher.group(1)) + 1);
+                    }
+                }
+            }
+        }
+
+        for (DiskSegment segment : segments) {
+            for (int doc = 0; doc < segment.docCount(); doc++) {
+                if (!segment.isLive(doc)) {
+                    continue;
+                }
+                SegmentReader.Doc found = segment.doc(doc);
+                DocRef previous = live.get(found.issueId());
+                if (previous != null) {
+                    // Only left by a crash between two files; the newer copy wins
+                    if (previous.version() >= found.version()) {
+                        segment.deleted.set(doc);
+                        changedDeletions.add(segment);
+                        continue;
+                    }
+                    delete(previous);
+                }
+                live.put(found.issueId(), new DocRef(segment, doc, found.version(), 0));
+                totalLength += found.length();
+            }
+        }
+
+        // Segments of merges and flushes that did not commit
+        deleteFiles(kept);
+    }
+
+    private void deleteFiles(Set<String> kept) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                if (!kept.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, content);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Writes the live documents of sources as one segment; returns the new
+    // number of each source document, -1 for the ones left out
+    private static int[][] writeMerged(Path file, List<DiskSegment> sources, List<BitSet> deletions)
+            throws IOException {
+        List<SegmentReader.Doc> docs = new ArrayList<>();
+        int[][] newDocs = new int[sources.size()][];
+        for (int i = 0; i < sources.size(); i++) {
+            DiskSegment source = sources.get(i);
+            newDocs[i] = new int[source.docCount()];
+            for (int doc = 0; doc < source.docCount(); doc++) {
+                if (deletions.get(i).get(doc)) {
+                    newDocs[i][doc] = -1;
+                } else {
+                    newDocs[i][doc] = docs.size();
+                    docs.add(source.doc(doc));
+                }
+            }
+        }
+        DiskSegment.write(file, docs, new MergedTerms(sources, newDocs));
+        return newDocs;
+    }
+
+    // The union of the sources' terms in order, with postings renumbered.
+    // Sources are numbered one after the other, so postings stay in doc order.
+    private static final class MergedTerms implements Iterator<Map.Entry<String, List<SegmentReader.Posting>>> {
+
+        private record Position(int source, int term, String value) {
+        }
+
+        private final List<DiskSegment> sources;
+        private final int[][] newDocs;
+        private final PriorityQueue<Position> queue = new PriorityQueue<>(
+                Comparator.comparing(Position::value).thenComparingInt(Position::source));
+        private Map.Entry<String, List<SegmentReader.Posting>> next;
+
+        MergedTerms(List<DiskSegment> sources, int[][] newDocs) {
+            this.sources = sources;
+            this.newDocs = newDocs;
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).termCount() > 0) {
+                    queue.add(new Position(i, 0, sources.get(i).term(0)));
+                }
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, List<SegmentReader.Posting>> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, List<SegmentReader.Posting>> current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !queue.isEmpty()) {
+                String term = queue.peek().value();
+                List<SegmentReader.Posting> postings = new ArrayList<>();
+                while (!queue.isEmpty() && queue.peek().value().equals(term)) {
+                    Position position = queue.poll();
+                    DiskSegment source = sources.get(position.source());
+                    addPostings(postings, source.postingsAt(position.term()), newDocs[position.source()]);
+                    int following = position.term() + 1;
+                    if (following < source.termCount()) {
+                        queue.add(new Position(position.source(), following, source.term(following)));
+                    }
+                }
+                // Terms only deleted documents had are dropped
+                if (!postings.isEmpty()) {
+                    next = Map.entry(term, postings);
+                }
+            }
+        }
+
+        private static void addPostings(Collection<SegmentReader.Posting> postings, PostingsCursor cursor,
+                                        int[] newDocs) {
+            for (int doc = cursor.nextDoc(); doc != PostingsCursor.NO_MORE_DOCS; doc = cursor.nextDoc()) {
+                if (newDocs[doc] < 0) {
+                    continue;
+                }
+                int[] positions = new int[cursor.freq()];
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = cursor.position(i);
+                }
+                postings.add(new SegmentReader.Posting(newDocs[doc], positions));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.issuetracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// A parsed query: every clause must match. A clause is a word, a prefix
+// ("auth*") or a quoted phrase ("login page"); prefixes are expanded to the
+// indexed terms they cover before the query runs.
+final class SearchQuery {
+
+    static final int MAX_CLAUSES = 16;
+
+    // Matches when any of terms does; a plain word is a clause with one term
+    record AnyTerm(List<String> terms) implements Clause {
+    }
+
+    // Matches when terms appear at consecutive positions
+    record Phrase(List<String> terms) implements Clause {
+    }
+
+    record Prefix(String prefix) implements Clause {
+    }
+
+    sealed interface Clause permits AnyTerm, Phrase, Prefix {
+    }
+
+    private final List<Clause> clauses;
+
+    private SearchQuery(List<Clause> clauses) {
+        this.clauses = clauses;
+    }
+
+    List<Clause> clauses() {
+        return clauses;
+    }
+
+    static SearchQuery parse(String text) {
+        List<Clause> clauses = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = text.length();
+                }
+                addWords(clauses, SearchAnalyzer.terms(text.substring(i + 1, end)));
+                i = end + 1;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '"') {
+                    end++;
+                }
+                String word = text.substring(i, end);
+                List<String> terms = SearchAnalyzer.terms(word);
+                if (word.endsWith("*") && terms.size() == 1) {
+                    clauses.add(new Prefix(terms.get(0)));
+                } else {
+                    // "e-mail" is the phrase e mail, as it was indexed
+                    addWords(clauses, terms);
+                }
+                i = end;
+            }
+        }
+        if (clauses.isEmpty()) {
+            throw new RuntimeException("Search query is empty");
+        }
+        if (clauses.size() > MAX_CLAUSES) {
+            throw new RuntimeException("Search query has more than " + MAX_CLAUSES + " terms");
+        }
+        return new SearchQuery(clauses);
+    }
+
+    // Replaces each prefix by the terms it covers; expand returns them
+    SearchQuery expandPrefixes(Function<String, List<String>> expand) {
+        List<Clause> expanded = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            expanded.add(clause instanceof Prefix prefix ? new AnyTerm(expand.apply(prefix.prefix())) : clause);
+        }
+        return new SearchQuery(expanded);
+    }
+
+    private static void addWords(List<Clause> clauses, List<String> terms) {
+        if (terms.size() == 1) {
+            clauses.add(new AnyTerm(terms));
+        } else if (terms.size() > 1) {
+            clauses.add(new Phrase(terms));
+        }
+    }
+}
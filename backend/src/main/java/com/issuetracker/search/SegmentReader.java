@@ -0,0 +1,42 @@
+package com.issuetracker.search;
+
+import java.util.BitSet;
+import java.util.List;
+
+// A set of indexed issues numbered 0..docCount()-1 in the order they were
+// added. Everything but the deletions is fixed once written; deletions are
+// guarded by SearchIndex's lock.
+abstract class SegmentReader {
+
+    record Doc(long issueId, long projectId, long version, int length) {
+    }
+
+    record Posting(int doc, int[] positions) {
+    }
+
+    final BitSet deleted = new BitSet();
+
+    abstract int docCount();
+
+    abstract Doc doc(int doc);
+
+    abstract long projectId(int doc);
+
+    abstract int length(int doc);
+
+    abstract int docFreq(String term);
+
+    // null when no document has the term
+    abstract PostingsCursor postings(String term);
+
+    // At most limit terms starting with prefix, in order
+    abstract List<String> termsWithPrefix(String prefix, int limit);
+
+    boolean isLive(int doc) {
+        return !deleted.get(doc);
+    }
+
+    int liveCount() {
+        return docCount() - deleted.cardinality();
+    }
+}
@@ -0,0 +1,228 @@
+package com.issuetracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.ToDoubleFunction;
+
+// Runs a query over one segment. Matches are scored with BM25 using the
+// document frequencies and average length of the whole index, so a score does
+// not depend on which segment the issue happens to be in.
+final class SegmentSearcher {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    interface Collector {
+        void collect(SegmentReader segment, int doc, double score);
+    }
+
+    private SegmentSearcher() {
+    }
+
+    static void search(SegmentReader segment, SearchQuery query, ToDoubleFunction<String> idf, double averageLength,
+                       LongPredicate projectFilter, Collector collector) {
+        List<ClauseScorer> scorers = new ArrayList<>();
+        for (SearchQuery.Clause clause : query.clauses()) {
+            ClauseScorer scorer = scorer(segment, clause, idf);
+            if (scorer == null) {
+                // A clause nothing in this segment matches
+                return;
+            }
+            scorers.add(scorer);
+        }
+
+        int target = 0;
+        while (true) {
+            int doc = target;
+            for (ClauseScorer scorer : scorers) {
+                doc = scorer.advance(doc);
+                if (doc == PostingsCursor.NO_MORE_DOCS) {
+                    return;
+                }
+            }
+            if (doc != target) {
+                // Some clause skipped ahead; all of them have to agree on a doc
+                target = doc;
+                continue;
+            }
+            if (segment.isLive(doc) && projectFilter.test(segment.projectId(doc))) {
+                double norm = K1 * (1 - B + B * segment.length(doc) / Math.max(averageLength, 1));
+                double score = 0;
+                for (ClauseScorer scorer : scorers) {
+                    score += scorer.score(norm);
+                }
+                collector.collect(segment, doc, score);
+            }
+            target = doc + 1;
+        }
+    }
+
+    private static ClauseScorer scorer(SegmentReader segment, SearchQuery.Clause clause, ToDoubleFunction<String> idf) {
+        if (clause instanceof SearchQuery.AnyTerm any) {
+            List<TermScorer> terms = new ArrayList<>();
+            for (String term : any.terms()) {
+                PostingsCursor cursor = segment.postings(term);
+                if (cursor != null) {
+                    terms.add(new TermScorer(cursor, idf.applyAsDouble(term)));
+                }
+            }
+            if (terms.isEmpty()) {
+                return null;
+            }
+            return terms.size() == 1 ? terms.get(0) : new AnyScorer(terms);
+        }
+        if (clause instanceof SearchQuery.Phrase phrase) {
+            List<PostingsCursor> cursors = new ArrayList<>();
+            double phraseIdf = 0;
+            for (String term : phrase.terms()) {
+                PostingsCursor cursor = segment.postings(term);
+                if (cursor == null) {
+                    return null;
+                }
+                cursors.add(cursor);
+                phraseIdf += idf.applyAsDouble(term);
+            }
+            return new PhraseScorer(cursors, phraseIdf);
+        }
+        throw new IllegalStateException("Unexpanded clause " + clause);
+    }
+
+    private static double bm25(double idf, int freq, double norm) {
+        return idf * freq * (K1 + 1) / (freq + norm);
+    }
+
+    private abstract static class ClauseScorer {
+
+        // The first matching doc at or after target
+        abstract int advance(int target);
+
+        // Score of the doc advance last returned
+        abstract double score(double norm);
+    }
+
+    private static final class TermScorer extends ClauseScorer {
+
+        private final PostingsCursor cursor;
+        private final double idf;
+
+        TermScorer(PostingsCursor cursor, double idf) {
+            this.cursor = cursor;
+            this.idf = idf;
+        }
+
+        @Override
+        int advance(int target) {
+            return cursor.advance(target);
+        }
+
+        @Override
+        double score(double norm) {
+            return bm25(idf, cursor.weightedFreq(), norm);
+        }
+    }
+
+    // Prefix matches: the doc scores for every expansion it contains
+    private static final class AnyScorer extends ClauseScorer {
+
+        private final List<TermScorer> terms;
+        private int doc = -1;
+
+        AnyScorer(List<TermScorer> terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        int advance(int target) {
+            doc = PostingsCursor.NO_MORE_DOCS;
+            for (TermScorer term : terms) {
+                doc = Math.min(doc, term.advance(target));
+            }
+            return doc;
+        }
+
+        @Override
+        double score(double norm) {
+            double score = 0;
+            for (TermScorer term : terms) {
+                if (term.cursor.doc() == doc) {
+                    score += term.score(norm);
+                }
+            }
+            return score;
+        }
+    }
+
+    private static final class PhraseScorer extends ClauseScorer {
+
+        private final List<PostingsCursor> cursors;
+        private final double idf;
+        private int doc = -1;
+        private int freq;
+
+        PhraseScorer(List<PostingsCursor> cursors, double idf) {
+            this.cursors = cursors;
+            this.idf = idf;
+        }
+
+        @Override
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            while (true) {
+                doc = allTerms(target);
+                if (doc == PostingsCursor.NO_MORE_DOCS) {
+                    return doc;
+                }
+                freq = phraseFreq();
+                if (freq > 0) {
+                    return doc;
+                }
+                target = doc + 1;
+            }
+        }
+
+        @Override
+        double score(double norm) {
+            return bm25(idf, freq, norm);
+        }
+
+        // The first doc at or after target that has every term
+        private int allTerms(int target) {
+            int candidate = target;
+            int agreed = 0;
+            while (agreed < cursors.size()) {
+                agreed = 0;
+                for (PostingsCursor cursor : cursors) {
+                    int found = cursor.advance(candidate);
+                    if (found == PostingsCursor.NO_MORE_DOCS) {
+                        return found;
+                    }
+                    if (found != candidate) {
+                        candidate = found;
+                        break;
+                    }
+                    agreed++;
+                }
+            }
+            return candidate;
+        }
+
+        private int phraseFreq() {
+            PostingsCursor first = cursors.get(0);
+            int freq = 0;
+            for (int i = 0; i < first.freq(); i++) {
+                int start = first.position(i);
+                boolean match = true;
+                for (int k = 1; k < cursors.size() && match; k++) {
+                    match = cursors.get(k).hasPosition(start + k);
+                }
+                if (match) {
+                    freq += SearchAnalyzer.weight(start);
+                }
+            }
+            return freq;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.issuetracker.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Global cap on requests in flight that follows database latency (AIMD). Each
+// finished request reports the mean latency of its SQL statements, which feeds
+// two moving averages: a recent one (about the last SHORT_WINDOW requests) and
+// the baseline (about the last LONG_WINDOW). Endpoints differ in latency, so
+// the baseline is the typical latency of the traffic mix rather than its
+// fastest request, and one slow request cannot trip the limiter on its own.
+//  - recent above tolerance x baseline: the database is queueing, shrink the
+//    limit by 10% (at most once per BACKOFF_INTERVAL so one burst does not
+//    collapse it)
+//  - otherwise, while at least half of the limit is in use, grow it by one
+// The baseline keeps moving, so it adapts when the data grows.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+    private static final long BACKOFF_INTERVAL_NANOS = 100_000_000L;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object averagesLock = new Object();
+    private long samples;
+    private double recentNanos;
+    private double baselineNanos;
+    private final AtomicLong lastBackoffAt = new AtomicLong(System.nanoTime() - BACKOFF_INTERVAL_NANOS);
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int initialLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(initialLimit, maxLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // sampleNanos: mean statement latency of the finished request, 0 if it ran no SQL
+    public void release(long sampleNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (sampleNanos <= 0) {
+            return;
+        }
+        boolean queueing;
+        synchronized (averagesLock) {
+            // Plain means until a window is full, so the first requests do not skew either
+            samples++;
+            recentNanos += (sampleNanos - recentNanos) / Math.min(samples, SHORT_WINDOW);
+            baselineNanos += (sampleNanos - baselineNanos) / Math.min(samples, LONG_WINDOW);
+            queueing = recentNanos > baselineNanos * tolerance;
+        }
+        if (queueing) {
+            long now = System.nanoTime();
+            long last = lastBackoffAt.get();
+            if (now - last >= BACKOFF_INTERVAL_NANOS && lastBackoffAt.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF)));
+            }
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getBaselineNanos() {
+        synchronized (averagesLock) {
+            return (long) baselineNanos;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.dto.BatchOperation;
+import com.issuetracker.dto.BatchRequest;
+import com.issuetracker.monitoring.SqlStatementStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Runs right after JwtAuthenticationFilter:
+//  1. Rate limits per user (per client address for /api/auth and anonymous calls)
+//     with separate read, write and auth budgets; over budget is 429 + Retry-After.
+//     A POST /api/batch costs one token per operation: its reads from the read
+//     budget, its writes from the write budget, and it spends neither unless
+//     both admit it.
+//  2. Admits the request against the global AdaptiveConcurrencyLimiter, which
+//     sheds load (503) when database latency rises. Async requests hold their
+//     slot until the response is complete.
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String[] EXEMPT_PATHS = { "/api/health", "/health", "/actuator/", "/ws", "/error" };
+
+    private enum Budget { READ, WRITE, AUTH }
+
+    private static final String BATCH_PATH = "/api/batch";
+    private static final Set<BatchOperation.Op> READ_OPS =
+            EnumSet.of(BatchOperation.Op.GET_ISSUES, BatchOperation.Op.GET_PROJECT);
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final TokenBucketRateLimiter[] limiters = new TokenBucketRateLimiter[Budget.values().length];
+    private final Counter[] rateLimited = new Counter[Budget.values().length];
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter shed;
+
+    public AdmissionControlFilter(@Value("${app.admission.enabled:true}") boolean enabled,
+                                  @Value("${app.admission.read.per-second:20}") double readRate,
+                                  @Value("${app.admission.read.burst:40}") int readBurst,
+                                  @Value("${app.admission.write.per-second:5}") double writeRate,
+                                  @Value("${app.admission.write.burst:20}") int writeBurst,
+                                  @Value("${app.admission.auth.per-second:1}") double authRate,
+                                  @Value("${app.admission.auth.burst:5}") int authBurst,
+                                  @Value("${app.admission.concurrency.min:10}") int minConcurrency,
+                                  @Value("${app.admission.concurrency.initial:50}") int initialConcurrency,
+                                  @Value("${app.admission.concurrency.max:200}") int maxConcurrency,
+                                  @Value("${app.admission.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                  MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        limiters[Budget.READ.ordinal()] = new TokenBucketRateLimiter(readRate, readBurst);
+        limiters[Budget.WRITE.ordinal()] = new TokenBucketRateLimiter(writeRate, writeBurst);
+        limiters[Budget.AUTH.ordinal()] = new TokenBucketRateLimiter(authRate, authBurst);
+        for (Budget budget : Budget.values()) {
+            rateLimited[budget.ordinal()] = Counter.builder("admission.rate_limited")
+                    .tag("budget", budget.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                minConcurrency, initialConcurrency, maxConcurrency, latencyTolerance);
+        this.shed = Counter.builder("admission.shed").register(meterRegistry);
+        Gauge.builder("admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("admission.db_latency.baseline", concurrencyLimiter, l -> l.getBaselineNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String exempt : EXEMPT_PATHS) {
+            if (path.startsWith(exempt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Budget budget = budgetOf(request);
+        String key = keyOf(request, budget);
+        if (budget == Budget.WRITE && request.getRequestURI().equals(BATCH_PATH)) {
+            byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+            request = new CachedBodyRequest(request, body);
+            BatchCost cost = batchCost(body);
+            if (!admit(response, Budget.WRITE, key, cost.writes())) {
+                return;
+            }
+            // A batch turned away by the read budget has not spent its writes
+            if (!admit(response, Budget.READ, key, cost.reads())) {
+                limiters[Budget.WRITE.ordinal()].refund(key, cost.writes());
+                return;
+            }
+        } else if (!admit(response, budget, key, 1)) {
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, "Server is overloaded, retry shortly");
+            return;
+        }
+        SqlStatementStats stats = SqlStatementStats.current();
+        boolean releaseLater = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(stats));
+                releaseLater = true;
+            }
+        } finally {
+            if (!releaseLater) {
+                concurrencyLimiter.release(latencySample(stats));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        for (TokenBucketRateLimiter limiter : limiters) {
+            limiter.evictIdle();
+        }
+    }
+
+    private boolean admit(HttpServletResponse response, Budget budget, String key, int tokens) throws IOException {
+        if (tokens == 0) {
+            return true;
+        }
+        long waitNanos = limiters[budget.ordinal()].tryAcquire(key, tokens);
+        if (waitNanos > 0) {
+            rateLimited[budget.ordinal()].increment();
+            reject(response, 429, (waitNanos + 999_999_999) / 1_000_000_000, "Rate limit exceeded");
+            return false;
+        }
+        return true;
+    }
+
+    // Read and write operations of a batch, counted up to the batch limit. A body
+    // that does not parse (the controller rejects it) costs one write, like any POST.
+    private BatchCost batchCost(byte[] body) {
+        int reads = 0;
+        int writes = 0;
+        try {
+            for (JsonNode operation : objectMapper.readTree(body).path("operations")) {
+                if (reads + writes == BatchRequest.MAX_OPERATIONS) {
+                    break;
+                }
+                if (isRead(operation.path("op").asText())) {
+                    reads++;
+                } else {
+                    writes++;
+                }
+            }
+        } catch (IOException e) {
+            return new BatchCost(0, 1);
+        }
+        return reads + writes == 0 ? new BatchCost(0, 1) : new BatchCost(reads, writes);
+    }
+
+    private static boolean isRead(String op) {
+        try {
+            return READ_OPS.contains(BatchOperation.Op.valueOf(op));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Budget budgetOf(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return Budget.AUTH;
+        }
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS") ? Budget.READ : Budget.WRITE;
+    }
+
+    // The authenticated user (e-mail, one per user id); the client address otherwise
+    private static String keyOf(HttpServletRequest request, Budget budget) {
+        if (budget != Budget.AUTH) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return authentication.getName();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static long latencySample(SqlStatementStats stats) {
+        return stats == null || stats.getStatements() == 0 ? 0 : stats.getElapsedNanos() / stats.getStatements();
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader("Retry-After", Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private record BatchCost(int reads, int writes) {
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+        private final SqlStatementStats stats;
+
+        ReleaseOnComplete(SqlStatementStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrencyLimiter.release(latencySample(stats));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -6,22 +6,37 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.ArrayList;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final TransactionTemplate replicaRead;
+    private final TransactionTemplate primaryRead;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.replicaRead = new TransactionTemplate(transactionManager);
+        this.replicaRead.setReadOnly(true);
+        // Read-write transactions go to the primary when replicas are configured
+        this.primaryRead = new TransactionTemplate(transactionManager);
     }
 
     
     
+    // Looked up on a replica; a user who signed up moments ago may not have
+    // reached it yet, so a miss is retried on the primary
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        User user = replicaRead.execute(status -> userRepository.findByEmail(email).orElse(null));
+        if (user == null) {
+            user = primaryRead.execute(status -> userRepository.findByEmail(email).orElse(null));
+        }
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }
         
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
@@ -1,5 +1,6 @@
 package com.issuetracker.security;
 
+import com.issuetracker.monitoring.RequestTrace;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -29,6 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         "/api/health",
         "/health",
         "/ws",
+        "/actuator/health",
+        "/actuator/prometheus",
         "/error"
     );
 
@@ -48,6 +51,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.AUTH)) {
+            authenticate(request);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String email = null;
@@ -74,8 +85,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private boolean isPublicEndpoint(String requestPath) {
@@ -0,0 +1,69 @@
+package com.issuetracker.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket per key in GCRA form: the whole bucket state is one long (the
+// theoretical arrival time of the next request), updated with a CAS loop, so
+// there are no locks and nothing is allocated once a key has a bucket.
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long origin = System.nanoTime();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // ratePerSecond tokens are added per second; up to burst can be spent at once
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    // 0 when a token was taken, otherwise nanoseconds until the next one is available
+    public long tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+
+    // Takes several tokens at once. A charge larger than the burst goes through
+    // on a full bucket and leaves it in debt: later requests wait until it is paid.
+    public long tryAcquire(String key, int tokens) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        long cost = intervalNanos * tokens;
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long wait = start + Math.min(cost, burstNanos) - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + cost)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back tokens taken by tryAcquire when the request is turned away after
+    // all. Exact even with other charges in between: each one only moved the
+    // arrival time forward by its own cost.
+    public void refund(String key, int tokens) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos * tokens);
+        }
+    }
+
+    // Buckets that have refilled completely behave like new ones and can go. A
+    // request racing the removal may be charged to the dropped bucket, i.e. is free.
+    public void evictIdle() {
+        long now = System.nanoTime() - origin;
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
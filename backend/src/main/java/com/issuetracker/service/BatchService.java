@@ -0,0 +1,114 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.BatchOperation;
+import com.issuetracker.dto.BatchRequest;
+import com.issuetracker.dto.BatchResult;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.exception.ServiceUnavailableException;
+import com.issuetracker.sharding.ShardRouter;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the operations of POST /api/batch in order on the caller's thread, with
+// each project's membership looked up once for the whole batch. By default
+// every operation stands on its own: a failed one gets its error in its result
+// and the rest still run. An atomic batch runs in one transaction that is
+// rolled back as soon as an operation fails, answering 400 for the batch; it
+// needs an unsharded deployment, where shard work joins that transaction.
+@Service
+public class BatchService {
+
+    private final IssueService issueService;
+    private final ProjectService projectService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+
+    public BatchService(IssueService issueService, ProjectService projectService, ShardRouter shardRouter,
+                        PlatformTransactionManager transactionManager) {
+        this.issueService = issueService;
+        this.projectService = projectService;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BatchResult> execute(BatchRequest request, Long userId) {
+        try (ProjectService.RoleCache ignored = projectService.cacheRoles()) {
+            List<BatchOperation> operations = request.getOperations();
+            if (!request.isAtomic()) {
+                List<BatchResult> results = new ArrayList<>(operations.size());
+                for (BatchOperation operation : operations) {
+                    results.add(runAlone(operation, userId));
+                }
+                return results;
+            }
+
+            if (shardRouter.isSharded()) {
+                throw new RuntimeException("Atomic batches are not supported on a sharded deployment");
+            }
+            return transaction.execute(status -> {
+                List<BatchResult> results = new ArrayList<>(operations.size());
+                for (int i = 0; i < operations.size(); i++) {
+                    try {
+                        results.add(run(operations.get(i), userId));
+                    } catch (ServiceUnavailableException | TransientDataAccessException | CannotCreateTransactionException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        throw new RuntimeException("Operation " + i + " failed, nothing was changed: " + e.getMessage());
+                    }
+                }
+                return results;
+            });
+        }
+    }
+
+    private BatchResult runAlone(BatchOperation operation, Long userId) {
+        try {
+            return run(operation, userId);
+        } catch (ServiceUnavailableException | TransientDataAccessException | CannotCreateTransactionException e) {
+            // Worth a retry, like the 503 the operation's own endpoint would give
+            return new BatchResult(503, null, e instanceof ServiceUnavailableException
+                    ? e.getMessage() : "Database unavailable, retry shortly");
+        } catch (RuntimeException e) {
+            return new BatchResult(400, null, e.getMessage());
+        }
+    }
+
+    private BatchResult run(BatchOperation operation, Long userId) {
+        return switch (operation.getOp()) {
+            case GET_ISSUES -> {
+                if (operation.getIds() == null || operation.getIds().isEmpty()) {
+                    throw new RuntimeException("GET_ISSUES needs ids");
+                }
+                yield new BatchResult(200, issueService.getIssuesByIds(operation.getIds(), userId), null);
+            }
+            case GET_PROJECT -> new BatchResult(200, projectService.getProject(requireId(operation), userId), null);
+            case CREATE_ISSUE -> new BatchResult(200, issueService.createIssue(requireIssue(operation), userId), null);
+            case UPDATE_ISSUE -> new BatchResult(200,
+                    issueService.updateIssue(requireId(operation), requireIssue(operation), userId), null);
+            case DELETE_ISSUE -> {
+                issueService.deleteIssue(requireId(operation), userId);
+                yield new BatchResult(204, null, null);
+            }
+        };
+    }
+
+    private static Long requireId(BatchOperation operation) {
+        if (operation.getId() == null) {
+            throw new RuntimeException(operation.getOp() + " needs an id");
+        }
+        return operation.getId();
+    }
+
+    private static IssueRequest requireIssue(BatchOperation operation) {
+        if (operation.getIssue() == null) {
+            throw new RuntimeException(operation.getOp() + " needs an issue");
+        }
+        return operation.getIssue();
+    }
+}
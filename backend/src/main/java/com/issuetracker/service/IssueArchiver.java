@@ -0,0 +1,135 @@
+package com.issuetracker.service;
+
+import com.issuetracker.async.SingleFlight;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Project;
+import com.issuetracker.repository.ArchivedIssueRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.ProjectRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Moves issues that have been CLOSED for longer than their project's retention
+// from issues into archived_issues, so list and search queries only scan live
+// work. Batches run on the project's shard under the same directory lock as
+// issue writes, so they never overlap a shard move.
+@Component
+public class IssueArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IssueArchiver.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final ProjectRepository projectRepository;
+    private final IssueRepository issueRepository;
+    private final ArchivedIssueRepository archivedIssueRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final TransactionTemplate directoryTransaction;
+    private final SingleFlight singleFlight;
+    private final SavedFilterIndex savedFilterIndex;
+    private final SearchIndexer searchIndexer;
+    private final SuggestService suggestService;
+    private final int defaultRetentionDays;
+
+    public IssueArchiver(ProjectRepository projectRepository, IssueRepository issueRepository,
+                         ArchivedIssueRepository archivedIssueRepository, ShardRouter shardRouter,
+                         ShardTransactions shardTransactions, PlatformTransactionManager transactionManager,
+                         SingleFlight singleFlight, SavedFilterIndex savedFilterIndex, SearchIndexer searchIndexer,
+                         SuggestService suggestService,
+                         @Value("${app.archive.retention-days:90}") int defaultRetentionDays) {
+        this.projectRepository = projectRepository;
+        this.issueRepository = issueRepository;
+        this.archivedIssueRepository = archivedIssueRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.directoryTransaction = new TransactionTemplate(transactionManager);
+        this.singleFlight = singleFlight;
+        this.savedFilterIndex = savedFilterIndex;
+        this.searchIndexer = searchIndexer;
+        this.suggestService = suggestService;
+        this.defaultRetentionDays = defaultRetentionDays;
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.interval-ms:3600000}", fixedDelayString = "${app.archive.interval-ms:3600000}")
+    public void archiveAll() {
+        // Only projects with issues closed before the shortest retention in use
+        Integer shortest = projectRepository.findShortestArchiveAfterDays();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(
+                shortest != null ? Math.min(shortest, defaultRetentionDays) : defaultRetentionDays);
+        Set<Long> candidates = new TreeSet<>();
+        shardTransactions.onAllShards(true, shardId -> issueRepository.findProjectIdsClosedBefore(cutoff))
+                .forEach(candidates::addAll);
+
+        int archived = 0;
+        for (Project project : projectRepository.findAllById(candidates)) {
+            int retentionDays = project.getArchiveAfterDays() != null ? project.getArchiveAfterDays() : defaultRetentionDays;
+            try {
+                archived += archiveProject(project.getId(), retentionDays);
+            } catch (RuntimeException e) {
+                log.warn("Archiving issues of project {} failed: {}", project.getId(), e.getMessage());
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} closed issues", archived);
+        }
+    }
+
+    public int archiveProject(Long projectId, int retentionDays) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = directoryTransaction.execute(status -> {
+                int shardId = shardRouter.lockForWrite(projectId);
+                singleFlight.invalidateAfterCommit(projectId);
+                List<Long> ids = shardTransactions.inShard(shardId, false, () -> archiveBatch(projectId, cutoff));
+                savedFilterIndex.issuesArchived(projectId, ids);
+                searchIndexer.removeAfterCommit(ids);
+                suggestService.issuesRemovedAfterCommit(projectId, ids);
+                return ids.size();
+            });
+            total += moved;
+        } while (moved == BATCH_SIZE);
+        return total;
+    }
+
+    // Moves an archived issue back into issues; caller runs in the issue's shard transaction
+    Issue restore(Long issueId) {
+        List<Long> ids = List.of(issueId);
+        if (issueRepository.copyFromArchive(ids) == 0) {
+            throw new RuntimeException("Issue not found");
+        }
+        issueRepository.copyTagsFromArchive(ids);
+        archivedIssueRepository.deleteTagRows(ids);
+        archivedIssueRepository.deleteRows(ids);
+        return issueRepository.findById(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+    }
+
+    private List<Long> archiveBatch(Long projectId, LocalDateTime cutoff) {
+        List<Long> ids = issueRepository.findArchivable(projectId, cutoff, PageRequest.of(0, BATCH_SIZE)).stream()
+                .map(Issue::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        archivedIssueRepository.copyFromIssues(ids, LocalDateTime.now());
+        archivedIssueRepository.copyTagsFromIssues(ids);
+        issueRepository.deleteTagRows(ids);
+        issueRepository.deleteRows(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,189 @@
+package com.issuetracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.model.IssueHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Local append-only log of history entries that are not in the database yet,
+// one JSON line per entry in numbered segment files. IssueHistoryWriter seals
+// the current segment when it takes a batch and deletes sealed segments once
+// the batch is committed; whatever is left after a crash is replayed on start.
+// Appends only write to the page cache; sync() is a group commit, one fsync
+// covering every append made before it started, so concurrent writers share it.
+@Component
+public class IssueHistoryJournal implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IssueHistoryJournal.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("history-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    // Lock order: syncLock, then this
+    private final Object syncLock = new Object();
+    private FileChannel current;
+    private long currentSegment;
+    // Appends so far (under this) and how many of them are on disk (under syncLock)
+    private long appended;
+    private long synced;
+
+    public IssueHistoryJournal(ObjectMapper objectMapper,
+                               @Value("${app.history.journal-dir:data/history-journal}") Path directory,
+                               @Value("${app.history.journal-fsync:true}") boolean fsync) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        this.currentSegment = segments().isEmpty() ? 1 : segments().lastKey() + 1;
+        this.current = open(currentSegment);
+    }
+
+    public byte[] encode(List<IssueHistory> entries) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (IssueHistory entry : entries) {
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not encode issue history entries", e);
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Returns the append's position for sync()
+    public synchronized long append(byte[] lines) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines);
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            return ++appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write issue history journal", e);
+        }
+    }
+
+    // Returns once the append at position is on disk
+    public void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            FileChannel channel;
+            long through;
+            synchronized (this) {
+                channel = current;
+                through = appended;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync issue history journal", e);
+            }
+            synced = through;
+        }
+    }
+
+    // Starts a new segment; returns the number of the last sealed one
+    public long seal() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    // Waiting sync() calls go to the new segment, so this one must be on disk first
+                    if (fsync) {
+                        current.force(false);
+                    }
+                    synced = appended;
+                    current.close();
+                    current = open(++currentSegment);
+                    return currentSegment - 1;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not rotate issue history journal", e);
+                }
+            }
+        }
+    }
+
+    public List<IssueHistory> readSealed(long throughSegment) {
+        List<IssueHistory> entries = new ArrayList<>();
+        for (Path segment : segments().headMap(throughSegment, true).values()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // A crash or a failed append can leave a line half-written
+                    try {
+                        entries.add(objectMapper.readValue(line, IssueHistory.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping a damaged line in issue history journal {}", segment);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read issue history journal " + segment, e);
+            }
+        }
+        return entries;
+    }
+
+    public void deleteSealed(long throughSegment) {
+        for (Path segment : segments().headMap(throughSegment, true).values()) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete issue history journal " + segment, e);
+            }
+        }
+    }
+
+    public synchronized boolean hasSealedSegments() {
+        return segments().firstKey() < currentSegment;
+    }
+
+    private TreeMap<Long, Path> segments() {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list issue history journal", e);
+        }
+        return segments;
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(directory.resolve("history-" + segment + ".log"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        current.close();
+    }
+}
@@ -0,0 +1,225 @@
+package com.issuetracker.service;
+
+import com.issuetracker.model.IssueHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Write-behind for issue history: entries of a committed issue write are
+// appended to the local journal and buffered in memory, and a background flush
+// inserts the buffer in JDBC batches, so the request pays for a file append
+// instead of an insert. When the buffer is full (or a flush failed) entries
+// stay in the journal only and the next flush reads them back from there; the
+// same path replays what a crashed node left in its journal. History lives in
+// the directory database, so project moves between shards don't touch it.
+// record() runs after the issue write committed, so it never fails the request:
+// if the journal can't be written the entries are only buffered and are lost
+// if the node crashes before the next flush.
+@Component
+public class IssueHistoryWriter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IssueHistoryWriter.class);
+    private static final String INSERT = "INSERT INTO issue_history (event_id, issue_id, project_id, field_name, " +
+            "old_value, new_value, changed_by, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final IssueHistoryJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final int capacity;
+    private final int batchSize;
+    private final Counter spilled;
+    private final Counter journalFailures;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object bufferLock = new Object();
+    private List<IssueHistory> buffer = new ArrayList<>();
+    // Entries whose journal append failed; flushed along with the next batch
+    private List<IssueHistory> unjournaled = new ArrayList<>();
+    // Set when the journal holds entries the buffer doesn't; read under bufferLock
+    private boolean replayJournal;
+
+    public IssueHistoryWriter(IssueHistoryJournal journal, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${app.history.buffer-capacity:10000}") int capacity,
+                              @Value("${app.history.batch-size:500}") int batchSize) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.replayJournal = journal.hasSealedSegments();
+
+        Gauge.builder("issue_history.buffered", this, writer -> writer.buffered())
+                .register(meterRegistry);
+        this.spilled = Counter.builder("issue_history.spilled")
+                .description("History entries left to the journal because the buffer was full")
+                .register(meterRegistry);
+        this.journalFailures = Counter.builder("issue_history.journal_failures")
+                .description("Journal appends or syncs that failed; their entries were only buffered")
+                .register(meterRegistry);
+    }
+
+    // Call inside the writing transaction; the entries are queued once it commits
+    public void recordAfterCommit(List<IssueHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(entries);
+            }
+        });
+    }
+
+    public void record(List<IssueHistory> entries) {
+        byte[] lines = null;
+        try {
+            lines = journal.encode(entries);
+        } catch (RuntimeException e) {
+            journalFailed(entries, e);
+        }
+        long position = -1;
+        synchronized (bufferLock) {
+            if (lines != null) {
+                try {
+                    position = journal.append(lines);
+                } catch (RuntimeException e) {
+                    journalFailed(entries, e);
+                }
+            }
+            if (buffer.size() + unjournaled.size() + entries.size() > capacity) {
+                if (position < 0) {
+                    log.error("Dropped {} issue history entries: the journal failed and the buffer is full",
+                            entries.size());
+                    return;
+                }
+                replayJournal = true;
+                spilled.increment(entries.size());
+            } else if (position < 0) {
+                unjournaled.addAll(entries);
+            } else {
+                buffer.addAll(entries);
+            }
+        }
+        if (position >= 0) {
+            // Outside bufferLock: concurrent writers wait for one fsync together
+            try {
+                journal.sync(position);
+            } catch (RuntimeException e) {
+                journalFailed(entries, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.history.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<IssueHistory> batch;
+            List<IssueHistory> orphans;
+            boolean replay;
+            long sealed;
+            synchronized (bufferLock) {
+                if (buffer.isEmpty() && unjournaled.isEmpty() && !replayJournal) {
+                    return;
+                }
+                // Before taking the buffer: if rotating fails, the entries stay where they are
+                sealed = journal.seal();
+                batch = buffer;
+                buffer = new ArrayList<>();
+                orphans = unjournaled;
+                unjournaled = new ArrayList<>();
+                replay = replayJournal;
+                replayJournal = false;
+            }
+
+            try {
+                // The journal has everything the buffer has, and may hold entries a
+                // previous attempt already inserted
+                List<IssueHistory> pending = new ArrayList<>(replay ? journal.readSealed(sealed) : batch);
+                pending.addAll(orphans);
+                insert(replay ? withoutInserted(pending) : pending);
+                journal.deleteSealed(sealed);
+            } catch (RuntimeException e) {
+                synchronized (bufferLock) {
+                    replayJournal = true;
+                    unjournaled.addAll(0, orphans);
+                }
+                log.warn("Flushing {} issue history entries failed, retrying from the journal: {}",
+                        batch.size(), e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insert(List<IssueHistory> entries) {
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<IssueHistory> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            flushTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, chunk.stream()
+                    .map(entry -> new Object[] {
+                            entry.getEventId(), entry.getIssueId(), entry.getProjectId(), entry.getFieldName(),
+                            entry.getOldValue(), entry.getNewValue(), entry.getChangedBy(),
+                            Timestamp.valueOf(entry.getChangedAt())})
+                    .collect(Collectors.toList())));
+        }
+    }
+
+    private List<IssueHistory> withoutInserted(List<IssueHistory> entries) {
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<String> eventIds = entries.subList(from, Math.min(from + batchSize, entries.size())).stream()
+                    .map(IssueHistory::getEventId)
+                    .collect(Collectors.toList());
+            inserted.addAll(jdbcTemplate.queryForList("SELECT event_id FROM issue_history WHERE event_id IN ("
+                    + String.join(", ", Collections.nCopies(eventIds.size(), "?")) + ")",
+                    String.class, eventIds.toArray()));
+        }
+        // Also drops repeats: an entry whose append failed halfway can be in the journal and in memory
+        return entries.stream()
+                .filter(entry -> inserted.add(entry.getEventId()))
+                .collect(Collectors.toList());
+    }
+
+    private void journalFailed(List<IssueHistory> entries, RuntimeException e) {
+        journalFailures.increment();
+        log.warn("Journaling {} issue history entries failed: {}", entries.size(), e.getMessage());
+    }
+
+    private int buffered() {
+        synchronized (bufferLock) {
+            return buffer.size() + unjournaled.size();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,122 @@
+package com.issuetracker.service;
+
+import com.issuetracker.model.ProjectIssueCounter;
+import com.issuetracker.repository.ArchivedIssueRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.ProjectIssueCounterRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-project issue numbers. Each node reserves a block of app.issue-keys.block-size
+// numbers by moving the project's counter row forward in a short transaction of
+// its own, then hands them out from memory with an atomic increment; the row
+// lock is only taken once per block, so concurrent creates in a busy project
+// don't queue on it. Numbers left in a block when the node stops are skipped.
+@Component
+public class IssueNumberAllocator {
+
+    private final ProjectIssueCounterRepository counterRepository;
+    private final IssueRepository issueRepository;
+    private final ArchivedIssueRepository archivedIssueRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final TransactionTemplate reserveTransaction;
+    private final int blockSize;
+    private final ConcurrentHashMap<Long, ProjectNumbers> projects = new ConcurrentHashMap<>();
+
+    public IssueNumberAllocator(ProjectIssueCounterRepository counterRepository, IssueRepository issueRepository,
+                                ArchivedIssueRepository archivedIssueRepository, ShardRouter shardRouter,
+                                ShardTransactions shardTransactions, PlatformTransactionManager transactionManager,
+                                @Value("${app.issue-keys.block-size:50}") int blockSize) {
+        this.counterRepository = counterRepository;
+        this.issueRepository = issueRepository;
+        this.archivedIssueRepository = archivedIssueRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    // Call on the directory (outside ShardTransactions work)
+    public long next(Long projectId) {
+        ProjectNumbers numbers = projects.computeIfAbsent(projectId, id -> new ProjectNumbers());
+        while (true) {
+            Block block = numbers.block;
+            long number = block.next.getAndIncrement();
+            if (number < block.end) {
+                return number;
+            }
+            synchronized (numbers) {
+                if (numbers.block == block) {
+                    numbers.block = reserve(projectId);
+                }
+            }
+        }
+    }
+
+    // New projects start at 1
+    public void initialize(Long projectId) {
+        ProjectIssueCounter counter = new ProjectIssueCounter();
+        counter.setProjectId(projectId);
+        counter.setNextNumber(1L);
+        counterRepository.save(counter);
+    }
+
+    private Block reserve(Long projectId) {
+        try {
+            return reserveTransaction.execute(status -> reserveBlock(projectId));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the missing counter row first
+            return reserveTransaction.execute(status -> reserveBlock(projectId));
+        }
+    }
+
+    private Block reserveBlock(Long projectId) {
+        ProjectIssueCounter counter = counterRepository.findForUpdate(projectId)
+                .orElseGet(() -> seed(projectId));
+        long start = counter.getNextNumber();
+        counter.setNextNumber(start + blockSize);
+        counterRepository.saveAndFlush(counter);
+        return new Block(start, start + blockSize);
+    }
+
+    // Projects from before issue keys have no counter row yet; they continue
+    // after the highest number their issues were given by the migration
+    private ProjectIssueCounter seed(Long projectId) {
+        long max = shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> Math.max(
+                orZero(issueRepository.findMaxNumber(projectId)),
+                orZero(archivedIssueRepository.findMaxNumber(projectId))));
+        ProjectIssueCounter counter = new ProjectIssueCounter();
+        counter.setProjectId(projectId);
+        counter.setNextNumber(max + 1);
+        return counter;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static final class ProjectNumbers {
+        private volatile Block block = new Block(0, 0);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
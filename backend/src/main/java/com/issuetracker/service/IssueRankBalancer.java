@@ -0,0 +1,102 @@
+package com.issuetracker.service;
+
+import com.issuetracker.async.SingleFlight;
+import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rank keys grow when issues keep being dropped on the same spot. A write that
+// produces a key longer than app.rank.rebalance-length queues its column, and
+// the column gets short, evenly spaced keys in the background, in one
+// transaction that locks its rows in rank order. Moves lock their neighbours
+// first (IssueRepository.findForPlacement), so they never mix old and new keys.
+@Component
+public class IssueRankBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(IssueRankBalancer.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final Set<Column> pending = ConcurrentHashMap.newKeySet();
+    private final IssueRepository issueRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final TransactionTemplate directoryTransaction;
+    private final JdbcTemplate jdbcTemplate;
+    private final SingleFlight singleFlight;
+    private final int rebalanceLength;
+
+    public IssueRankBalancer(IssueRepository issueRepository, ShardRouter shardRouter,
+                             ShardTransactions shardTransactions, PlatformTransactionManager transactionManager,
+                             JdbcTemplate jdbcTemplate, SingleFlight singleFlight,
+                             @Value("${app.rank.rebalance-length:32}") int rebalanceLength) {
+        this.issueRepository = issueRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.directoryTransaction = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.singleFlight = singleFlight;
+        this.rebalanceLength = rebalanceLength;
+    }
+
+    void checkLength(Long projectId, IssueStatus status, String rank) {
+        if (rank.length() > rebalanceLength) {
+            request(projectId, status);
+        }
+    }
+
+    void request(Long projectId, IssueStatus status) {
+        pending.add(new Column(projectId, status));
+    }
+
+    @Scheduled(initialDelayString = "${app.rank.rebalance-interval-ms:5000}", fixedDelayString = "${app.rank.rebalance-interval-ms:5000}")
+    public void rebalancePending() {
+        for (Column column : List.copyOf(pending)) {
+            pending.remove(column);
+            try {
+                rebalance(column.projectId(), column.status());
+            } catch (RuntimeException e) {
+                // E.g. a deadlock with a move; try again next round
+                pending.add(column);
+                log.warn("Rebalancing ranks of project {} column {} failed: {}",
+                        column.projectId(), column.status(), e.getMessage());
+            }
+        }
+    }
+
+    public int rebalance(Long projectId, IssueStatus status) {
+        return directoryTransaction.execute(tx -> {
+            int shardId = shardRouter.lockForWrite(projectId);
+            singleFlight.invalidateAfterCommit(projectId);
+            return shardTransactions.inShard(shardId, false, () -> {
+                List<Long> ids = issueRepository.lockColumn(projectId, status.name());
+                List<String> keys = RankKeys.spread(ids.size());
+                List<Object[]> rows = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    rows.add(new Object[] {keys.get(i), ids.get(i)});
+                }
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate("UPDATE issues SET issue_rank = ? WHERE id = ?",
+                            rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+                }
+                return ids.size();
+            });
+        });
+    }
+
+    private record Column(Long projectId, IssueStatus status) {
+    }
+}
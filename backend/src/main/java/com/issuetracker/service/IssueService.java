@@ -1,34 +1,103 @@
 package com.issuetracker.service;
 
+import com.issuetracker.async.SingleFlight;
+import com.issuetracker.dto.BoardColumn;
+import com.issuetracker.dto.IssueHistoryPage;
+import com.issuetracker.dto.IssueHistoryResponse;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.RankRequest;
+import com.issuetracker.exception.ServiceUnavailableException;
+import com.issuetracker.model.ArchivedIssue;
 import com.issuetracker.model.Issue;
+import com.issuetracker.model.IssueHistory;
+import com.issuetracker.model.Project;
 import com.issuetracker.model.enums.IssuePriority;
 import com.issuetracker.model.enums.IssueStatus;
 import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.monitoring.RequestTrace;
+import com.issuetracker.repository.ArchivedIssueRepository;
+import com.issuetracker.repository.IssueHistoryRepository;
 import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.ProjectRepository;
 import com.issuetracker.repository.UserRepository;
+import com.issuetracker.service.SavedFilterIndex.IssueFields;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+// Issues live on the shard of their project; permissions and project/user names
+// come from the directory. Shard work runs through ShardTransactions, everything
+// else in the method's own (directory) transaction.
 @Service
 public class IssueService {
     private final IssueRepository issueRepository;
+    private final ArchivedIssueRepository archivedIssueRepository;
+    private final IssueArchiver issueArchiver;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectService projectService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final SingleFlight singleFlight;
+    private final IssueHistoryWriter issueHistoryWriter;
+    private final IssueHistoryRepository issueHistoryRepository;
+    private final IssueNumberAllocator issueNumberAllocator;
+    private final SavedFilterIndex savedFilterIndex;
+    private final IssueRankBalancer issueRankBalancer;
+    private final SearchIndexer searchIndexer;
+    private final SuggestService suggestService;
+    private final TransactionTemplate readTransaction;
 
-    public IssueService(IssueRepository issueRepository, ProjectRepository projectRepository, UserRepository userRepository, ProjectService projectService, SimpMessagingTemplate messagingTemplate) {
+    public IssueService(IssueRepository issueRepository, ArchivedIssueRepository archivedIssueRepository, IssueArchiver issueArchiver, ProjectRepository projectRepository, UserRepository userRepository, ProjectService projectService, SimpMessagingTemplate messagingTemplate, ShardRouter shardRouter, ShardTransactions shardTransactions, SingleFlight singleFlight, IssueHistoryWriter issueHistoryWriter, IssueHistoryRepository issueHistoryRepository, IssueNumberAllocator issueNumberAllocator, SavedFilterIndex savedFilterIndex, IssueRankBalancer issueRankBalancer, SearchIndexer searchIndexer, SuggestService suggestService, PlatformTransactionManager transactionManager) {
         this.issueRepository = issueRepository;
+        this.archivedIssueRepository = archivedIssueRepository;
+        this.issueArchiver = issueArchiver;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.projectService = projectService;
         this.messagingTemplate = messagingTemplate;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.singleFlight = singleFlight;
+        this.issueHistoryWriter = issueHistoryWriter;
+        this.issueHistoryRepository = issueHistoryRepository;
+        this.issueNumberAllocator = issueNumberAllocator;
+        this.savedFilterIndex = savedFilterIndex;
+        this.issueRankBalancer = issueRankBalancer;
+        this.searchIndexer = searchIndexer;
+        this.suggestService = suggestService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
     }
 
     
@@ -44,127 +113,741 @@ public class IssueService {
             throw new RuntimeException("Access denied");
         }
         
-        Issue issue = new Issue();
-        issue.setProjectId(request.getProjectId());
-        issue.setTitle(request.getTitle());
-        issue.setDescription(request.getDescription());
-        issue.setStatus(request.getStatus() != null ? request.getStatus() : IssueStatus.OPEN);
-        issue.setPriority(request.getPriority() != null ? request.getPriority() : IssuePriority.MEDIUM);
-        issue.setAssigneeId(request.getAssigneeId());
-        issue.setTags(request.getTags());
-        
-        issue = issueRepository.save(issue);
-        
-        IssueResponse response = mapToResponse(issue);
+        int shardId = shardRouter.lockForWrite(request.getProjectId());
+        long number = issueNumberAllocator.next(request.getProjectId());
+        List<IssueHistory> changes = new ArrayList<>();
+        IssueResponse response = shardTransactions.inShard(shardId, false, () -> {
+            Issue issue = new Issue();
+            issue.setProjectId(request.getProjectId());
+            issue.setNumber(number);
+            issue.setTitle(request.getTitle());
+            issue.setDescription(request.getDescription());
+            issue.setStatus(request.getStatus() != null ? request.getStatus() : IssueStatus.OPEN);
+            issue.setPriority(request.getPriority() != null ? request.getPriority() : IssuePriority.MEDIUM);
+            issue.setAssigneeId(request.getAssigneeId());
+            issue.setTags(request.getTags());
+            // New issues go to the top of their column
+            issue.setRank(RankKeys.between(null, issueRepository.findFirstRank(issue.getProjectId(), issue.getStatus())));
+            issueRankBalancer.checkLength(issue.getProjectId(), issue.getStatus(), issue.getRank());
+            
+            issue = issueRepository.save(issue);
+            changes.addAll(diff(issue, Map.of(), historyFields(issue), userId));
+            return toResponses(List.of(issue)).get(0);
+        });
+        addNames(List.of(response));
+        savedFilterIndex.issueChanged(request.getProjectId(), response.getId(), null, IssueFields.of(response));
+        searchIndexer.indexAfterCommit(response);
+        suggestService.issueChangedAfterCommit(response);
+        singleFlight.invalidateAfterCommit(request.getProjectId());
+        issueHistoryWriter.recordAfterCommit(changes);
         
         // Send real-time update
-        messagingTemplate.convertAndSend("/topic/projects/" + issue.getProjectId() + "/issues", response);
+        publish("/topic/projects/" + response.getProjectId() + "/issues", response);
         
         return response;
     }
     
+    // Not transactional, like getBoard: callers waiting on a shared load must
+    // not hold a connection meanwhile, so only the load runs in a transaction
     public Page<IssueResponse> getIssues(Long projectId, IssueStatus status, IssuePriority priority,
-                                         Long assigneeId, String searchText, Pageable pageable, Long userId) {
+                                         Long assigneeId, String searchText, boolean includeArchived,
+                                         Pageable pageable, Long userId) {
+        // Check access
+        UserRole role = projectService.getUserRole(projectId, userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
+        }
+        
+        // Identical concurrent list requests share one query; LIKE is on lower(title)
+        // and a blank search means none, so the search text is normalized for the key
+        String searchKey = searchText == null || searchText.isEmpty() ? null : searchText.toLowerCase(Locale.ROOT);
+        List<Object> key = Arrays.asList(projectId, status, priority, assigneeId, searchKey, includeArchived, pageable);
+        return singleFlight.execute("getIssues", projectId, key, () -> readTransaction.execute(
+                tx -> loadIssues(projectId, status, priority, assigneeId, searchText, includeArchived, pageable)));
+    }
+    
+    private Page<IssueResponse> loadIssues(Long projectId, IssueStatus status, IssuePriority priority,
+                                           Long assigneeId, String searchText, boolean includeArchived,
+                                           Pageable pageable) {
+        Page<IssueResponse> page = shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> {
+            Page<Issue> issues = issueRepository.findByFilters(projectId, status, priority, assigneeId, searchText, pageable);
+            List<IssueResponse> content = toResponses(issues.getContent());
+            long total = issues.getTotalElements();
+            
+            // Only closed issues are ever archived
+            if (includeArchived && (status == null || status == IssueStatus.CLOSED)) {
+                total += addArchived(content, total, projectId, status, priority, assigneeId, searchText, pageable);
+            }
+            return new PageImpl<>(content, pageable, total);
+        });
+        addNames(page.getContent());
+        
+        return page;
+    }
+    
+    // Every status column in one round trip: a windowed query for the first ids
+    // (in rank order) and the size of each column, then one query for those
+    // issues. Archived issues are not on the board.
+    public List<BoardColumn> getBoard(Long projectId, int perColumn, Long userId) {
         // Check access
         UserRole role = projectService.getUserRole(projectId, userId);
         if (role == null) {
             throw new RuntimeException("Access denied");
         }
         
-        Page<Issue> issues = issueRepository.findByFilters(projectId, status, priority, assigneeId, searchText, pageable);
+        return singleFlight.execute("getBoard", projectId, List.of(projectId, perColumn),
+                () -> readTransaction.execute(tx -> loadBoard(projectId, perColumn)));
+    }
+    
+    private List<BoardColumn> loadBoard(Long projectId, int perColumn) {
+        List<BoardColumn> board = shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> {
+            // One row past the limit tells whether a column has more
+            Map<IssueStatus, List<IssueRepository.RankedId>> columnIds = new EnumMap<>(IssueStatus.class);
+            Map<IssueStatus, Long> totals = new EnumMap<>(IssueStatus.class);
+            for (IssueRepository.BoardSlot slot : issueRepository.findBoard(projectId, perColumn + 1)) {
+                IssueStatus status = IssueStatus.valueOf(slot.getStatus());
+                columnIds.computeIfAbsent(status, key -> new ArrayList<>()).add(slot);
+                totals.put(status, slot.getTotal());
+            }
+            
+            List<Long> shown = new ArrayList<>();
+            columnIds.values().forEach(ids -> ids.stream().limit(perColumn).forEach(id -> shown.add(id.getId())));
+            Map<Long, IssueResponse> issues = loadResponses(shown);
+            
+            List<BoardColumn> columns = new ArrayList<>();
+            for (IssueStatus status : IssueStatus.values()) {
+                columns.add(toColumn(status, columnIds.getOrDefault(status, List.of()), perColumn,
+                        totals.getOrDefault(status, 0L), issues));
+            }
+            return columns;
+        });
+        List<IssueResponse> all = new ArrayList<>();
+        board.forEach(column -> all.addAll(column.getIssues()));
+        addNames(all);
         
-        return issues.map(this::mapToResponse);
+        return board;
     }
     
+    // "Load more" of one board column, after the cursor of its last page
+    @Transactional(readOnly = true)
+    public BoardColumn getBoardColumn(Long projectId, IssueStatus status, String after, int size, Long userId) {
+        // Check access
+        UserRole role = projectService.getUserRole(projectId, userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
+        }
+        
+        // Cursors look like <rank>.<id>
+        int separator = after != null ? after.lastIndexOf('.') : -1;
+        Long afterId = separator > 0 ? parseNumber(after.substring(separator + 1)) : null;
+        if (after != null && afterId == null) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        String afterRank = afterId != null ? after.substring(0, separator) : null;
+        
+        BoardColumn column = shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> {
+            List<IssueRepository.RankedId> ids = issueRepository.findColumn(projectId, status, afterRank, afterId,
+                    PageRequest.of(0, size + 1));
+            long total = issueRepository.countByProjectIdAndStatus(projectId, status);
+            return toColumn(status, ids, size, total, loadResponses(ids.stream()
+                    .limit(size)
+                    .map(IssueRepository.RankedId::getId)
+                    .toList()));
+        });
+        addNames(column.getIssues());
+        
+        return column;
+    }
+    
+    // ids may hold one more than limit, which only sets the cursor; issues
+    // deleted since the ids were read are skipped
+    private static BoardColumn toColumn(IssueStatus status, List<IssueRepository.RankedId> ids, int limit, long total,
+                                        Map<Long, IssueResponse> issues) {
+        List<IssueRepository.RankedId> shown = ids.subList(0, Math.min(ids.size(), limit));
+        List<IssueResponse> content = shown.stream()
+                .map(id -> issues.get(id.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        IssueRepository.RankedId last = shown.isEmpty() ? null : shown.get(shown.size() - 1);
+        String nextCursor = ids.size() > limit ? last.getRank() + "." + last.getId() : null;
+        return new BoardColumn(status, total, content, nextCursor);
+    }
+    
+    private Map<Long, IssueResponse> loadResponses(List<Long> issueIds) {
+        Map<Long, IssueResponse> responses = new HashMap<>();
+        if (!issueIds.isEmpty()) {
+            toResponses(issueRepository.findAllById(issueIds))
+                    .forEach(response -> responses.put(response.getId(), response));
+        }
+        return responses;
+    }
+    
+    @Transactional(readOnly = true)
     public IssueResponse getIssue(Long issueId, Long userId) {
-        Issue issue = issueRepository.findById(issueId)
+        IssueResponse response = findIssue(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        
+        // Check access
+        UserRole role = projectService.getUserRole(response.getProjectId(), userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
+        }
+        
+        addNames(List.of(response));
+        return response;
+    }
+    
+    // Many issues by id, in the given order: one IN query per shard the ids were
+    // created on, plus one into the archive for those not found live. Issues that
+    // do not exist or whose project the user is not a member of are left out;
+    // membership is checked once per project.
+    @Transactional(readOnly = true)
+    public List<IssueResponse> getIssuesByIds(List<Long> issueIds, Long userId) {
+        Set<Long> ids = new LinkedHashSet<>(issueIds);
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        ids.forEach(issueId -> idsByShard.computeIfAbsent(shardRouter.originShardOf(issueId), shard -> new ArrayList<>())
+                .add(issueId));
+        
+        Map<Long, IssueResponse> found = new HashMap<>();
+        idsByShard.forEach((shardId, shardIssueIds) -> shardTransactions.inShard(shardId, true, () -> {
+            List<Issue> live = new ArrayList<>();
+            issueRepository.findAllById(shardIssueIds).forEach(live::add);
+            toResponses(live).forEach(response -> found.put(response.getId(), response));
+            List<Long> missing = shardIssueIds.stream().filter(issueId -> !found.containsKey(issueId)).toList();
+            if (!missing.isEmpty()) {
+                archivedIssueRepository.findAllById(missing)
+                        .forEach(issue -> found.put(issue.getId(), toArchivedResponse(issue)));
+            }
+            return null;
+        }));
+        
+        // Issues of projects moved off the shard they were created on are looked up one by one
+        if (shardRouter.isSharded()) {
+            Map<Long, Integer> shards = shardRouter.shardsOf(
+                    found.values().stream().map(IssueResponse::getProjectId).collect(Collectors.toSet()));
+            for (Long issueId : ids) {
+                IssueResponse response = found.get(issueId);
+                if (response == null || shards.get(response.getProjectId()) != shardRouter.originShardOf(issueId)) {
+                    findIssue(issueId).ifPresentOrElse(moved -> found.put(issueId, moved), () -> found.remove(issueId));
+                }
+            }
+        }
+        
+        Map<Long, Boolean> access = new HashMap<>();
+        List<IssueResponse> responses = new ArrayList<>();
+        for (Long issueId : ids) {
+            IssueResponse response = found.get(issueId);
+            if (response != null && access.computeIfAbsent(response.getProjectId(),
+                    projectId -> projectService.getUserRole(projectId, userId) != null)) {
+                responses.add(response);
+            }
+        }
+        addNames(responses);
+        return responses;
+    }
+    
+    // Keys look like API-1234: the project's key and the issue's number in it
+    @Transactional(readOnly = true)
+    public IssueResponse getIssueByKey(String key, Long userId) {
+        int separator = key.lastIndexOf('-');
+        Long number = separator > 0 ? parseNumber(key.substring(separator + 1)) : null;
+        if (number == null) {
+            throw new RuntimeException("Invalid issue key");
+        }
+        Project project = projectRepository.findByProjectKey(key.substring(0, separator).toUpperCase(Locale.ROOT))
                 .orElseThrow(() -> new RuntimeException("Issue not found"));
         
         // Check access
-        UserRole role = projectService.getUserRole(issue.getProjectId(), userId);
+        UserRole role = projectService.getUserRole(project.getId(), userId);
         if (role == null) {
             throw new RuntimeException("Access denied");
         }
         
-        return mapToResponse(issue);
+        IssueResponse response = shardTransactions.inShard(shardRouter.shardOf(project.getId()), true, () ->
+                issueRepository.findByProjectIdAndNumber(project.getId(), number).map(this::toResponse)
+                        .or(() -> archivedIssueRepository.findByProjectIdAndNumber(project.getId(), number)
+                                .map(this::toArchivedResponse)))
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        addNames(List.of(response));
+        return response;
     }
     
     @Transactional
     public IssueResponse updateIssue(Long issueId, IssueRequest request, Long userId) {
-        Issue issue = issueRepository.findById(issueId)
-                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        Long projectId = findIssue(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"))
+                .getProjectId();
         
         // Check access - at least REPORTER role required
-        UserRole role = projectService.getUserRole(issue.getProjectId(), userId);
+        UserRole role = projectService.getUserRole(projectId, userId);
         if (role == null) {
             throw new RuntimeException("Access denied");
         }
         
-        issue.setTitle(request.getTitle());
-        issue.setDescription(request.getDescription());
+        int shardId = shardRouter.lockForWrite(projectId);
+        List<IssueHistory> changes = new ArrayList<>();
+        AtomicReference<IssueFields> filterFieldsBefore = new AtomicReference<>();
+        IssueResponse response = shardTransactions.inShard(shardId, false, () -> {
+            // Updating (e.g. reopening) an archived issue moves it back first
+            Optional<Issue> live = issueRepository.findById(issueId);
+            Issue issue = live.orElseGet(() -> issueArchiver.restore(issueId));
+            Map<String, String> before = historyFields(issue);
+            // A restored issue was in no saved filter's match set
+            live.ifPresent(found -> filterFieldsBefore.set(IssueFields.of(found)));
+            
+            issue.setTitle(request.getTitle());
+            issue.setDescription(request.getDescription());
+            
+            if (request.getStatus() != null) {
+                issue.setStatus(request.getStatus());
+            }
+            if (request.getPriority() != null) {
+                issue.setPriority(request.getPriority());
+            }
+            if (request.getAssigneeId() != null) {
+                issue.setAssigneeId(request.getAssigneeId());
+            }
+            if (request.getTags() != null) {
+                issue.setTags(request.getTags());
+            }
+            
+            changes.addAll(diff(issue, before, historyFields(issue), userId));
+            // Flushed so the response (and the search index) get the new version
+            return toResponses(List.of(issueRepository.saveAndFlush(issue))).get(0);
+        });
+        addNames(List.of(response));
+        savedFilterIndex.issueChanged(projectId, issueId, filterFieldsBefore.get(), IssueFields.of(response));
+        searchIndexer.indexAfterCommit(response);
+        suggestService.issueChangedAfterCommit(response);
+        singleFlight.invalidateAfterCommit(projectId);
+        issueHistoryWriter.recordAfterCommit(changes);
+        
+        // Send real-time update
+        publish("/topic/projects/" + projectId + "/issues", response);
         
-        if (request.getStatus() != null) {
-            issue.setStatus(request.getStatus());
+        return response;
+    }
+    
+    // Drag and drop on the board. The new rank is a key between the two
+    // neighbours', so the issue's own row is the only one written; moving to
+    // another column changes the status in the same transaction.
+    @Transactional
+    public IssueResponse rankIssue(Long issueId, RankRequest request, Long userId) {
+        Long projectId = findIssue(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"))
+                .getProjectId();
+        
+        UserRole role = projectService.getUserRole(projectId, userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
         }
-        if (request.getPriority() != null) {
-            issue.setPriority(request.getPriority());
+        
+        int shardId = shardRouter.lockForWrite(projectId);
+        List<IssueHistory> changes = new ArrayList<>();
+        AtomicReference<IssueFields> filterFieldsBefore = new AtomicReference<>();
+        IssueResponse response = shardTransactions.inShard(shardId, false, () -> {
+            // Archived issues are not on the board
+            Issue issue = issueRepository.findById(issueId)
+                    .orElseThrow(() -> new RuntimeException("Issue not found"));
+            IssueStatus status = request.getStatus() != null ? request.getStatus() : issue.getStatus();
+            String rank = placement(issue, status, request.getAfterId(), request.getBeforeId());
+            
+            if (status != issue.getStatus()) {
+                Map<String, String> before = historyFields(issue);
+                filterFieldsBefore.set(IssueFields.of(issue));
+                issue.setStatus(status);
+                changes.addAll(diff(issue, before, historyFields(issue), userId));
+                issue = issueRepository.save(issue);
+            }
+            issueRepository.updateRank(issueId, rank);
+            IssueResponse moved = toResponses(List.of(issue)).get(0);
+            moved.setRank(rank);
+            return moved;
+        });
+        addNames(List.of(response));
+        if (filterFieldsBefore.get() != null) {
+            savedFilterIndex.issueChanged(projectId, issueId, filterFieldsBefore.get(), IssueFields.of(response));
         }
-        if (request.getAssigneeId() != null) {
-            issue.setAssigneeId(request.getAssigneeId());
+        singleFlight.invalidateAfterCommit(projectId);
+        issueHistoryWriter.recordAfterCommit(changes);
+        
+        // Send real-time update
+        publish("/topic/projects/" + projectId + "/issues", response);
+        
+        return response;
+    }
+    
+    // Neighbours must still be in the target column and in order; otherwise the
+    // client's board is out of date
+    private String placement(Issue issue, IssueStatus status, Long afterId, Long beforeId) {
+        List<Long> neighbourIds = new ArrayList<>();
+        if (afterId != null) {
+            neighbourIds.add(afterId);
         }
-        if (request.getTags() != null) {
-            issue.setTags(request.getTags());
+        if (beforeId != null) {
+            neighbourIds.add(beforeId);
         }
+        Map<Long, Issue> neighbours = new HashMap<>();
+        if (!neighbourIds.isEmpty()) {
+            issueRepository.findForPlacement(neighbourIds).forEach(neighbour -> neighbours.put(neighbour.getId(), neighbour));
+        }
+        String lo = neighbourRank(neighbours, afterId, issue, status);
+        String hi = neighbourRank(neighbours, beforeId, issue, status);
         
-        issue = issueRepository.save(issue);
-        
-        IssueResponse response = mapToResponse(issue);
+        // Equal keys (rare, from concurrent drops) leave no room until a rebalance
+        if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+            if (lo.equals(hi)) {
+                issueRankBalancer.request(issue.getProjectId(), status);
+            }
+            throw new RuntimeException("Board is out of date, reload the column");
+        }
+        String rank = RankKeys.between(lo, hi);
+        if (rank.length() > RankKeys.MAX_LENGTH) {
+            issueRankBalancer.request(issue.getProjectId(), status);
+            throw new ServiceUnavailableException("Column is being rebalanced, retry shortly");
+        }
+        issueRankBalancer.checkLength(issue.getProjectId(), status, rank);
+        return rank;
+    }
+    
+    private static String neighbourRank(Map<Long, Issue> neighbours, Long neighbourId, Issue issue, IssueStatus status) {
+        if (neighbourId == null) {
+            return null;
+        }
+        Issue neighbour = neighbours.get(neighbourId);
+        if (neighbour == null || neighbour.getId().equals(issue.getId())
+                || !neighbour.getProjectId().equals(issue.getProjectId()) || neighbour.getStatus() != status) {
+            throw new RuntimeException("Board is out of date, reload the column");
+        }
+        return neighbour.getRank();
+    }
+    
+    // History is written behind (IssueHistoryWriter), so the latest change can
+    // take up to app.history.flush-interval-ms to show up
+    @Transactional(readOnly = true)
+    public IssueHistoryPage getIssueHistory(Long issueId, Long before, int size, Long userId) {
+        Long projectId = findIssue(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"))
+                .getProjectId();
         
-        // Send real-time update
-        messagingTemplate.convertAndSend("/topic/projects/" + issue.getProjectId() + "/issues", response);
+        UserRole role = projectService.getUserRole(projectId, userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
+        }
         
-        return response;
+        List<IssueHistory> entries = issueHistoryRepository.findPage(issueId, before, PageRequest.of(0, size));
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            Set<Long> userIds = new HashSet<>();
+            entries.forEach(entry -> userIds.add(entry.getChangedBy()));
+            Map<Long, String> userNames = new HashMap<>();
+            if (!userIds.isEmpty()) {
+                userRepository.findAllById(userIds).forEach(user -> userNames.put(user.getId(), user.getName()));
+            }
+            
+            List<IssueHistoryResponse> responses = new ArrayList<>(entries.size());
+            for (IssueHistory entry : entries) {
+                IssueHistoryResponse response = new IssueHistoryResponse();
+                response.setId(entry.getId());
+                response.setField(entry.getFieldName());
+                response.setOldValue(entry.getOldValue());
+                response.setNewValue(entry.getNewValue());
+                response.setChangedBy(entry.getChangedBy());
+                response.setChangedByName(userNames.get(entry.getChangedBy()));
+                response.setChangedAt(entry.getChangedAt());
+                responses.add(response);
+            }
+            Long nextCursor = entries.size() == size ? entries.get(entries.size() - 1).getId() : null;
+            return new IssueHistoryPage(responses, nextCursor);
+        }
     }
     
     @Transactional
     public void deleteIssue(Long issueId, Long userId) {
-        Issue issue = issueRepository.findById(issueId)
+        IssueResponse existing = findIssue(issueId)
                 .orElseThrow(() -> new RuntimeException("Issue not found"));
+        Long projectId = existing.getProjectId();
         
         // Only OWNER or MAINTAINER can delete
-        UserRole role = projectService.getUserRole(issue.getProjectId(), userId);
+        UserRole role = projectService.getUserRole(projectId, userId);
         if (role != UserRole.OWNER && role != UserRole.MAINTAINER) {
             throw new RuntimeException("Access denied");
         }
         
-        issueRepository.deleteById(issueId);
+        int shardId = shardRouter.lockForWrite(projectId);
+        shardTransactions.inShard(shardId, false, () -> {
+            if (issueRepository.existsById(issueId)) {
+                issueRepository.deleteById(issueId);
+            } else {
+                archivedIssueRepository.deleteById(issueId);
+            }
+            return null;
+        });
+        savedFilterIndex.issueChanged(projectId, issueId, IssueFields.of(existing), null);
+        searchIndexer.removeAfterCommit(issueId, existing.getVersion());
+        suggestService.issuesRemovedAfterCommit(projectId, List.of(issueId));
+        singleFlight.invalidateAfterCommit(projectId);
         
         // Send real-time update
-        messagingTemplate.convertAndSend("/topic/projects/" + issue.getProjectId() + "/issues/deleted", issueId);
+        publish("/topic/projects/" + projectId + "/issues/deleted", issueId);
+    }
+    
+    // Looks on the shard that created the id first, then on the others in
+    // parallel. A copy found outside the project's current shard (left behind
+    // right after a move) is re-read from the current one.
+    private Optional<IssueResponse> findIssue(Long issueId) {
+        int originShard = shardRouter.originShardOf(issueId);
+        Optional<IssueResponse> found = readIssue(originShard, issueId);
+        int foundOn = originShard;
+        
+        if (found.isEmpty() && shardRouter.isSharded()) {
+            List<Optional<IssueResponse>> results = shardTransactions.onAllShards(true, shardId ->
+                    shardId == originShard ? Optional.empty() : lookup(issueId));
+            for (int shardId = 0; shardId < results.size() && found.isEmpty(); shardId++) {
+                found = results.get(shardId);
+                foundOn = shardId;
+            }
+        }
+        
+        if (found.isPresent() && shardRouter.isSharded()) {
+            int currentShard = shardRouter.shardOf(found.get().getProjectId());
+            if (currentShard != foundOn) {
+                found = readIssue(currentShard, issueId);
+            }
+        }
+        return found;
+    }
+    
+    private Optional<IssueResponse> readIssue(int shardId, Long issueId) {
+        return shardTransactions.inShard(shardId, true, () -> lookup(issueId));
+    }
+    
+    // By-id lookups fall back to the archive, so links to archived issues keep working
+    private Optional<IssueResponse> lookup(Long issueId) {
+        return issueRepository.findById(issueId).map(this::toResponse)
+                .or(() -> archivedIssueRepository.findById(issueId).map(this::toArchivedResponse));
+    }
+    
+    // Archived matches follow the live ones: a page continues into the archive once
+    // the live matches run out, each part in the requested order. Returns the
+    // number of archived matches.
+    private long addArchived(List<IssueResponse> content, long liveTotal, Long projectId, IssueStatus status,
+                             IssuePriority priority, Long assigneeId, String searchText, Pageable pageable) {
+        int remaining = pageable.getPageSize() - content.size();
+        if (remaining == 0) {
+            return archivedIssueRepository.countByFilters(projectId, status, priority, assigneeId, searchText);
+        }
+        
+        long offset = Math.max(0, pageable.getOffset() - liveTotal);
+        Page<ArchivedIssue> archived = archivedIssueRepository.findByFilters(projectId, status, priority, assigneeId,
+                searchText, new OffsetPageRequest(offset, remaining, pageable.getSort()));
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            for (ArchivedIssue issue : archived) {
+                content.add(toArchivedResponse(issue));
+            }
+        }
+        return archived.getTotalElements();
+    }
+    
+    private static Long parseNumber(String number) {
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    // Field values as history records them
+    private static Map<String, String> historyFields(Issue issue) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", issue.getTitle());
+        fields.put("description", issue.getDescription());
+        fields.put("status", issue.getStatus() != null ? issue.getStatus().name() : null);
+        fields.put("priority", issue.getPriority() != null ? issue.getPriority().name() : null);
+        fields.put("assigneeId", issue.getAssigneeId() != null ? issue.getAssigneeId().toString() : null);
+        fields.put("tags", issue.getTags() != null && !issue.getTags().isEmpty() ? String.join(",", issue.getTags()) : null);
+        return fields;
+    }
+    
+    private static List<IssueHistory> diff(Issue issue, Map<String, String> before, Map<String, String> after, Long userId) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<IssueHistory> changes = new ArrayList<>();
+        for (Map.Entry<String, String> field : after.entrySet()) {
+            String oldValue = before.get(field.getKey());
+            if (Objects.equals(oldValue, field.getValue())) {
+                continue;
+            }
+            IssueHistory change = new IssueHistory();
+            change.setEventId(UUID.randomUUID().toString());
+            change.setIssueId(issue.getId());
+            change.setProjectId(issue.getProjectId());
+            change.setFieldName(field.getKey());
+            change.setOldValue(oldValue);
+            change.setNewValue(field.getValue());
+            change.setChangedBy(userId);
+            change.setChangedAt(changedAt);
+            changes.add(change);
+        }
+        return changes;
+    }
+    
+    // Live issues of a project by id, in the given order; ids no longer live are skipped
+    List<IssueResponse> getLiveIssues(Long projectId, List<Long> issueIds) {
+        List<IssueResponse> responses = shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> {
+            Map<Long, Issue> issues = new HashMap<>();
+            issueRepository.findAllById(issueIds).forEach(issue -> issues.put(issue.getId(), issue));
+            return toResponses(issueIds.stream()
+                    .map(issues::get)
+                    .filter(Objects::nonNull)
+                    .toList());
+        });
+        addNames(responses);
+        return responses;
     }
     
-    private IssueResponse mapToResponse(Issue issue) {
+    // Live issues of any projects (issue id -> project id), by id; one query per shard
+    Map<Long, IssueResponse> getLiveIssues(Map<Long, Long> projectByIssue) {
+        Map<Long, Integer> shards = shardRouter.shardsOf(projectByIssue.values());
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        projectByIssue.forEach((issueId, projectId) ->
+                idsByShard.computeIfAbsent(shards.get(projectId), shard -> new ArrayList<>()).add(issueId));
+        
+        List<IssueResponse> responses = new ArrayList<>();
+        idsByShard.forEach((shardId, issueIds) -> responses.addAll(shardTransactions.inShard(shardId, true, () -> {
+            List<Issue> issues = new ArrayList<>();
+            issueRepository.findAllById(issueIds).forEach(issues::add);
+            return toResponses(issues);
+        })));
+        addNames(responses);
+        Map<Long, IssueResponse> byId = new HashMap<>();
+        responses.forEach(response -> byId.put(response.getId(), response));
+        return byId;
+    }
+    
+    IssueResponse mapToResponse(Issue issue) {
+        return mapToResponses(List.of(issue)).get(0);
+    }
+    
+    List<IssueResponse> mapToResponses(List<Issue> issues) {
+        List<IssueResponse> responses = toResponses(issues);
+        addNames(responses);
+        return responses;
+    }
+    
+    // Entity -> DTO copy; runs inside the shard transaction since tags load lazily
+    private List<IssueResponse> toResponses(List<Issue> issues) {
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            List<IssueResponse> responses = new ArrayList<>(issues.size());
+            for (Issue issue : issues) {
+                responses.add(toResponse(issue));
+            }
+            return responses;
+        }
+    }
+    
+    // Project and assignee names are resolved with one directory query each for
+    // the whole page instead of two lookups per issue
+    private void addNames(List<IssueResponse> responses) {
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            Set<Long> projectIds = new HashSet<>();
+            Set<Long> assigneeIds = new HashSet<>();
+            for (IssueResponse response : responses) {
+                projectIds.add(response.getProjectId());
+                if (response.getAssigneeId() != null) {
+                    assigneeIds.add(response.getAssigneeId());
+                }
+            }
+            
+            Map<Long, Project> projects = new HashMap<>();
+            projectRepository.findAllById(projectIds)
+                    .forEach(project -> projects.put(project.getId(), project));
+            Map<Long, String> assigneeNames = new HashMap<>();
+            if (!assigneeIds.isEmpty()) {
+                userRepository.findAllById(assigneeIds)
+                        .forEach(user -> assigneeNames.put(user.getId(), user.getName()));
+            }
+            
+            for (IssueResponse response : responses) {
+                Project project = projects.get(response.getProjectId());
+                if (project != null) {
+                    response.setProjectName(project.getName());
+                    response.setKey(project.getProjectKey() + "-" + response.getNumber());
+                }
+                if (response.getAssigneeId() != null) {
+                    response.setAssigneeName(assigneeNames.get(response.getAssigneeId()));
+                }
+            }
+        }
+    }
+    
+    // Sent once the write commits, so a rolled-back write (e.g. in an atomic batch) is never announced
+    private void publish(String destination, Object payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(destination, payload);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(destination, payload);
+            }
+        });
+    }
+    
+    private void send(String destination, Object payload) {
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.WEBSOCKET)) {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+    }
+    
+    private IssueResponse toResponse(Issue issue) {
         IssueResponse response = new IssueResponse();
         response.setId(issue.getId());
+        response.setNumber(issue.getNumber());
         response.setProjectId(issue.getProjectId());
         response.setTitle(issue.getTitle());
         response.setDescription(issue.getDescription());
         response.setStatus(issue.getStatus());
         response.setPriority(issue.getPriority());
         response.setAssigneeId(issue.getAssigneeId());
-        response.setTags(issue.getTags());
+        response.setRank(issue.getRank());
+        response.setTags(issue.getTags() != null ? new ArrayList<>(issue.getTags()) : null);
         response.setCreatedAt(issue.getCreatedAt());
         response.setUpdatedAt(issue.getUpdatedAt());
         response.setVersion(issue.getVersion());
+        return response;
+    }
+    
+    private IssueResponse toArchivedResponse(ArchivedIssue issue) {
+        IssueResponse response = new IssueResponse();
+        response.setId(issue.getId());
+        response.setNumber(issue.getNumber());
+        response.setProjectId(issue.getProjectId());
+        response.setTitle(issue.getTitle());
+        response.setDescription(issue.getDescription());
+        response.setStatus(issue.getStatus());
+        response.setPriority(issue.getPriority());
+        response.setAssigneeId(issue.getAssigneeId());
+        response.setRank(issue.getRank());
+        response.setTags(issue.getTags() != null ? new ArrayList<>(issue.getTags()) : null);
+        response.setCreatedAt(issue.getCreatedAt());
+        response.setUpdatedAt(issue.getUpdatedAt());
+        response.setVersion(issue.getVersion());
+        response.setArchived(true);
+        return response;
+    }
+    
+    // Page request starting at an arbitrary row, for the archive part of a page
+    private static class OffsetPageRequest extends PageRequest {
+        private final long offset;
         
-        projectRepository.findById(issue.getProjectId())
-                .ifPresent(project -> response.setProjectName(project.getName()));
-        
-        if (issue.getAssigneeId() != null) {
-            userRepository.findById(issue.getAssigneeId())
-                    .ifPresent(assignee -> response.setAssigneeName(assignee.getName()));
+        OffsetPageRequest(long offset, int size, Sort sort) {
+            super(0, size, sort);
+            this.offset = offset;
         }
         
-        return response;
+        @Override
+        public long getOffset() {
+            return offset;
+        }
     }
 }
@@ -1,71 +1,155 @@
 package com.issuetracker.service;
 
+import com.issuetracker.async.SingleFlight;
 import com.issuetracker.dto.ProjectRequest;
 import com.issuetracker.dto.ProjectResponse;
 import com.issuetracker.model.Project;
 import com.issuetracker.model.ProjectMember;
 import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.monitoring.RequestTrace;
+import com.issuetracker.repository.ArchivedIssueRepository;
+import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.ProjectMemberRepository;
 import com.issuetracker.repository.ProjectRepository;
 import com.issuetracker.repository.UserRepository;
+import com.issuetracker.sharding.ShardMover;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class ProjectService {
+    // Roles already looked up on this thread while a cacheRoles() scope is open
+    private static final ThreadLocal<Map<RoleKey, Optional<UserRole>>> CACHED_ROLES = new ThreadLocal<>();
+    private static final RoleCache NOOP = () -> { };
+    private static final int MAX_KEY_ATTEMPTS = 10;
+
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
     private final UserRepository userRepository;
+    private final IssueRepository issueRepository;
+    private final ArchivedIssueRepository archivedIssueRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final ObjectProvider<ShardMover> shardMover;
+    private final SingleFlight singleFlight;
+    private final IssueNumberAllocator issueNumberAllocator;
+    private final SuggestService suggestService;
+    private final TransactionTemplate createTransaction;
+    private final TransactionTemplate readTransaction;
 
-    public ProjectService(ProjectRepository projectRepository, ProjectMemberRepository projectMemberRepository, UserRepository userRepository) {
+    public ProjectService(ProjectRepository projectRepository, ProjectMemberRepository projectMemberRepository, UserRepository userRepository, IssueRepository issueRepository, ArchivedIssueRepository archivedIssueRepository, ShardRouter shardRouter, ShardTransactions shardTransactions, ObjectProvider<ShardMover> shardMover, SingleFlight singleFlight, IssueNumberAllocator issueNumberAllocator, SuggestService suggestService, PlatformTransactionManager transactionManager) {
         this.projectRepository = projectRepository;
         this.projectMemberRepository = projectMemberRepository;
         this.userRepository = userRepository;
+        this.issueRepository = issueRepository;
+        this.archivedIssueRepository = archivedIssueRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.shardMover = shardMover;
+        this.singleFlight = singleFlight;
+        this.issueNumberAllocator = issueNumberAllocator;
+        this.suggestService = suggestService;
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
     }
 
     
     
-    @Transactional
+    // Each attempt is its own transaction: after a unique violation on the key
+    // the transaction is unusable. A derived key was free when checked, but a
+    // concurrent create may take it first; the next attempt takes the next suffix.
     public ProjectResponse createProject(ProjectRequest request, Long userId) {
-        Project project = new Project();
-        project.setName(request.getName());
-        project.setOwnerId(userId);
-        
-        project = projectRepository.save(project);
-        
-        // Add creator as owner in project members
-        ProjectMember member = new ProjectMember();
-        member.setProjectId(project.getId());
-        member.setUserId(userId);
-        member.setRole(UserRole.OWNER);
-        projectMemberRepository.save(member);
-        
-        return mapToResponse(project);
+        String base = request.getKey() == null ? deriveKeyBase(request.getName()) : null;
+        for (int attempt = 1; ; attempt++) {
+            String key = base != null ? nextFreeKey(base) : request.getKey();
+            if (base == null && projectRepository.existsByProjectKey(key)) {
+                throw new RuntimeException("Project key already in use");
+            }
+            try {
+                return insertProject(request, key, userId);
+            } catch (DataIntegrityViolationException e) {
+                if (!projectRepository.existsByProjectKey(key)) {
+                    throw e;
+                }
+                if (base == null || attempt == MAX_KEY_ATTEMPTS) {
+                    throw new RuntimeException("Project key already in use");
+                }
+            }
+        }
+    }
+
+    private ProjectResponse insertProject(ProjectRequest request, String key, Long userId) {
+        return createTransaction.execute(status -> {
+            Project project = new Project();
+            project.setName(request.getName());
+            project.setProjectKey(key);
+            project.setOwnerId(userId);
+            project.setArchiveAfterDays(request.getArchiveAfterDays());
+
+            project = projectRepository.saveAndFlush(project);
+
+            // Add creator as owner in project members
+            ProjectMember member = new ProjectMember();
+            member.setProjectId(project.getId());
+            member.setUserId(userId);
+            member.setRole(UserRole.OWNER);
+            projectMemberRepository.save(member);
+
+            shardRouter.assignShard(project.getId());
+            issueNumberAllocator.initialize(project.getId());
+
+            return mapToResponse(project);
+        });
     }
     
-    public List<ProjectResponse> getUserProjects(Long userId) {
-        List<ProjectMember> memberships = projectMemberRepository.findByUserId(userId);
-        List<Long> projectIds = memberships.stream()
-                .map(ProjectMember::getProjectId)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<ProjectResponse> getUserProjects(Long userId, boolean includeStats) {
+        // Projects, the user's role and owner names in one query
+        List<ProjectMemberRepository.ProjectSummary> summaries = projectMemberRepository.findProjectSummaries(userId);
+        
+        List<ProjectResponse> responses;
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            responses = summaries.stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList());
+        }
         
-        return projectRepository.findAllById(projectIds).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        if (includeStats && !responses.isEmpty()) {
+            addIssueCounts(responses);
+        }
+        return responses;
     }
     
+    // Not transactional: callers waiting on a shared load must not hold a
+    // connection meanwhile, so only the load itself runs in a transaction
     public ProjectResponse getProject(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-        
-        // Check access
+        // Check access; "not found" still wins over "access denied"
         if (!hasAccess(projectId, userId)) {
+            projectRepository.findById(projectId)
+                    .orElseThrow(() -> new RuntimeException("Project not found"));
             throw new RuntimeException("Access denied");
         }
         
-        return mapToResponse(project);
+        // Everyone opening the project at once shares one load (see SingleFlight)
+        return singleFlight.execute("getProject", projectId, projectId, () -> readTransaction.execute(status -> {
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new RuntimeException("Project not found"));
+            return mapToResponse(project);
+        }));
     }
     
     @Transactional
@@ -79,11 +163,29 @@ public class ProjectService {
         }
         
         project.setName(request.getName());
+        if (request.getArchiveAfterDays() != null) {
+            project.setArchiveAfterDays(request.getArchiveAfterDays());
+        }
         project = projectRepository.save(project);
+        singleFlight.invalidateAfterCommit(projectId);
         
         return mapToResponse(project);
     }
     
+    // Runs outside a transaction: the move commits its own steps on the directory
+    // while the project's issues are copied between shards
+    public void moveProject(Long projectId, int targetShard, Long userId) {
+        if (!isOwner(projectId, userId)) {
+            throw new RuntimeException("Only owner can move project");
+        }
+        
+        ShardMover mover = shardMover.getIfAvailable();
+        if (mover == null) {
+            throw new RuntimeException("Sharding is not enabled");
+        }
+        mover.move(projectId, targetShard);
+    }
+    
     @Transactional
     public void deleteProject(Long projectId, Long userId) {
         if (!isOwner(projectId, userId)) {
@@ -91,34 +193,151 @@ public class ProjectService {
         }
         
         projectRepository.deleteById(projectId);
+        singleFlight.invalidateAfterCommit(projectId);
+        suggestService.projectDeletedAfterCommit(projectId);
     }
     
     public UserRole getUserRole(Long projectId, Long userId) {
-        return projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
-                .map(ProjectMember::getRole)
-                .orElse(null);
+        Map<RoleKey, Optional<UserRole>> cached = CACHED_ROLES.get();
+        if (cached != null) {
+            return cached.computeIfAbsent(new RoleKey(projectId, userId),
+                    key -> Optional.ofNullable(lookUpRole(projectId, userId))).orElse(null);
+        }
+        return lookUpRole(projectId, userId);
+    }
+    
+    // Until closed, each project's role is looked up once on this thread. For
+    // batches, where memberships do not change between operations
+    public RoleCache cacheRoles() {
+        if (CACHED_ROLES.get() != null) {
+            return NOOP;
+        }
+        CACHED_ROLES.set(new HashMap<>());
+        return CACHED_ROLES::remove;
+    }
+    
+    public interface RoleCache extends AutoCloseable {
+        @Override
+        void close();
+    }
+    
+    private UserRole lookUpRole(Long projectId, Long userId) {
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.PERMISSION)) {
+            return projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
+                    .map(ProjectMember::getRole)
+                    .orElse(null);
+        }
     }
     
     private boolean hasAccess(Long projectId, Long userId) {
-        return projectMemberRepository.existsByProjectIdAndUserId(projectId, userId);
+        if (CACHED_ROLES.get() != null) {
+            return getUserRole(projectId, userId) != null;
+        }
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.PERMISSION)) {
+            return projectMemberRepository.existsByProjectIdAndUserId(projectId, userId);
+        }
     }
     
     private boolean isOwner(Long projectId, Long userId) {
-        return projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
-                .map(pm -> pm.getRole() == UserRole.OWNER)
-                .orElse(false);
+        return getUserRole(projectId, userId) == UserRole.OWNER;
     }
     
     private ProjectResponse mapToResponse(Project project) {
+        try (RequestTrace.Scope ignored = RequestTrace.enter(RequestTrace.Phase.MAPPING)) {
+            ProjectResponse response = toResponse(project);
+            
+            userRepository.findById(project.getOwnerId())
+                    .ifPresent(owner -> response.setOwnerName(owner.getName()));
+            
+            return response;
+        }
+    }
+    
+    // "Mobile App Backend" -> MAB, "Platform" -> PLAT
+    private String deriveKeyBase(String name) {
+        String[] words = name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", " ").trim().split(" ");
+        StringBuilder key = new StringBuilder();
+        if (words.length > 1) {
+            for (int i = 0; i < words.length && key.length() < 4; i++) {
+                key.append(words[i].charAt(0));
+            }
+        } else if (!words[0].isEmpty()) {
+            key.append(words[0], 0, Math.min(4, words[0].length()));
+        }
+        if (key.length() < 2 || !Character.isLetter(key.charAt(0))) {
+            key.insert(0, 'P');
+        }
+        return key.length() < 2 ? "PRJ" : key.toString();
+    }
+    
+    // A digit is appended while taken: MAB, MAB2, MAB3...
+    private String nextFreeKey(String base) {
+        String candidate = base;
+        for (int suffix = 2; projectRepository.existsByProjectKey(candidate); suffix++) {
+            candidate = base + suffix;
+        }
+        return candidate;
+    }
+    
+    // One grouped count per shard (live and archived issues) for all projects at once
+    private void addIssueCounts(List<ProjectResponse> responses) {
+        Map<Long, ProjectResponse> byId = new HashMap<>();
+        for (ProjectResponse response : responses) {
+            response.setOpenIssues(0L);
+            response.setInProgressIssues(0L);
+            response.setClosedIssues(0L);
+            byId.put(response.getId(), response);
+        }
+        
+        Map<Integer, List<Long>> projectsByShard = shardRouter.shardsOf(byId.keySet()).entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        List<List<IssueRepository.StatusCount>> perShard = shardTransactions.onAllShards(true, shardId -> {
+            List<Long> projectIds = projectsByShard.get(shardId);
+            if (projectIds == null) {
+                return List.of();
+            }
+            List<IssueRepository.StatusCount> counts = new ArrayList<>(issueRepository.countByStatus(projectIds));
+            counts.addAll(archivedIssueRepository.countByStatus(projectIds));
+            return counts;
+        });
+        
+        for (List<IssueRepository.StatusCount> counts : perShard) {
+            for (IssueRepository.StatusCount count : counts) {
+                ProjectResponse response = byId.get(count.getProjectId());
+                switch (count.getStatus()) {
+                    case OPEN -> response.setOpenIssues(response.getOpenIssues() + count.getCount());
+                    case IN_PROGRESS -> response.setInProgressIssues(response.getInProgressIssues() + count.getCount());
+                    case CLOSED -> response.setClosedIssues(response.getClosedIssues() + count.getCount());
+                }
+            }
+        }
+    }
+    
+    private ProjectResponse toResponse(ProjectMemberRepository.ProjectSummary summary) {
+        ProjectResponse response = new ProjectResponse();
+        response.setId(summary.getId());
+        response.setName(summary.getName());
+        response.setKey(summary.getProjectKey());
+        response.setOwnerId(summary.getOwnerId());
+        response.setOwnerName(summary.getOwnerName());
+        response.setCreatedAt(summary.getCreatedAt());
+        response.setArchiveAfterDays(summary.getArchiveAfterDays());
+        response.setRole(summary.getRole());
+        return response;
+    }
+    
+    private ProjectResponse toResponse(Project project) {
         ProjectResponse response = new ProjectResponse();
         response.setId(project.getId());
         response.setName(project.getName());
+        response.setKey(project.getProjectKey());
         response.setOwnerId(project.getOwnerId());
         response.setCreatedAt(project.getCreatedAt());
-        
-        userRepository.findById(project.getOwnerId())
-                .ifPresent(owner -> response.setOwnerName(owner.getName()));
-        
+        response.setArchiveAfterDays(project.getArchiveAfterDays());
         return response;
     }
+    
+    private record RoleKey(Long projectId, Long userId) {
+    }
 }
@@ -0,0 +1,80 @@
+package com.issuetracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Fractional keys for the manual order of issues (Issue.rank). A key is a
+// base-36 fraction written with 0-9a-z, so comparing keys as strings (COLLATE
+// "C") orders them by value. Keys never end in '0', which keeps room between
+// any two of them: placing an issue needs a new key for that issue only.
+final class RankKeys {
+
+    static final int MAX_LENGTH = 255;
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private RankKeys() {
+    }
+
+    // A key strictly between lo and hi; null means the start or the end. The
+    // digit is picked at random inside the gap, so two concurrent drops on the
+    // same spot rarely end up with the same key.
+    static String between(String lo, String hi) {
+        if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+            throw new IllegalArgumentException("No key between " + lo + " and " + hi);
+        }
+        StringBuilder key = new StringBuilder();
+        boolean bounded = hi != null;
+        for (int i = 0; ; i++) {
+            int low = lo != null && i < lo.length() ? digit(lo.charAt(i)) : 0;
+            int high = bounded && i < hi.length() ? digit(hi.charAt(i)) : BASE;
+            if (high - low > 1) {
+                key.append(DIGITS.charAt(ThreadLocalRandom.current().nextInt(low + 1, high)));
+                return key.toString();
+            }
+            key.append(DIGITS.charAt(low));
+            // Below hi from here on, whatever follows
+            bounded = bounded && low == high;
+        }
+    }
+
+    // n keys of equal length, evenly spaced, for rebalancing a whole column
+    static List<String> spread(int n) {
+        int width = 1;
+        long range = BASE;
+        // At least BASE values between neighbours
+        while (range / (n + 1) < BASE) {
+            width++;
+            range *= BASE;
+        }
+        List<String> keys = new ArrayList<>(n);
+        long step = range / (n + 1);
+        for (int i = 1; i <= n; i++) {
+            keys.add(encode(step * i, width));
+        }
+        return keys;
+    }
+
+    private static String encode(long value, int width) {
+        char[] key = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            key[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (key[length - 1] == '0') {
+            length--;
+        }
+        return new String(key, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank key character " + c);
+        }
+        return digit;
+    }
+}
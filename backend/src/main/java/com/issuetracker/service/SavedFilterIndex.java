@@ -0,0 +1,110 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.SavedFilter;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.SavedFilterMatchRepository;
+import com.issuetracker.repository.SavedFilterRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Keeps the match set (saved_filter_matches) and matchCount of every saved
+// filter current as issues change, so opening a saved view reads a page of ids
+// and its badge is a column. A write only evaluates the project's filters
+// against the one changed issue, in the writer's directory transaction.
+// Unsharded that is the issue's own transaction, so a set can't drift. Sharded,
+// the issue commits first; two racing updates of one issue can then leave a
+// set stale until the filter is saved again, which rebuilds it.
+@Component
+public class SavedFilterIndex {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final SavedFilterRepository savedFilterRepository;
+    private final SavedFilterMatchRepository savedFilterMatchRepository;
+    private final IssueRepository issueRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SavedFilterIndex(SavedFilterRepository savedFilterRepository,
+                            SavedFilterMatchRepository savedFilterMatchRepository, IssueRepository issueRepository,
+                            ShardRouter shardRouter, ShardTransactions shardTransactions, JdbcTemplate jdbcTemplate) {
+        this.savedFilterRepository = savedFilterRepository;
+        this.savedFilterMatchRepository = savedFilterMatchRepository;
+        this.issueRepository = issueRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // before is null for a new (or just restored) issue, after null for a deleted one
+    public void issueChanged(Long projectId, Long issueId, IssueFields before, IssueFields after) {
+        for (SavedFilter filter : savedFilterRepository.findByProjectId(projectId)) {
+            boolean matchedBefore = before != null && before.matches(filter);
+            boolean matchesNow = after != null && after.matches(filter);
+            if (before != null && matchedBefore == matchesNow) {
+                continue;
+            }
+            long delta = matchesNow
+                    ? savedFilterMatchRepository.insertIfAbsent(filter.getId(), issueId)
+                    : -savedFilterMatchRepository.deleteMatch(filter.getId(), issueId);
+            if (delta != 0) {
+                savedFilterRepository.addToMatchCount(filter.getId(), delta);
+            }
+        }
+    }
+
+    // Archived issues leave every list, whatever the filter says
+    public void issuesArchived(Long projectId, List<Long> issueIds) {
+        List<Long> filterIds = savedFilterRepository.findByProjectId(projectId).stream()
+                .map(SavedFilter::getId)
+                .collect(Collectors.toList());
+        if (filterIds.isEmpty() || issueIds.isEmpty()) {
+            return;
+        }
+        if (savedFilterMatchRepository.deleteIssues(filterIds, issueIds) > 0) {
+            savedFilterRepository.recount(filterIds);
+        }
+    }
+
+    // Runs the filter's query once and replaces its match set with the result
+    public void rebuild(SavedFilter filter) {
+        List<Long> issueIds = shardTransactions.inShard(shardRouter.shardOf(filter.getProjectId()), true, () ->
+                issueRepository.findIdsByFilters(filter.getProjectId(), filter.getStatus(), filter.getPriority(),
+                        filter.getAssigneeId(), filter.getSearchText()));
+
+        savedFilterMatchRepository.deleteByFilter(filter.getId());
+        for (int from = 0; from < issueIds.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("INSERT INTO saved_filter_matches (filter_id, issue_id) VALUES (?, ?)",
+                    issueIds.subList(from, Math.min(from + BATCH_SIZE, issueIds.size())).stream()
+                            .map(issueId -> new Object[] {filter.getId(), issueId})
+                            .collect(Collectors.toList()));
+        }
+        filter.setMatchCount(issueIds.size());
+    }
+
+    // The fields a saved filter looks at
+    public record IssueFields(IssueStatus status, IssuePriority priority, Long assigneeId, String title) {
+
+        public static IssueFields of(Issue issue) {
+            return new IssueFields(issue.getStatus(), issue.getPriority(), issue.getAssigneeId(), issue.getTitle());
+        }
+
+        public static IssueFields of(IssueResponse issue) {
+            return new IssueFields(issue.getStatus(), issue.getPriority(), issue.getAssigneeId(), issue.getTitle());
+        }
+
+        boolean matches(SavedFilter filter) {
+            return filter.matches(status, priority, assigneeId, title);
+        }
+    }
+}
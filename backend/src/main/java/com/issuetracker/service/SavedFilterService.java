@@ -0,0 +1,135 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.SavedFilterRequest;
+import com.issuetracker.dto.SavedFilterResponse;
+import com.issuetracker.model.SavedFilter;
+import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.repository.SavedFilterMatchRepository;
+import com.issuetracker.repository.SavedFilterRepository;
+import com.issuetracker.sharding.ShardRouter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Saved filters belong to one user and one project. Their match sets are kept
+// by SavedFilterIndex, so a saved view is a page of ids plus one issue query
+// and the badge count comes with the filter.
+@Service
+public class SavedFilterService {
+    private final SavedFilterRepository savedFilterRepository;
+    private final SavedFilterMatchRepository savedFilterMatchRepository;
+    private final SavedFilterIndex savedFilterIndex;
+    private final IssueService issueService;
+    private final ProjectService projectService;
+    private final ShardRouter shardRouter;
+
+    public SavedFilterService(SavedFilterRepository savedFilterRepository,
+                              SavedFilterMatchRepository savedFilterMatchRepository, SavedFilterIndex savedFilterIndex,
+                              IssueService issueService, ProjectService projectService, ShardRouter shardRouter) {
+        this.savedFilterRepository = savedFilterRepository;
+        this.savedFilterMatchRepository = savedFilterMatchRepository;
+        this.savedFilterIndex = savedFilterIndex;
+        this.issueService = issueService;
+        this.projectService = projectService;
+        this.shardRouter = shardRouter;
+    }
+
+    
+    
+    @Transactional
+    public SavedFilterResponse createFilter(SavedFilterRequest request, Long userId) {
+        checkAccess(request.getProjectId(), userId);
+        
+        SavedFilter filter = new SavedFilter();
+        filter.setUserId(userId);
+        apply(filter, request);
+        filter = savedFilterRepository.saveAndFlush(filter);
+        
+        // Keeps a shard move from starting while the match set is built
+        shardRouter.lockForWrite(filter.getProjectId());
+        savedFilterIndex.rebuild(filter);
+        return toResponse(filter);
+    }
+    
+    // Badge counts come with the filters, no issue query involved
+    @Transactional(readOnly = true)
+    public List<SavedFilterResponse> getFilters(Long userId) {
+        return savedFilterRepository.findVisible(userId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+    
+    // Newest issues first
+    @Transactional(readOnly = true)
+    public Page<IssueResponse> getFilterIssues(Long filterId, int page, int size, Long userId) {
+        SavedFilter filter = findOwn(filterId, userId);
+        checkAccess(filter.getProjectId(), userId);
+        
+        PageRequest pageable = PageRequest.of(page, size);
+        List<Long> issueIds = savedFilterMatchRepository.findIssueIds(filterId, pageable);
+        List<IssueResponse> issues = issueIds.isEmpty()
+                ? List.of()
+                : issueService.getLiveIssues(filter.getProjectId(), issueIds);
+        return new PageImpl<>(issues, pageable, filter.getMatchCount());
+    }
+    
+    // Changing the parameters rebuilds the match set
+    @Transactional
+    public SavedFilterResponse updateFilter(Long filterId, SavedFilterRequest request, Long userId) {
+        SavedFilter filter = findOwn(filterId, userId);
+        checkAccess(request.getProjectId(), userId);
+        
+        apply(filter, request);
+        shardRouter.lockForWrite(filter.getProjectId());
+        savedFilterIndex.rebuild(filter);
+        return toResponse(savedFilterRepository.save(filter));
+    }
+    
+    @Transactional
+    public void deleteFilter(Long filterId, Long userId) {
+        SavedFilter filter = findOwn(filterId, userId);
+        savedFilterMatchRepository.deleteByFilter(filterId);
+        savedFilterRepository.delete(filter);
+    }
+    
+    private SavedFilter findOwn(Long filterId, Long userId) {
+        return savedFilterRepository.findById(filterId)
+                .filter(filter -> filter.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Saved filter not found"));
+    }
+    
+    private void checkAccess(Long projectId, Long userId) {
+        UserRole role = projectService.getUserRole(projectId, userId);
+        if (role == null) {
+            throw new RuntimeException("Access denied");
+        }
+    }
+    
+    private static void apply(SavedFilter filter, SavedFilterRequest request) {
+        filter.setName(request.getName());
+        filter.setProjectId(request.getProjectId());
+        filter.setStatus(request.getStatus());
+        filter.setPriority(request.getPriority());
+        filter.setAssigneeId(request.getAssigneeId());
+        filter.setSearchText(request.getSearch() == null || request.getSearch().isEmpty() ? null : request.getSearch());
+    }
+    
+    private SavedFilterResponse toResponse(SavedFilter filter) {
+        SavedFilterResponse response = new SavedFilterResponse();
+        response.setId(filter.getId());
+        response.setName(filter.getName());
+        response.setProjectId(filter.getProjectId());
+        response.setStatus(filter.getStatus());
+        response.setPriority(filter.getPriority());
+        response.setAssigneeId(filter.getAssigneeId());
+        response.setSearch(filter.getSearchText());
+        response.setMatchCount(filter.getMatchCount());
+        response.setCreatedAt(filter.getCreatedAt());
+        return response;
+    }
+}
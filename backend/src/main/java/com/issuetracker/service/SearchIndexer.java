@@ -0,0 +1,219 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.search.IndexedIssue;
+import com.issuetracker.search.SearchIndex;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps SearchIndex in step with the issues table. Creates, updates, deletes
+// and archiving made through this node reach the index once their transaction
+// commits. Writes made anywhere else (other nodes, scripts) are polled: every
+// app.search.poll-interval-ms, each shard's issues with updated_at after the
+// index's checkpoint are read back. The poll reaches back catch-up-margin-ms
+// before the checkpoint for transactions that committed late, clock skew
+// between nodes and replica lag; issues read twice are skipped by version.
+// The checkpoint is database time read before the query, the earliest over
+// all shards, so it never passes a change the query could not see yet.
+// Deletes leave nothing to poll: a full pass over every shard's ids, on start
+// and every app.search.reconcile-interval-ms, drops the issues that are gone.
+@Component
+public class SearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final SearchIndex searchIndex;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final JdbcTemplate jdbcTemplate;
+    private final long marginMillis;
+    private final long reconcileMillis;
+    // Guarded by this
+    private boolean reconciled;
+    private long reconciledAt;
+
+    public SearchIndexer(SearchIndex searchIndex, ShardRouter shardRouter, ShardTransactions shardTransactions,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${app.search.catch-up-margin-ms:60000}") long marginMillis,
+                         @Value("${app.search.reconcile-interval-ms:600000}") long reconcileMillis) {
+        this.searchIndex = searchIndex;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.marginMillis = marginMillis;
+        this.reconcileMillis = reconcileMillis;
+    }
+
+    // Call inside the writing transaction, with the issue as written
+    public void indexAfterCommit(IssueResponse issue) {
+        IndexedIssue indexed = IndexedIssue.of(issue);
+        afterCommit(() -> searchIndex.index(indexed));
+    }
+
+    public void removeAfterCommit(Long issueId, Long version) {
+        afterCommit(() -> searchIndex.remove(issueId, version));
+    }
+
+    public void removeAfterCommit(List<Long> issueIds) {
+        afterCommit(() -> issueIds.forEach(issueId -> searchIndex.remove(issueId, null)));
+    }
+
+    // A failed poll (e.g. a shard was down) is retried by the next one
+    @Scheduled(fixedDelayString = "${app.search.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!reconciled || now - reconciledAt >= reconcileMillis) {
+                reconcile();
+                reconciled = true;
+                reconciledAt = now;
+            } else {
+                pollChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search index catch-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void pollChanges() {
+        Timestamp since = new Timestamp(since());
+        long checkpoint = Long.MAX_VALUE;
+        for (int shardId = 0; shardId < shardRouter.getShardCount(); shardId++) {
+            checkpoint = Math.min(checkpoint, databaseTime(shardId));
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                List<IndexedIssue> changed = shardTransactions.inShard(shardId, true, () -> readChanged(from, since));
+                changed.forEach(searchIndex::index);
+                if (changed.size() < BATCH_SIZE) {
+                    break;
+                }
+                afterId = changed.get(changed.size() - 1).issueId();
+            }
+        }
+        searchIndex.advanceCheckpoint(checkpoint);
+    }
+
+    private void reconcile() {
+        long generation = searchIndex.generation();
+        Timestamp since = new Timestamp(since());
+        long checkpoint = Long.MAX_VALUE;
+        Set<Long> present = new HashSet<>();
+        int indexed = 0;
+        for (int shardId = 0; shardId < shardRouter.getShardCount(); shardId++) {
+            checkpoint = Math.min(checkpoint, databaseTime(shardId));
+            indexed += reconcileShard(shardId, since, present);
+        }
+        int removed = searchIndex.retainOnly(present, generation);
+        searchIndex.advanceCheckpoint(checkpoint);
+        if (!reconciled || indexed > 0 || removed > 0) {
+            log.info("Search index reconciled: {} issues read, {} removed", indexed, removed);
+        }
+    }
+
+    private long since() {
+        return Math.max(searchIndex.checkpoint() - marginMillis, 0);
+    }
+
+    private long databaseTime(int shardId) {
+        return shardTransactions.inShard(shardId, true,
+                () -> jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class)).getTime();
+    }
+
+    // Walks the shard's issues by id, a batch per transaction; every id goes
+    // into present, the ones changed since the checkpoint into the index
+    private int reconcileShard(int shardId, Timestamp since, Set<Long> present) {
+        int indexed = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = shardTransactions.inShard(shardId, true, () -> readBatch(from, since));
+            present.addAll(batch.ids());
+            batch.changed().forEach(searchIndex::index);
+            indexed += batch.changed().size();
+            if (batch.ids().size() < BATCH_SIZE) {
+                return indexed;
+            }
+            afterId = batch.ids().get(batch.ids().size() - 1);
+        }
+    }
+
+    // By idx_issue_updated_at, then in id order for the next batch
+    private List<IndexedIssue> readChanged(long afterId, Timestamp since) {
+        List<IndexedIssue> changed = jdbcTemplate.query("SELECT id, project_id, version, title, description " +
+                        "FROM issues WHERE updated_at >= ? AND id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                (rs, row) -> new IndexedIssue(rs.getLong("id"), rs.getLong("project_id"), rs.getLong("version"),
+                        rs.getString("title"), rs.getString("description"), new ArrayList<>()),
+                since, afterId);
+        addTags(changed);
+        return changed;
+    }
+
+    private Batch readBatch(long afterId, Timestamp since) {
+        List<Long> ids = new ArrayList<>();
+        List<IndexedIssue> changed = new ArrayList<>();
+        // Text only for the changed ones; the rest just confirm the issue still exists
+        jdbcTemplate.query("SELECT id, project_id, version, updated_at >= ? AS changed, " +
+                        "CASE WHEN updated_at >= ? THEN title END AS title, " +
+                        "CASE WHEN updated_at >= ? THEN description END AS description " +
+                        "FROM issues WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    if (rs.getBoolean("changed")) {
+                        changed.add(new IndexedIssue(rs.getLong("id"), rs.getLong("project_id"), rs.getLong("version"),
+                                rs.getString("title"), rs.getString("description"), new ArrayList<>()));
+                    }
+                }, since, since, since, afterId);
+        addTags(changed);
+        return new Batch(ids, changed);
+    }
+
+    private void addTags(List<IndexedIssue> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (IndexedIssue issue : issues) {
+            tags.put(issue.issueId(), issue.tags());
+        }
+        jdbcTemplate.query("SELECT issue_id, tag FROM issue_tags WHERE issue_id IN ("
+                + String.join(", ", Collections.nCopies(tags.size(), "?")) + ")",
+                rs -> {
+                    tags.get(rs.getLong("issue_id")).add(rs.getString("tag"));
+                }, tags.keySet().toArray());
+    }
+
+    private record Batch(List<Long> ids, List<IndexedIssue> changed) {
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.SearchHit;
+import com.issuetracker.model.ProjectMember;
+import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.repository.ProjectMemberRepository;
+import com.issuetracker.search.SearchIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Relevance-ranked search over the issues of one project or of all the
+// caller's projects. SearchIndex returns the best ids; the page of issues is
+// then read from their shards, skipping any deleted since they were indexed.
+@Service
+public class SearchService {
+    // Deeper pages would keep a large top list per request
+    private static final int MAX_RESULTS = 1000;
+
+    private final SearchIndex searchIndex;
+    private final IssueService issueService;
+    private final ProjectService projectService;
+    private final ProjectMemberRepository projectMemberRepository;
+
+    public SearchService(SearchIndex searchIndex, IssueService issueService, ProjectService projectService,
+                         ProjectMemberRepository projectMemberRepository) {
+        this.searchIndex = searchIndex;
+        this.issueService = issueService;
+        this.projectService = projectService;
+        this.projectMemberRepository = projectMemberRepository;
+    }
+
+    
+    
+    @Transactional(readOnly = true)
+    public Page<SearchHit> search(String query, Long projectId, int page, int size, Long userId) {
+        Set<Long> projectIds;
+        if (projectId != null) {
+            UserRole role = projectService.getUserRole(projectId, userId);
+            if (role == null) {
+                throw new RuntimeException("Access denied");
+            }
+            projectIds = Set.of(projectId);
+        } else {
+            projectIds = projectMemberRepository.findByUserId(userId).stream()
+                    .map(ProjectMember::getProjectId)
+                    .collect(Collectors.toSet());
+        }
+        if ((long) (page + 1) * size > MAX_RESULTS) {
+            throw new RuntimeException("Search results stop after the first " + MAX_RESULTS + " issues");
+        }
+        
+        SearchIndex.Hits hits = searchIndex.search(query, projectIds::contains, (page + 1) * size);
+        List<SearchIndex.Hit> pageHits = hits.hits().stream()
+                .skip((long) page * size)
+                .toList();
+        Map<Long, Long> projectByIssue = new LinkedHashMap<>();
+        pageHits.forEach(hit -> projectByIssue.put(hit.issueId(), hit.projectId()));
+        Map<Long, IssueResponse> issues = projectByIssue.isEmpty()
+                ? Map.of()
+                : issueService.getLiveIssues(projectByIssue);
+        
+        List<SearchHit> results = pageHits.stream()
+                .filter(hit -> issues.containsKey(hit.issueId()))
+                .map(hit -> new SearchHit(hit.score(), issues.get(hit.issueId())))
+                .collect(Collectors.toList());
+        return new PageImpl<>(results, PageRequest.of(page, size), hits.total());
+    }
+}
@@ -0,0 +1,601 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.Suggestion;
+import com.issuetracker.repository.ProjectMemberRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+// Typeahead for the issue picker, tag input and assignee field. A project gets
+// an in-memory snapshot the first time someone types into it: issue titles from
+// every word on plus issue keys, tags with their issue counts, and members by
+// name and email, each as a sorted array searched by prefix. A title key is one
+// long (which lower-cased title, and where in it the word starts) rather than a
+// string of its own: 100k issues with six-word titles take about 28 MB in all,
+// against about 110 MB as skip-list maps keyed by string. Issue writes on this
+// node go into a small map of changes overlaid on the snapshot; past
+// MAX_CHANGES they are folded into a new snapshot on the refresh thread and
+// swapped in. A snapshot older than app.suggest.max-age-ms is reloaded on that
+// thread while calls keep being answered from the old one, which is how writes
+// through other nodes and membership changes show up. Projects unused for
+// app.suggest.idle-ms are dropped. Membership is checked against the loaded
+// members, so a keystroke runs no query.
+@Service
+public class SuggestService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestService.class);
+
+    public enum Type { ISSUE, TAG, USER }
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_TITLE_WORDS = 12;
+    // Prefix entries looked at per keystroke, whatever the limit
+    private static final int SCAN_LIMIT = 200;
+    private static final int LOAD_LOCK_STRIPES = 64;
+    // Changes overlaid on a snapshot before they are folded into a new one
+    private static final int MAX_CHANGES = 256;
+    // Tag keys are "lower\0tag", so tags differing in case stay distinct and sort together
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentHashMap<Long, ProjectSuggestions> projects = new ConcurrentHashMap<>();
+    private final Object[] loadLocks = new Object[LOAD_LOCK_STRIPES];
+    // One thread, so reloads of many stale projects queue instead of piling onto the database
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTransactions shardTransactions;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxAgeMillis;
+    private final long idleMillis;
+
+    public SuggestService(ProjectMemberRepository projectMemberRepository, ShardRouter shardRouter,
+                          ShardTransactions shardTransactions, JdbcTemplate jdbcTemplate,
+                          @Value("${app.suggest.max-age-ms:300000}") long maxAgeMillis,
+                          @Value("${app.suggest.idle-ms:1800000}") long idleMillis) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.shardRouter = shardRouter;
+        this.shardTransactions = shardTransactions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAgeMillis = maxAgeMillis;
+        this.idleMillis = idleMillis;
+        for (int i = 0; i < LOAD_LOCK_STRIPES; i++) {
+            loadLocks[i] = new Object();
+        }
+    }
+
+    public List<Suggestion> suggest(Long projectId, String query, String type, int limit, Long userId) {
+        Type kind;
+        try {
+            kind = Type.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown suggestion type " + type);
+        }
+        State state = suggestions(projectId, userId).state;
+        if (!state.base().members().containsKey(userId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        String prefix = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        return switch (kind) {
+            case ISSUE -> state.issues(prefix, limit);
+            case TAG -> state.tags(prefix, limit);
+            case USER -> state.base().members(prefix, limit);
+        };
+    }
+
+    // Call inside the writing transaction, with the issue as written
+    public void issueChangedAfterCommit(IssueResponse issue) {
+        IssueEntry entry = new IssueEntry(issue.getId(), issue.getNumber() != null ? issue.getNumber() : 0, issue.getTitle(),
+                issue.getTags() != null ? List.copyOf(issue.getTags()) : List.of(),
+                issue.getVersion() != null ? issue.getVersion() : 0);
+        afterCommit(() -> {
+            ProjectSuggestions suggestions = projects.get(issue.getProjectId());
+            if (suggestions != null) {
+                suggestions.putIssue(entry);
+                compactIfNeeded(suggestions);
+            }
+        });
+    }
+
+    // Deleted and archived issues
+    public void issuesRemovedAfterCommit(Long projectId, List<Long> issueIds) {
+        afterCommit(() -> {
+            ProjectSuggestions suggestions = projects.get(projectId);
+            if (suggestions != null) {
+                issueIds.forEach(suggestions::removeIssue);
+                compactIfNeeded(suggestions);
+            }
+        });
+    }
+
+    public void projectDeletedAfterCommit(Long projectId) {
+        afterCommit(() -> projects.remove(projectId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        projects.values().removeIf(suggestions -> suggestions.loaded && suggestions.lastUsed < cutoff);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // Only the first load of a project makes the caller wait; a stale one is answered as is
+    private ProjectSuggestions suggestions(Long projectId, Long userId) {
+        long now = System.currentTimeMillis();
+        ProjectSuggestions current = projects.get(projectId);
+        if (current == null || !current.loaded) {
+            synchronized (loadLocks[Math.floorMod(projectId.hashCode(), LOAD_LOCK_STRIPES)]) {
+                current = projects.get(projectId);
+                if (current == null || !current.loaded) {
+                    // Only members get to make this node load a project
+                    if (!projectMemberRepository.existsByProjectIdAndUserId(projectId, userId)) {
+                        throw new RuntimeException("Access denied");
+                    }
+                    current = load(projectId);
+                }
+            }
+        } else if (now - current.loadedAt > maxAgeMillis) {
+            ProjectSuggestions stale = current;
+            onRefreshThread(stale, () -> {
+                long readStart = System.currentTimeMillis();
+                Snapshot fresh = read(projectId);
+                if (fresh == null) {
+                    projects.remove(projectId, stale);
+                    return;
+                }
+                stale.replaceBase(fresh, change -> change.at() < readStart);
+                stale.loadedAt = readStart;
+            });
+        }
+        current.lastUsed = now;
+        return current;
+    }
+
+    private ProjectSuggestions load(Long projectId) {
+        // Published before anything is read, so writes committing meanwhile land in its changes
+        ProjectSuggestions fresh = new ProjectSuggestions();
+        projects.put(projectId, fresh);
+        try {
+            long readStart = System.currentTimeMillis();
+            Snapshot snapshot = read(projectId);
+            if (snapshot == null) {
+                throw new RuntimeException("Project not found");
+            }
+            fresh.replaceBase(snapshot, change -> change.at() < readStart);
+            fresh.loadedAt = readStart;
+            fresh.loaded = true;
+        } catch (RuntimeException e) {
+            projects.remove(projectId, fresh);
+            throw e;
+        }
+        return fresh;
+    }
+
+    private void compactIfNeeded(ProjectSuggestions suggestions) {
+        if (suggestions.loaded && suggestions.state.changes().size() > MAX_CHANGES) {
+            onRefreshThread(suggestions, suggestions::compact);
+        }
+    }
+
+    // At most one reload or compaction per project at a time
+    private void onRefreshThread(ProjectSuggestions suggestions, Runnable task) {
+        if (!suggestions.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Refreshing typeahead suggestions failed: {}", e.getMessage());
+                } finally {
+                    suggestions.rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            suggestions.rebuilding.set(false);
+        }
+    }
+
+    // Null when the project is gone
+    private Snapshot read(Long projectId) {
+        String projectKey = jdbcTemplate.query("SELECT project_key FROM projects WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, projectId);
+        if (projectKey == null) {
+            return null;
+        }
+        Map<Long, Member> members = new HashMap<>();
+        jdbcTemplate.query("SELECT u.id, u.name, u.email FROM project_members m JOIN users u ON u.id = m.user_id " +
+                        "WHERE m.project_id = ?",
+                rs -> {
+                    long id = rs.getLong("id");
+                    members.put(id, new Member(id, rs.getString("name"), rs.getString("email")));
+                }, projectId);
+
+        List<IssueEntry> issues = new ArrayList<>();
+        Map<Long, List<String>> tags = new HashMap<>();
+        shardTransactions.inShard(shardRouter.shardOf(projectId), true, () -> {
+            jdbcTemplate.query("SELECT t.issue_id, t.tag FROM issue_tags t JOIN issues i ON i.id = t.issue_id " +
+                            "WHERE i.project_id = ?",
+                    rs -> {
+                        tags.computeIfAbsent(rs.getLong("issue_id"), id -> new ArrayList<>()).add(rs.getString("tag"));
+                    }, projectId);
+            jdbcTemplate.query("SELECT id, issue_number, title, version FROM issues WHERE project_id = ?",
+                    rs -> {
+                        long id = rs.getLong("id");
+                        issues.add(new IssueEntry(id, rs.getLong("issue_number"), rs.getString("title"),
+                                tags.getOrDefault(id, List.of()), rs.getLong("version")));
+                    }, projectId);
+            return null;
+        });
+        return Snapshot.of(projectKey, issues, members);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Offsets of the first MAX_TITLE_WORDS words of a lower-cased, stripped text
+    private static List<Integer> wordStarts(String lower) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < lower.length() && i <= PrefixIndex.MAX_OFFSET && starts.size() < MAX_TITLE_WORDS; i++) {
+            if (!Character.isWhitespace(lower.charAt(i)) && (i == 0 || Character.isWhitespace(lower.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String issueKey(String projectKey, IssueEntry issue) {
+        return (projectKey + "-" + issue.number()).toLowerCase(Locale.ROOT);
+    }
+
+    // Lower-cased for matching, then the tag as written
+    private static String tagKey(String tag) {
+        String lower = tag.toLowerCase(Locale.ROOT);
+        return lower.substring(0, Math.min(lower.length(), MAX_KEY_LENGTH)) + SEPARATOR + tag;
+    }
+
+    private record IssueEntry(long id, long number, String title, List<String> tags, long version) {
+    }
+
+    private record Member(long id, String name, String email) {
+    }
+
+    // A write applied after commit at the given time; issue is null for a removal
+    private record Change(long issueId, IssueEntry issue, long at) {
+    }
+
+    // Sorted keys over lower-cased texts. An entry packs the text's index and the
+    // offset its key starts at; entries sort by the text from there on (cut at
+    // MAX_KEY_LENGTH), then by owner, so equal keys stay distinct and together.
+    private static final class PrefixIndex {
+        static final int MAX_OFFSET = 0xFFFF;
+
+        private final String[] texts;
+        private final long[] owners;
+        private final long[] entries;
+
+        private PrefixIndex(String[] texts, long[] owners, Long[] unsorted) {
+            this.texts = texts;
+            this.owners = owners;
+            Arrays.sort(unsorted, this::compare);
+            this.entries = new long[unsorted.length];
+            for (int i = 0; i < unsorted.length; i++) {
+                entries[i] = unsorted[i];
+            }
+        }
+
+        // Owners of the first SCAN_LIMIT keys starting with prefix, without repeats
+        Set<Long> scan(String prefix) {
+            Set<Long> found = new LinkedHashSet<>();
+            for (int i = lowerBound(prefix), scanned = 0; i < entries.length && scanned < SCAN_LIMIT; i++, scanned++) {
+                int text = (int) (entries[i] >>> 16);
+                if (!texts[text].startsWith(prefix, (int) (entries[i] & MAX_OFFSET))) {
+                    break;
+                }
+                found.add(owners[text]);
+            }
+            return found;
+        }
+
+        // The first entry whose key is not below prefix
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                long entry = entries[middle];
+                if (compareKeys(texts[(int) (entry >>> 16)], (int) (entry & MAX_OFFSET), prefix, 0) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int compare(long a, long b) {
+            int textA = (int) (a >>> 16);
+            int textB = (int) (b >>> 16);
+            int cmp = compareKeys(texts[textA], (int) (a & MAX_OFFSET), texts[textB], (int) (b & MAX_OFFSET));
+            return cmp != 0 ? cmp : Long.compare(owners[textA], owners[textB]);
+        }
+
+        private static int compareKeys(String a, int fromA, String b, int fromB) {
+            int lengthA = Math.min(a.length() - fromA, MAX_KEY_LENGTH);
+            int lengthB = Math.min(b.length() - fromB, MAX_KEY_LENGTH);
+            for (int i = 0; i < Math.min(lengthA, lengthB); i++) {
+                int cmp = Character.compare(a.charAt(fromA + i), b.charAt(fromB + i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(lengthA, lengthB);
+        }
+
+        private static final class Builder {
+            private final List<String> texts = new ArrayList<>();
+            private final List<Long> owners = new ArrayList<>();
+            private final List<Long> entries = new ArrayList<>();
+
+            // A key at every word start of the text, or only at its start
+            Builder add(long owner, String lower, boolean everyWord) {
+                long text = texts.size();
+                texts.add(lower);
+                owners.add(owner);
+                for (int offset : everyWord ? wordStarts(lower) : List.of(0)) {
+                    entries.add(text << 16 | offset);
+                }
+                return this;
+            }
+
+            PrefixIndex build() {
+                long[] ownerArray = new long[owners.size()];
+                for (int i = 0; i < ownerArray.length; i++) {
+                    ownerArray[i] = owners.get(i);
+                }
+                return new PrefixIndex(texts.toArray(new String[0]), ownerArray, entries.toArray(new Long[0]));
+            }
+        }
+    }
+
+    // Never changed once built
+    private record Snapshot(String projectKey, Map<Long, IssueEntry> issues, PrefixIndex issueIndex,
+                            String[] tagKeys, int[] tagCounts, Map<Long, Member> members, PrefixIndex memberIndex) {
+
+        static final Snapshot EMPTY = of("", List.of(), Map.of());
+
+        static Snapshot of(String projectKey, Collection<IssueEntry> issues, Map<Long, Member> members) {
+            Map<Long, IssueEntry> byId = new HashMap<>();
+            PrefixIndex.Builder issueIndex = new PrefixIndex.Builder();
+            TreeMap<String, Integer> tags = new TreeMap<>();
+            for (IssueEntry issue : issues) {
+                byId.put(issue.id(), issue);
+                issueIndex.add(issue.id(), lower(issue.title()), true).add(issue.id(), issueKey(projectKey, issue), false);
+                for (String tag : new HashSet<>(issue.tags())) {
+                    tags.merge(tagKey(tag), 1, Integer::sum);
+                }
+            }
+            PrefixIndex.Builder memberIndex = new PrefixIndex.Builder();
+            for (Member member : members.values()) {
+                memberIndex.add(member.id(), lower(member.name()), true).add(member.id(), lower(member.email()), false);
+            }
+            return new Snapshot(projectKey, byId, issueIndex.build(), tags.keySet().toArray(new String[0]),
+                    tags.values().stream().mapToInt(Integer::intValue).toArray(), Map.copyOf(members), memberIndex.build());
+        }
+
+        int tagCount(String key) {
+            int index = Arrays.binarySearch(tagKeys, key);
+            return index >= 0 ? tagCounts[index] : 0;
+        }
+
+        // Tag keys and counts of the first SCAN_LIMIT tags starting with prefix
+        Map<String, Integer> tags(String prefix) {
+            Map<String, Integer> found = new TreeMap<>();
+            int index = Arrays.binarySearch(tagKeys, prefix);
+            for (int i = index >= 0 ? index : -index - 1; i < tagKeys.length && found.size() < SCAN_LIMIT; i++) {
+                if (!tagKeys[i].startsWith(prefix)) {
+                    break;
+                }
+                found.put(tagKeys[i], tagCounts[i]);
+            }
+            return found;
+        }
+
+        List<Suggestion> members(String prefix, int limit) {
+            return memberIndex.scan(prefix).stream()
+                    .map(members::get)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(Member::name, String.CASE_INSENSITIVE_ORDER))
+                    .limit(limit)
+                    .map(member -> new Suggestion(member.id(), member.name(), member.email(), null))
+                    .toList();
+        }
+    }
+
+    // A snapshot and the issue writes made since it was built; replaced whole, read without locking
+    private record State(Snapshot base, Map<Long, Change> changes) {
+
+        IssueEntry issue(long issueId) {
+            Change change = changes.get(issueId);
+            return change != null ? change.issue() : base.issues().get(issueId);
+        }
+
+        // Title matches first, then issue keys; newest first within each
+        List<Suggestion> issues(String prefix, int limit) {
+            List<IssueEntry> found = new ArrayList<>();
+            for (Long issueId : base.issueIndex().scan(prefix)) {
+                if (!changes.containsKey(issueId)) {
+                    found.add(base.issues().get(issueId));
+                }
+            }
+            for (Change change : changes.values()) {
+                if (change.issue() != null && matches(change.issue(), prefix)) {
+                    found.add(change.issue());
+                }
+            }
+            Set<Long> titleStarts = new HashSet<>();
+            for (IssueEntry issue : found) {
+                if (lower(issue.title()).startsWith(prefix)) {
+                    titleStarts.add(issue.id());
+                }
+            }
+            found.sort(Comparator.comparing((IssueEntry issue) -> !titleStarts.contains(issue.id()))
+                    .thenComparing(Comparator.comparingLong(IssueEntry::id).reversed()));
+            return found.stream()
+                    .limit(limit)
+                    .map(issue -> new Suggestion(issue.id(), issue.title(), base.projectKey() + "-" + issue.number(), null))
+                    .toList();
+        }
+
+        // Most used first
+        List<Suggestion> tags(String prefix, int limit) {
+            Map<String, Integer> counts = base.tags(prefix);
+            for (Change change : changes.values()) {
+                IssueEntry before = base.issues().get(change.issueId());
+                if (before != null) {
+                    countTags(counts, before, prefix, -1);
+                }
+                if (change.issue() != null) {
+                    countTags(counts, change.issue(), prefix, 1);
+                }
+            }
+            List<Suggestion> found = new ArrayList<>();
+            counts.forEach((key, count) -> {
+                if (count > 0) {
+                    found.add(new Suggestion(null, key.substring(key.indexOf(SEPARATOR) + 1), null, count));
+                }
+            });
+            found.sort(Comparator.comparing(Suggestion::getCount).reversed().thenComparing(Suggestion::getText));
+            return found.stream().limit(limit).toList();
+        }
+
+        private void countTags(Map<String, Integer> counts, IssueEntry issue, String prefix, int delta) {
+            for (String tag : new HashSet<>(issue.tags())) {
+                String key = tagKey(tag);
+                if (key.startsWith(prefix)) {
+                    // A tag past the scanned ones still starts from its full count
+                    counts.put(key, (counts.containsKey(key) ? counts.get(key) : base.tagCount(key)) + delta);
+                }
+            }
+        }
+
+        private boolean matches(IssueEntry issue, String prefix) {
+            String title = lower(issue.title());
+            for (int offset : wordStarts(title)) {
+                if (title.startsWith(prefix, offset)) {
+                    return true;
+                }
+            }
+            return issueKey(base.projectKey(), issue).startsWith(prefix);
+        }
+    }
+
+    private static final class ProjectSuggestions {
+        private volatile State state = new State(Snapshot.EMPTY, Map.of());
+        private volatile boolean loaded;
+        private volatile long loadedAt;
+        private volatile long lastUsed;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+        // A copy older than the one held is ignored
+        synchronized void putIssue(IssueEntry issue) {
+            IssueEntry previous = state.issue(issue.id());
+            if (previous != null && previous.version() >= issue.version()) {
+                return;
+            }
+            change(new Change(issue.id(), issue, System.currentTimeMillis()));
+        }
+
+        synchronized void removeIssue(Long issueId) {
+            change(new Change(issueId, null, System.currentTimeMillis()));
+        }
+
+        // Copy on write: the change map stays small because compaction folds it into the snapshot
+        private void change(Change change) {
+            Map<Long, Change> changes = new HashMap<>(state.changes());
+            changes.put(change.issueId(), change);
+            state = new State(state.base(), changes);
+        }
+
+        // Keeps the changes the new snapshot does not have
+        synchronized void replaceBase(Snapshot base, Predicate<Change> inBase) {
+            Map<Long, Change> changes = new HashMap<>();
+            for (Change change : state.changes().values()) {
+                if (!inBase.test(change)) {
+                    changes.put(change.issueId(), change);
+                }
+            }
+            state = new State(base, changes);
+        }
+
+        // Folds the current changes into a new snapshot, built without holding the lock
+        void compact() {
+            State folding = state;
+            Map<Long, IssueEntry> issues = new HashMap<>(folding.base().issues());
+            for (Change change : folding.changes().values()) {
+                if (change.issue() != null) {
+                    issues.put(change.issueId(), change.issue());
+                } else {
+                    issues.remove(change.issueId());
+                }
+            }
+            Snapshot base = Snapshot.of(folding.base().projectKey(), issues.values(), folding.base().members());
+            replaceBase(base, change -> folding.changes().get(change.issueId()) == change);
+        }
+    }
+}
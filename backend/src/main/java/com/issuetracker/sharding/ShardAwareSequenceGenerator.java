@@ -0,0 +1,25 @@
+package com.issuetracker.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Pooled sequence ids for issues. Every shard has its own issues_seq, started
+// in its id range by ShardingConfig, so each shard also needs its own in-memory
+// block: a block fetched on shard 1 must not hand out ids on shard 2, or
+// ShardRouter.originShardOf would point at the wrong shard.
+public class ShardAwareSequenceGenerator extends SequenceStyleGenerator {
+
+    private final ConcurrentHashMap<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Integer shardId = ShardContext.current();
+        Optimizer optimizer = optimizers.computeIfAbsent(shardId != null ? shardId : 0, id ->
+                new PooledLoOptimizer(getIdentifierType().getReturnedClass(), getDatabaseStructure().getIncrementSize()));
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+}
@@ -0,0 +1,28 @@
+package com.issuetracker.sharding;
+
+// Shard the current thread's next transaction should run on; null means the
+// directory database (shard 0). Set only through ShardTransactions.
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer set(Integer shardId) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shardId);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.issuetracker.sharding;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Connection pools of all shards, index = shard id. Shard 0 is the directory
+// database (spring.datasource), which also keeps users, projects and members.
+public class ShardDataSources implements AutoCloseable {
+    private final List<DataSource> shards;
+
+    public ShardDataSources(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public DataSource get(int shardId) {
+        if (shardId < 0 || shardId >= shards.size()) {
+            throw new IllegalArgumentException("Unknown shard " + shardId);
+        }
+        return shards.get(shardId);
+    }
+
+    public List<DataSource> all() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
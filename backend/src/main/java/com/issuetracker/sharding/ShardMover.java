@@ -0,0 +1,255 @@
+package com.issuetracker.sharding;
+
+import com.issuetracker.model.ProjectShard;
+import com.issuetracker.model.enums.ShardStatus;
+import com.issuetracker.repository.ProjectShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Moves a project's issues to another shard while the project stays online:
+//  1. COPYING: bulk copy while reads and writes continue on the source
+//  2. MOVING:  one directory transaction holding the exclusive lock, so it waits
+//              for in-flight writes and new writes wait for it. Rows whose
+//              version or rank changed since the bulk copy are re-copied (a
+//              board drag or a rebalance moves an issue without a new version),
+//              rows deleted meanwhile are dropped, and the project is switched
+//              to the target
+//  3. ACTIVE on the target; the source copy is deleted after a grace period so
+//     reads that resolved the old shard just before the switch still succeed
+@Component
+@ConditionalOnProperty(name = "app.sharding.shard-urls")
+public class ShardMover implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMover.class);
+    private static final int BATCH_SIZE = 500;
+    // Live and archived issues move together
+    private static final List<IssueTables> TABLES = List.of(
+            new IssueTables("issues", "issue_tags"),
+            new IssueTables("archived_issues", "archived_issue_tags"));
+
+    private final ShardDataSources shards;
+    private final ProjectShardRepository projectShardRepository;
+    private final TransactionTemplate directoryTransaction;
+    private final long cleanupDelayMillis;
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-move-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardMover(ShardDataSources shards, ProjectShardRepository projectShardRepository,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${app.sharding.move-cleanup-delay-ms:5000}") long cleanupDelayMillis) {
+        this.shards = shards;
+        this.projectShardRepository = projectShardRepository;
+        this.directoryTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupDelayMillis = cleanupDelayMillis;
+    }
+
+    public void move(Long projectId, int targetShard) {
+        switchOver(copy(projectId, targetShard));
+    }
+
+    // Step 1; the project keeps taking writes on the source afterwards
+    Move copy(Long projectId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new RuntimeException("Unknown shard " + targetShard);
+        }
+        int sourceShard = beginCopy(projectId, targetShard);
+        Move move = new Move(projectId, sourceShard, targetShard,
+                new JdbcTemplate(shards.get(sourceShard)), new JdbcTemplate(shards.get(targetShard)));
+        try {
+            // Leftovers of an earlier aborted move would collide with the copy
+            deleteProjectRows(move.target(), projectId);
+            for (IssueTables tables : TABLES) {
+                copyIssues(move.source(), move.target(), tables, projectId,
+                        versions(move.source(), tables, projectId).keySet());
+            }
+        } catch (RuntimeException e) {
+            abort(move);
+            throw e;
+        }
+        return move;
+    }
+
+    // Steps 2 and 3
+    void switchOver(Move move) {
+        try {
+            directoryTransaction.executeWithoutResult(status -> {
+                ProjectShard entry = projectShardRepository.findForMove(move.projectId()).orElseThrow();
+                entry.setStatus(ShardStatus.MOVING);
+                projectShardRepository.flush();
+                for (IssueTables tables : TABLES) {
+                    copyChanges(move.source(), move.target(), tables, move.projectId());
+                }
+                entry.setShardId(move.targetShard());
+                entry.setStatus(ShardStatus.ACTIVE);
+            });
+        } catch (RuntimeException e) {
+            abort(move);
+            throw e;
+        }
+
+        log.info("Moved project {} from shard {} to shard {}", move.projectId(), move.sourceShard(), move.targetShard());
+        cleanupExecutor.schedule(() -> deleteProjectRows(move.source(), move.projectId()),
+                cleanupDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void abort(Move move) {
+        setStatus(move.projectId(), ShardStatus.ACTIVE);
+        deleteProjectRows(move.target(), move.projectId());
+    }
+
+    private int beginCopy(Long projectId, int targetShard) {
+        return directoryTransaction.execute(status -> {
+            ProjectShard entry = projectShardRepository.findForMove(projectId).orElseGet(() -> {
+                // Projects created before sharding was enabled live on shard 0
+                ProjectShard created = new ProjectShard();
+                created.setProjectId(projectId);
+                created.setShardId(0);
+                return created;
+            });
+            if (entry.getStatus() != ShardStatus.ACTIVE) {
+                throw new RuntimeException("Project is already being moved");
+            }
+            if (entry.getShardId() == targetShard) {
+                throw new RuntimeException("Project is already on shard " + targetShard);
+            }
+            entry.setStatus(ShardStatus.COPYING);
+            projectShardRepository.save(entry);
+            return entry.getShardId();
+        });
+    }
+
+    private void setStatus(Long projectId, ShardStatus status) {
+        directoryTransaction.executeWithoutResult(tx ->
+                projectShardRepository.findForMove(projectId).orElseThrow().setStatus(status));
+    }
+
+    private void copyChanges(JdbcTemplate source, JdbcTemplate target, IssueTables tables, Long projectId) {
+        Map<Long, RowVersion> sourceVersions = versions(source, tables, projectId);
+        Map<Long, RowVersion> targetVersions = versions(target, tables, projectId);
+        List<Long> changed = sourceVersions.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), targetVersions.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        List<Long> removed = targetVersions.keySet().stream()
+                .filter(id -> !sourceVersions.containsKey(id))
+                .collect(Collectors.toList());
+        deleteIssues(target, tables, changed);
+        deleteIssues(target, tables, removed);
+        copyIssues(source, target, tables, projectId, changed);
+    }
+
+    private Map<Long, RowVersion> versions(JdbcTemplate jdbc, IssueTables tables, Long projectId) {
+        Map<Long, RowVersion> versions = new HashMap<>();
+        jdbc.query("SELECT id, version, issue_rank FROM " + tables.rows() + " WHERE project_id = ?",
+                rs -> {
+                    versions.put(rs.getLong(1), new RowVersion(rs.getObject(2, Long.class), rs.getString(3)));
+                }, projectId);
+        return versions;
+    }
+
+    // Copies rows column by column as they are, ids included, so the copier
+    // keeps working when columns are added to the issue tables
+    private void copyIssues(JdbcTemplate source, JdbcTemplate target, IssueTables tables, Long projectId,
+                            Iterable<Long> ids) {
+        for (List<Long> batch : batches(ids)) {
+            String in = placeholders(batch.size());
+            copyRows(target, tables.rows(), source.queryForList(
+                    "SELECT * FROM " + tables.rows() + " WHERE project_id = ? AND id IN (" + in + ")",
+                    prepend(projectId, batch)));
+            copyRows(target, tables.tags(), source.queryForList(
+                    "SELECT * FROM " + tables.tags() + " WHERE issue_id IN (" + in + ")", batch.toArray()));
+        }
+    }
+
+    private void copyRows(JdbcTemplate target, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns.size()) + ")";
+        target.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList()));
+    }
+
+    private void deleteIssues(JdbcTemplate jdbc, IssueTables tables, List<Long> ids) {
+        for (List<Long> batch : batches(ids)) {
+            String in = placeholders(batch.size());
+            jdbc.update("DELETE FROM " + tables.tags() + " WHERE issue_id IN (" + in + ")", batch.toArray());
+            jdbc.update("DELETE FROM " + tables.rows() + " WHERE id IN (" + in + ")", batch.toArray());
+        }
+    }
+
+    private void deleteProjectRows(JdbcTemplate jdbc, Long projectId) {
+        try {
+            for (IssueTables tables : TABLES) {
+                jdbc.update("DELETE FROM " + tables.tags() + " WHERE issue_id IN (SELECT id FROM " + tables.rows()
+                        + " WHERE project_id = ?)", projectId);
+                jdbc.update("DELETE FROM " + tables.rows() + " WHERE project_id = ?", projectId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not delete rows of project {} from its old shard: {}", projectId, e.getMessage());
+        }
+    }
+
+    private static List<List<Long>> batches(Iterable<Long> ids) {
+        List<Long> sorted = new ArrayList<>();
+        ids.forEach(sorted::add);
+        Collections.sort(sorted);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i += BATCH_SIZE) {
+            batches.add(sorted.subList(i, Math.min(i + BATCH_SIZE, sorted.size())));
+        }
+        return batches;
+    }
+
+    private static Object[] prepend(Object first, List<Long> rest) {
+        Object[] args = new Object[rest.size() + 1];
+        args[0] = first;
+        for (int i = 0; i < rest.size(); i++) {
+            args[i + 1] = rest.get(i);
+        }
+        return args;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record IssueTables(String rows, String tags) {
+    }
+
+    // Rank writes leave version alone, so both tell whether a row changed
+    private record RowVersion(Long version, String rank) {
+    }
+
+    record Move(Long projectId, int sourceShard, int targetShard, JdbcTemplate source, JdbcTemplate target) {
+    }
+
+    @Override
+    public void destroy() {
+        cleanupExecutor.shutdown();
+    }
+}
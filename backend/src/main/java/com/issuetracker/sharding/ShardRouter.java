@@ -0,0 +1,95 @@
+package com.issuetracker.sharding;
+
+import com.issuetracker.exception.ServiceUnavailableException;
+import com.issuetracker.model.ProjectShard;
+import com.issuetracker.model.enums.ShardStatus;
+import com.issuetracker.repository.ProjectShardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// projectId -> shard, from the project_shards directory. Without
+// app.sharding.shard-urls there is a single shard and no directory lookups.
+@Component
+public class ShardRouter {
+
+    // Each shard allocates issue ids from its own range (see ShardingConfig),
+    // so an id tells which shard created it
+    public static final long ISSUE_ID_SPAN = 1_000_000_000_000L;
+
+    private final ProjectShardRepository projectShardRepository;
+    private final int shardCount;
+
+    public ShardRouter(ProjectShardRepository projectShardRepository,
+                       @Value("${app.sharding.shard-urls:}") List<String> shardUrls) {
+        this.projectShardRepository = projectShardRepository;
+        this.shardCount = 1 + shardUrls.size();
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(Long projectId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        return projectShardRepository.findById(projectId)
+                .map(ProjectShard::getShardId)
+                .orElse(0);
+    }
+
+    // One directory query for many projects; projects without an entry are on shard 0
+    public Map<Long, Integer> shardsOf(Collection<Long> projectIds) {
+        Map<Long, Integer> shards = new HashMap<>();
+        for (Long projectId : projectIds) {
+            shards.put(projectId, 0);
+        }
+        if (isSharded() && !projectIds.isEmpty()) {
+            for (ProjectShard entry : projectShardRepository.findAllById(projectIds)) {
+                shards.put(entry.getProjectId(), entry.getShardId());
+            }
+        }
+        return shards;
+    }
+
+    // For issue writes, inside the caller's (directory) transaction: the shared
+    // lock makes a project move wait until the write has committed
+    public int lockForWrite(Long projectId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        return projectShardRepository.findForWrite(projectId)
+                .map(entry -> {
+                    if (entry.getStatus() == ShardStatus.MOVING) {
+                        throw new ServiceUnavailableException("Project is being moved to another shard, retry shortly");
+                    }
+                    return entry.getShardId();
+                })
+                .orElse(0);
+    }
+
+    public void assignShard(Long projectId) {
+        if (!isSharded()) {
+            return;
+        }
+        ProjectShard entry = new ProjectShard();
+        entry.setProjectId(projectId);
+        entry.setShardId(Math.floorMod(projectId, shardCount));
+        projectShardRepository.save(entry);
+    }
+
+    // Where the issue was created; the project may have moved since
+    public int originShardOf(Long issueId) {
+        int shardId = (int) (issueId / ISSUE_ID_SPAN);
+        return shardId < shardCount ? shardId : 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.issuetracker.sharding;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The application DataSource when sharding is enabled. The shard is picked from
+// ShardContext when a transaction issues its first statement (hence the lazy
+// proxy), so one EntityManagerFactory serves the directory and every shard.
+public class ShardRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public ShardRoutingDataSource(ShardDataSources shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ShardContext.current();
+            }
+        };
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(shards.get(0));
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+}
@@ -0,0 +1,126 @@
+package com.issuetracker.sharding;
+
+import com.issuetracker.async.RequestDeadline;
+import com.issuetracker.monitoring.RequestTrace;
+import com.issuetracker.monitoring.SqlStatementStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Runs repository work on a shard. When sharded, the work gets its own
+// transaction (REQUIRES_NEW) bound to that shard, so the caller's transaction
+// stays on the directory. Unsharded, the work just joins the caller's transaction.
+@Component
+public class ShardTransactions implements DisposableBean {
+
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardTransactions(ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.shardRouter = shardRouter;
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+
+        if (shardRouter.isSharded()) {
+            AtomicInteger threads = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(shardRouter.getShardCount() * 2, runnable -> {
+                Thread thread = new Thread(runnable, "shard-fan-out-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public <T> T inShard(int shardId, boolean readOnlyTransaction, Supplier<T> work) {
+        if (!shardRouter.isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.set(shardId);
+        try {
+            return (readOnlyTransaction ? readOnly : readWrite).execute(status -> work.get());
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    // Runs work on every shard in parallel; results are in shard order. The
+    // request's deadline, if any, applies to the statements on every shard, and
+    // they are counted and traced as part of the request.
+    public <T> List<T> onAllShards(boolean readOnlyTransaction, IntFunction<T> work) {
+        if (!shardRouter.isSharded()) {
+            return List.of(work.apply(0));
+        }
+        RequestDeadline deadline = RequestDeadline.current();
+        SqlStatementStats stats = SqlStatementStats.current();
+        RequestTrace trace = RequestTrace.current();
+        // The shards run at the same time, so each gets its own counters, added
+        // to the request's once every shard is done
+        int shardCount = shardRouter.getShardCount();
+        SqlStatementStats[] shardStats = new SqlStatementStats[shardCount];
+        RequestTrace[] shardTraces = new RequestTrace[shardCount];
+        for (int shardId = 0; shardId < shardCount; shardId++) {
+            shardStats[shardId] = stats != null ? new SqlStatementStats() : null;
+            shardTraces[shardId] = trace != null ? new RequestTrace() : null;
+        }
+
+        List<CompletableFuture<T>> futures = IntStream.range(0, shardCount)
+                .mapToObj(shardId -> CompletableFuture.supplyAsync(() -> {
+                    RequestDeadline previous = RequestDeadline.bind(deadline);
+                    SqlStatementStats.bind(shardStats[shardId]);
+                    RequestTrace.bind(shardTraces[shardId]);
+                    try {
+                        return inShard(shardId, readOnlyTransaction, () -> work.apply(shardId));
+                    } finally {
+                        RequestTrace.clear();
+                        SqlStatementStats.clear();
+                        RequestDeadline.restore(previous);
+                    }
+                }, fanOutExecutor))
+                .toList();
+        try {
+            // Completes once every shard has, failed or not
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            for (int shardId = 0; shardId < shardCount; shardId++) {
+                if (stats != null) {
+                    stats.add(shardStats[shardId]);
+                }
+                if (trace != null) {
+                    trace.addStatements(shardTraces[shardId]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
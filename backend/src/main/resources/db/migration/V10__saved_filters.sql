@@ -0,0 +1,31 @@
+-- Saved filters and their incrementally maintained match sets (see
+-- SavedFilterIndex). Directory only; issue_id has no foreign key because the
+-- issue may live on a shard.
+
+CREATE SEQUENCE saved_filters_seq INCREMENT BY 50;
+
+CREATE TABLE saved_filters (
+    id          BIGINT       PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    project_id  BIGINT       NOT NULL,
+    name        VARCHAR(100) NOT NULL,
+    status      VARCHAR(255) CHECK (status IN ('OPEN', 'IN_PROGRESS', 'CLOSED')),
+    priority    VARCHAR(255) CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    assignee_id BIGINT,
+    search_text VARCHAR(255),
+    match_count BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_saved_filters_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_saved_filters_project FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_saved_filter_user ON saved_filters (user_id);
+CREATE INDEX idx_saved_filter_project ON saved_filters (project_id);
+
+-- The primary key serves a view's page (newest issue ids first)
+CREATE TABLE saved_filter_matches (
+    filter_id BIGINT NOT NULL,
+    issue_id  BIGINT NOT NULL,
+    PRIMARY KEY (filter_id, issue_id),
+    CONSTRAINT fk_saved_filter_matches_filter FOREIGN KEY (filter_id) REFERENCES saved_filters (id) ON DELETE CASCADE
+);
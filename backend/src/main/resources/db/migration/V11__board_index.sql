@@ -0,0 +1,9 @@
+-- The board reads the newest issues of each status column and counts the rest
+-- (IssueRepository.findBoard). With the id in the index that is an index-only
+-- scan in column order. It also serves everything idx_issue_project_status
+-- did, which is dropped. Built CONCURRENTLY, see V3.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_project_status_id
+    ON issues (project_id, status, id DESC) WITH (fillfactor = 90);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_issue_project_status;
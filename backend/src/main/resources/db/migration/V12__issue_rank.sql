@@ -0,0 +1,47 @@
+-- Manual order of issues within a status column. Ranks are fractional keys
+-- (see RankKeys): a move writes the moved issue's key only. COLLATE "C"
+-- makes the database compare keys byte by byte, the order they are made for.
+-- Existing issues are ranked newest first per column, the board's order so far:
+-- the key is the fixed-width hex of MAX_BIGINT - id, so a higher id sorts first
+-- and each row's key depends on its id only. Hex digits are valid key digits;
+-- the trailing 'i' keeps keys from ending in '0'.
+-- Runs outside a transaction (see the .conf file): the backfill commits per
+-- batch of ids, so it never holds locks on a whole table, and NOT NULL is
+-- proven by a validated CHECK instead of a scan under an exclusive lock. The
+-- index change is V16. Every step can be repeated after a failure.
+
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS issue_rank VARCHAR(255) COLLATE "C";
+ALTER TABLE archived_issues ADD COLUMN IF NOT EXISTS issue_rank VARCHAR(255) COLLATE "C";
+
+DO $$
+DECLARE
+    tbl     TEXT;
+    last_id BIGINT;
+    next_id BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['issues', 'archived_issues'] LOOP
+        last_id := -1;
+        LOOP
+            EXECUTE format('SELECT MAX(id) FROM (SELECT id FROM %I WHERE id > $1 ORDER BY id LIMIT 10000) batch', tbl)
+                INTO next_id USING last_id;
+            EXIT WHEN next_id IS NULL;
+            EXECUTE format('UPDATE %I SET issue_rank = lpad(to_hex(9223372036854775807 - id), 16, ''0'') || ''i'' '
+                           'WHERE id > $1 AND id <= $2 AND issue_rank IS NULL', tbl)
+                USING last_id, next_id;
+            COMMIT;
+            last_id := next_id;
+        END LOOP;
+    END LOOP;
+END $$;
+
+ALTER TABLE issues DROP CONSTRAINT IF EXISTS issues_issue_rank_not_null;
+ALTER TABLE issues ADD CONSTRAINT issues_issue_rank_not_null CHECK (issue_rank IS NOT NULL) NOT VALID;
+ALTER TABLE issues VALIDATE CONSTRAINT issues_issue_rank_not_null;
+ALTER TABLE issues ALTER COLUMN issue_rank SET NOT NULL;
+ALTER TABLE issues DROP CONSTRAINT issues_issue_rank_not_null;
+
+ALTER TABLE archived_issues DROP CONSTRAINT IF EXISTS archived_issues_issue_rank_not_null;
+ALTER TABLE archived_issues ADD CONSTRAINT archived_issues_issue_rank_not_null CHECK (issue_rank IS NOT NULL) NOT VALID;
+ALTER TABLE archived_issues VALIDATE CONSTRAINT archived_issues_issue_rank_not_null;
+ALTER TABLE archived_issues ALTER COLUMN issue_rank SET NOT NULL;
+ALTER TABLE archived_issues DROP CONSTRAINT archived_issues_issue_rank_not_null;
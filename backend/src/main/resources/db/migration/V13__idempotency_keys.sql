@@ -0,0 +1,17 @@
+-- Requests sent with an Idempotency-Key header (see IdempotencyStore). A row
+-- is inserted before the request runs and gets the response once it is done;
+-- status_code is NULL until then. Directory only; rows expire after
+-- app.idempotency.ttl-ms.
+
+CREATE TABLE idempotency_keys (
+    principal       VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(255),
+    body            TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (principal, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_created ON idempotency_keys (created_at);
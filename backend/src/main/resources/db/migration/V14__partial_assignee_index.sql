@@ -0,0 +1,10 @@
+-- Databases baselined at V1 already had Hibernate's idx_issue_assignee on all
+-- rows, so V3's CREATE INDEX IF NOT EXISTS kept it instead of the partial
+-- index. Replace it by the partial index under a new name, so this applies
+-- the same way to baselined and migrated databases. Built CONCURRENTLY, see V3.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_assignee_set
+    ON issues (assignee_id)
+    WHERE assignee_id IS NOT NULL;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_issue_assignee;
@@ -0,0 +1,7 @@
+-- The board reads columns in rank order (V12); this replaces the index from
+-- V11. Built CONCURRENTLY, see V3.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_project_status_rank
+    ON issues (project_id, status, issue_rank, id DESC) WITH (fillfactor = 90);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_issue_project_status_id;
@@ -0,0 +1,6 @@
+-- SearchIndexer polls every shard for issues changed since its checkpoint
+-- (updated_at >= ?); without this each poll is a scan of the table. Built
+-- CONCURRENTLY, see V3.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_updated_at
+    ON issues (updated_at);
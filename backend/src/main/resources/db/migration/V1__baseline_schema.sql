@@ -0,0 +1,58 @@
+-- Baseline schema, equivalent to what Hibernate generated from the entities
+-- while the application ran with ddl-auto=create-drop.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE projects (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    owner_id   BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_projects_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE TABLE project_members (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('OWNER', 'MAINTAINER', 'REPORTER')),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_project_members_project_user UNIQUE (project_id, user_id)
+);
+
+CREATE TABLE issues (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id  BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'IN_PROGRESS', 'CLOSED')),
+    priority    VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    assignee_id BIGINT,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     BIGINT,
+    CONSTRAINT fk_issues_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_issues_assignee FOREIGN KEY (assignee_id) REFERENCES users (id)
+);
+
+CREATE TABLE issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255),
+    CONSTRAINT fk_issue_tags_issue FOREIGN KEY (issue_id) REFERENCES issues (id)
+);
+
+CREATE INDEX idx_user_email ON users (email);
+CREATE INDEX idx_project_owner ON projects (owner_id);
+CREATE INDEX idx_pm_project ON project_members (project_id);
+CREATE INDEX idx_pm_user ON project_members (user_id);
+CREATE INDEX idx_issue_project ON issues (project_id);
+CREATE INDEX idx_issue_status ON issues (status);
+CREATE INDEX idx_issue_priority ON issues (priority);
+CREATE INDEX idx_issue_assignee ON issues (assignee_id);
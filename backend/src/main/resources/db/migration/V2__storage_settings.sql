@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Issues are updated far more often than they are inserted; leaving free
+-- space on each page keeps status/priority updates HOT (no index churn).
+ALTER TABLE issues SET (fillfactor = 85);
@@ -0,0 +1,33 @@
+-- Indexes are built CONCURRENTLY so they can be rolled out against a live
+-- database without blocking writes. Flyway runs this migration outside a
+-- transaction because of that, hence IF NOT EXISTS to make a retry after a
+-- failed build safe.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_project_owner
+    ON projects (owner_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pm_user
+    ON project_members (user_id);
+
+-- Default list ordering: newest first within a project
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_project_created
+    ON issues (project_id, created_at DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_project_status
+    ON issues (project_id, status) WITH (fillfactor = 90);
+
+-- Boards and default views only look at work that is not closed yet
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_open
+    ON issues (project_id, priority, created_at DESC)
+    WHERE status <> 'CLOSED';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_assignee
+    ON issues (assignee_id)
+    WHERE assignee_id IS NOT NULL;
+
+-- Case-insensitive substring search on titles (findByFilters)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_title_lower_trgm
+    ON issues USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_tags_issue
+    ON issue_tags (issue_id);
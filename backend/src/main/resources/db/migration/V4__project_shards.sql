@@ -0,0 +1,10 @@
+-- Shard directory: project -> shard holding its issues. Only used when
+-- app.sharding.shard-urls is set; projects without a row live on shard 0.
+
+CREATE TABLE project_shards (
+    project_id BIGINT       PRIMARY KEY,
+    shard_id   INTEGER      NOT NULL,
+    status     VARCHAR(255) NOT NULL CHECK (status IN ('ACTIVE', 'COPYING', 'MOVING')),
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_project_shards_project FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE
+);
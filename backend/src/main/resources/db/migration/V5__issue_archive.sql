@@ -0,0 +1,28 @@
+-- Archive tier: issues closed for longer than the project's retention are moved
+-- here by IssueArchiver. Same columns as issues plus archived_at; ids are kept.
+-- No foreign keys to users/projects so the tables also work on shards.
+
+ALTER TABLE projects ADD COLUMN archive_after_days INTEGER;
+
+CREATE TABLE archived_issues (
+    id          BIGINT       PRIMARY KEY,
+    project_id  BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'IN_PROGRESS', 'CLOSED')),
+    priority    VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    assignee_id BIGINT,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     BIGINT,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE archived_issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255),
+    CONSTRAINT fk_archived_issue_tags_issue FOREIGN KEY (issue_id) REFERENCES archived_issues (id)
+);
+
+CREATE INDEX idx_archived_issue_project ON archived_issues (project_id, created_at DESC);
+CREATE INDEX idx_archived_issue_tags_issue ON archived_issue_tags (issue_id);
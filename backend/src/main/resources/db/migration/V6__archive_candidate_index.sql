@@ -0,0 +1,6 @@
+-- Lets IssueArchiver find closed issues past their retention without scanning
+-- the project's open work. Built CONCURRENTLY, see V3.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_closed_updated
+    ON issues (project_id, updated_at)
+    WHERE status = 'CLOSED';
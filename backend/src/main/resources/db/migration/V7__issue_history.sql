@@ -0,0 +1,18 @@
+-- Field-level issue history, written in batches by IssueHistoryWriter. Lives in
+-- the directory database only; no foreign key to issues so history outlives
+-- archiving and the rows can be inserted without touching the issue's shard.
+
+CREATE TABLE issue_history (
+    id          BIGINT       GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id    VARCHAR(36)  NOT NULL,
+    issue_id    BIGINT       NOT NULL,
+    project_id  BIGINT       NOT NULL,
+    field_name  VARCHAR(32)  NOT NULL,
+    old_value   TEXT,
+    new_value   TEXT,
+    changed_by  BIGINT       NOT NULL,
+    changed_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_issue_history_event ON issue_history (event_id);
+CREATE INDEX idx_issue_history_issue ON issue_history (issue_id, id DESC);
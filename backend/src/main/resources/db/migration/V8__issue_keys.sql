@@ -0,0 +1,32 @@
+-- Human-readable issue keys (<project key>-<number>). Existing projects get
+-- the key P<id>; existing issues are numbered per project in id order, live
+-- and archived together. Counter rows are created by IssueNumberAllocator the
+-- first time an existing project gets a new issue, from the highest number on
+-- the project's shard, because a shard's issues are not visible from here.
+
+ALTER TABLE projects ADD COLUMN project_key VARCHAR(10);
+UPDATE projects SET project_key = 'P' || id;
+ALTER TABLE projects ALTER COLUMN project_key SET NOT NULL;
+CREATE UNIQUE INDEX uk_project_key ON projects (project_key);
+
+ALTER TABLE issues ADD COLUMN issue_number BIGINT;
+ALTER TABLE archived_issues ADD COLUMN issue_number BIGINT;
+
+CREATE TEMPORARY TABLE issue_numbers AS
+SELECT id, ROW_NUMBER() OVER (PARTITION BY project_id ORDER BY id) AS issue_number
+FROM (SELECT id, project_id FROM issues UNION ALL SELECT id, project_id FROM archived_issues) all_issues;
+
+UPDATE issues SET issue_number = n.issue_number FROM issue_numbers n WHERE n.id = issues.id;
+UPDATE archived_issues SET issue_number = n.issue_number FROM issue_numbers n WHERE n.id = archived_issues.id;
+DROP TABLE issue_numbers;
+
+ALTER TABLE issues ALTER COLUMN issue_number SET NOT NULL;
+ALTER TABLE archived_issues ALTER COLUMN issue_number SET NOT NULL;
+CREATE UNIQUE INDEX uk_issue_project_number ON issues (project_id, issue_number);
+CREATE UNIQUE INDEX uk_archived_issue_project_number ON archived_issues (project_id, issue_number);
+
+CREATE TABLE project_issue_counters (
+    project_id  BIGINT PRIMARY KEY,
+    next_number BIGINT NOT NULL,
+    CONSTRAINT fk_project_issue_counters_project FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE
+);
@@ -0,0 +1,35 @@
+-- Ids come from sequences that Hibernate reads 50 values at a time (pooled-lo),
+-- instead of identity columns that need a round trip per insert and rule out
+-- JDBC batching. Each sequence continues after the highest existing id.
+
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+CREATE SEQUENCE projects_seq INCREMENT BY 50;
+CREATE SEQUENCE project_members_seq INCREMENT BY 50;
+CREATE SEQUENCE issues_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 1, false) FROM users;
+SELECT setval('projects_seq', COALESCE(MAX(id), 0) + 1, false) FROM projects;
+SELECT setval('project_members_seq', COALESCE(MAX(id), 0) + 1, false) FROM project_members;
+
+-- Issue ids are allocated per shard from the shard's own range (see
+-- ShardingConfig). Issues of projects moved in from other shards keep their
+-- ids, so only ids in this database's range count. A shard that is new has
+-- no shard_identity yet; ShardingConfig sets its sequence up afterwards.
+DO $$
+DECLARE
+    range_start BIGINT := 0;
+    next_id     BIGINT;
+BEGIN
+    IF to_regclass('shard_identity') IS NOT NULL THEN
+        SELECT COALESCE(MAX(shard_id), 0) * 1000000000000 INTO range_start FROM shard_identity;
+    END IF;
+    SELECT GREATEST(COALESCE(MAX(id) + 1, range_start), 1) INTO next_id
+    FROM (SELECT id FROM issues UNION ALL SELECT id FROM archived_issues) all_issues
+    WHERE id >= range_start AND id < range_start + 1000000000000;
+    PERFORM setval('issues_seq', next_id, false);
+END $$;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE projects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE project_members ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE issues ALTER COLUMN id DROP IDENTITY IF EXISTS;
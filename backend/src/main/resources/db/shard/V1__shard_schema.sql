@@ -0,0 +1,73 @@
+-- Issue tables of shards 1..N (ShardingConfig), with the columns and indexes
+-- db/migration has given them as of V14. Users and projects live in the
+-- directory database, so there are no foreign keys to them. A change to the
+-- issue tables needs a migration here as well as in db/migration.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Restarted in this shard's id range by ShardingConfig
+CREATE SEQUENCE issues_seq INCREMENT BY 50;
+
+CREATE TABLE issues (
+    id           BIGINT       PRIMARY KEY,
+    project_id   BIGINT       NOT NULL,
+    issue_number BIGINT       NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  TEXT,
+    status       VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'IN_PROGRESS', 'CLOSED')),
+    priority     VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    assignee_id  BIGINT,
+    issue_rank   VARCHAR(255) COLLATE "C" NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    version      BIGINT
+) WITH (fillfactor = 85);
+
+CREATE TABLE issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255),
+    CONSTRAINT fk_issue_tags_issue FOREIGN KEY (issue_id) REFERENCES issues (id)
+);
+
+CREATE TABLE archived_issues (
+    id           BIGINT       PRIMARY KEY,
+    project_id   BIGINT       NOT NULL,
+    issue_number BIGINT       NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  TEXT,
+    status       VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'IN_PROGRESS', 'CLOSED')),
+    priority     VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    assignee_id  BIGINT,
+    issue_rank   VARCHAR(255) COLLATE "C" NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    version      BIGINT,
+    archived_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE archived_issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255),
+    CONSTRAINT fk_archived_issue_tags_issue FOREIGN KEY (issue_id) REFERENCES archived_issues (id)
+);
+
+-- One row once the shard's issue id range has been set up (see ShardingConfig)
+CREATE TABLE shard_identity (
+    shard_id INTEGER PRIMARY KEY
+);
+
+CREATE INDEX idx_issue_project ON issues (project_id);
+CREATE INDEX idx_issue_status ON issues (status);
+CREATE INDEX idx_issue_priority ON issues (priority);
+CREATE INDEX idx_issue_project_created ON issues (project_id, created_at DESC);
+CREATE INDEX idx_issue_open ON issues (project_id, priority, created_at DESC) WHERE status <> 'CLOSED';
+CREATE INDEX idx_issue_assignee_set ON issues (assignee_id) WHERE assignee_id IS NOT NULL;
+CREATE INDEX idx_issue_title_lower_trgm ON issues USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_issue_closed_updated ON issues (project_id, updated_at) WHERE status = 'CLOSED';
+CREATE INDEX idx_issue_project_status_rank ON issues (project_id, status, issue_rank, id DESC) WITH (fillfactor = 90);
+CREATE UNIQUE INDEX uk_issue_project_number ON issues (project_id, issue_number);
+CREATE INDEX idx_issue_tags_issue ON issue_tags (issue_id);
+
+CREATE INDEX idx_archived_issue_project ON archived_issues (project_id, created_at DESC);
+CREATE UNIQUE INDEX uk_archived_issue_project_number ON archived_issues (project_id, issue_number);
+CREATE INDEX idx_archived_issue_tags_issue ON archived_issue_tags (issue_id);
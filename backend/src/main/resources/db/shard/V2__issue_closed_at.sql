@@ -0,0 +1,33 @@
+-- db/migration V15 for shards: closed_at on the issue tables, backfilled in
+-- committed batches, and the archiver's index on it. Runs outside a
+-- transaction (see the .conf file); every step can be repeated.
+
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS closed_at TIMESTAMP(6);
+ALTER TABLE archived_issues ADD COLUMN IF NOT EXISTS closed_at TIMESTAMP(6);
+
+DO $$
+DECLARE
+    tbl     TEXT;
+    last_id BIGINT;
+    next_id BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['issues', 'archived_issues'] LOOP
+        last_id := -1;
+        LOOP
+            EXECUTE format('SELECT MAX(id) FROM (SELECT id FROM %I WHERE id > $1 ORDER BY id LIMIT 10000) batch', tbl)
+                INTO next_id USING last_id;
+            EXIT WHEN next_id IS NULL;
+            EXECUTE format('UPDATE %I SET closed_at = updated_at WHERE id > $1 AND id <= $2 '
+                           'AND status = ''CLOSED'' AND closed_at IS NULL', tbl)
+                USING last_id, next_id;
+            COMMIT;
+            last_id := next_id;
+        END LOOP;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_closed_at
+    ON issues (project_id, closed_at)
+    WHERE status = 'CLOSED';
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_issue_closed_updated;
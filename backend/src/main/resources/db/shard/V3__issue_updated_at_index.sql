@@ -0,0 +1,5 @@
+-- db/migration V17 for shards: the index SearchIndexer polls by. Built
+-- CONCURRENTLY, outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_issue_updated_at
+    ON issues (updated_at);
@@ -0,0 +1,161 @@
+package com.issuetracker.async;
+
+import com.issuetracker.dto.AuthResponse;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.ProjectRequest;
+import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.SignupRequest;
+import com.issuetracker.model.enums.IssuePriority;
+import com.issuetracker.support.SqlStatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// One read thread and one queue slot, so a test can fill the pool itself
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "app.async.read-threads=1",
+    "app.async.read-queue=1"
+})
+@ActiveProfiles("test")
+class AsyncReadsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AsyncReads asyncReads;
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api";
+    }
+
+    @Test
+    void read_ShouldCarryTheSqlHeadersAcrossTheAsyncDispatch() {
+        HttpHeaders headers = signUp("async-headers@test.com");
+        Long issueId = createIssue(headers, "Async Headers Project");
+
+        ResponseEntity<IssueResponse> response = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+            HttpMethod.GET, new HttpEntity<>(headers), IssueResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(issueId, response.getBody().getId());
+        SqlStatementBudget budget = SqlStatementBudget.of(response).statementsAtMost(6);
+        assertTrue(budget.getStatements() > 0, "Statements run on the read thread must be counted");
+    }
+
+    @Test
+    void readPastItsDeadline_ShouldReturn503() {
+        HttpHeaders headers = signUp("async-deadline@test.com");
+        Long issueId = createIssue(headers, "Async Deadline Project");
+
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // The only read thread is busy, so the request waits in the queue until its deadline
+            block(release);
+            headers.set(AsyncReads.TIMEOUT_HEADER, "300");
+
+            long start = System.currentTimeMillis();
+            ResponseEntity<Map> response = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("Request deadline exceeded", response.getBody().get("error"));
+            assertTrue(System.currentTimeMillis() - start < 3000, "The deadline must cut the request short");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void readWithTheQueueFull_ShouldReturn503RightAway() {
+        HttpHeaders headers = signUp("async-busy@test.com");
+        Long issueId = createIssue(headers, "Async Busy Project");
+
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One task on the read thread, one in the only queue slot
+            block(release);
+            block(release);
+
+            ResponseEntity<Map> response = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("Server is busy, retry shortly", response.getBody().get("error"));
+        } finally {
+            release.countDown();
+        }
+
+        // Once the pool drains reads go through again
+        ResponseEntity<IssueResponse> after = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            after = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+                HttpMethod.GET, new HttpEntity<>(headers), IssueResponse.class);
+            if (after.getStatusCode() == HttpStatus.OK) {
+                break;
+            }
+            sleep(20);
+        }
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+    }
+
+    private void block(CountDownLatch release) {
+        asyncReads.submit(null, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+    }
+
+    private HttpHeaders signUp(String email) {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail(email);
+        signupRequest.setPassword("password123");
+        signupRequest.setName("Async Test User");
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private Long createIssue(HttpHeaders headers, String projectName) {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName(projectName);
+        Long projectId = restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle("Async issue");
+        issueRequest.setPriority(IssuePriority.MEDIUM);
+        return restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody().getId();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
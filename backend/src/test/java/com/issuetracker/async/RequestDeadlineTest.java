@@ -0,0 +1,55 @@
+package com.issuetracker.async;
+
+import com.issuetracker.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestDeadlineTest {
+
+    @Test
+    void begin_ShouldCapQueryTimeoutAtRemainingTime() throws Exception {
+        Statement statement = mock(Statement.class);
+        when(statement.getQueryTimeout()).thenReturn(30);
+
+        new RequestDeadline(1500).begin(statement);
+
+        verify(statement).setQueryTimeout(2);
+    }
+
+    @Test
+    void begin_ShouldKeepLowerQueryTimeout() throws Exception {
+        Statement statement = mock(Statement.class);
+        when(statement.getQueryTimeout()).thenReturn(1);
+
+        new RequestDeadline(5000).begin(statement);
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void cancel_ShouldCancelRunningStatementsAndRejectNewOnes() throws Exception {
+        RequestDeadline deadline = new RequestDeadline(5000);
+        Statement running = mock(Statement.class);
+        Statement finished = mock(Statement.class);
+        deadline.begin(running);
+        deadline.begin(finished);
+        deadline.end(finished);
+
+        deadline.cancel();
+
+        verify(running).cancel();
+        verify(finished, never()).cancel();
+        assertThrows(ServiceUnavailableException.class, () -> deadline.begin(mock(Statement.class)));
+    }
+
+    @Test
+    void begin_AfterDeadline_ShouldFail() {
+        RequestDeadline deadline = new RequestDeadline(0);
+
+        assertThrows(ServiceUnavailableException.class, () -> deadline.begin(mock(Statement.class)));
+    }
+}
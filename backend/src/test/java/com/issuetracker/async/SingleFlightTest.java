@@ -0,0 +1,151 @@
+package com.issuetracker.async;
+
+import com.issuetracker.datasource.ReadYourWritesFence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentIdenticalCalls_ShouldShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, (ReadYourWritesFence) null, 5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("test", 1L, "key", () -> {
+                    loads.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(release);
+                    return "result";
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<Thread> followers = new ArrayList<>();
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread follower = new Thread(() -> {
+                String result = singleFlight.execute("test", 1L, "key", () -> {
+                    loads.incrementAndGet();
+                    return "own";
+                });
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            follower.start();
+            followers.add(follower);
+        }
+        for (Thread follower : followers) {
+            awaitBlocked(follower);
+        }
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        for (Thread follower : followers) {
+            follower.join(5000);
+        }
+        assertEquals(1, loads.get());
+        assertEquals(List.of("result", "result", "result", "result", "result"), results);
+        assertEquals(5.0, meterRegistry.get("single_flight.calls").tag("outcome", "joined").counter().count());
+    }
+
+    @Test
+    void invalidatedProject_ShouldNotJoinEarlierLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, (ReadYourWritesFence) null, 5000);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("test", 7L, "key", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    return "before write";
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        singleFlight.invalidate(7L);
+        assertEquals("after write", singleFlight.execute("test", 7L, "key", () -> "after write"));
+
+        release.countDown();
+        assertEquals("before write", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fencedCaller_ShouldNotJoinAReplicaRead() throws Exception {
+        ReadYourWritesFence fence = new ReadYourWritesFence(60_000);
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, fence, 5000);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("test", 1L, "key", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    return "replica";
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        fence.markWrite("writer@test.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer@test.com", null, List.of()));
+        try {
+            assertEquals("primary", singleFlight.execute("test", 1L, "key", () -> "primary"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        release.countDown();
+        assertEquals("replica", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void slowLeader_ShouldMakeFollowerLoadItselfAfterTimeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, (ReadYourWritesFence) null, 50);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("test", 1L, "key", () -> {
+                    leaderStarted.countDown();
+                    await(release);
+                    return "slow";
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        assertEquals("own", singleFlight.execute("test", 1L, "key", () -> "own"));
+        assertEquals(1.0, meterRegistry.get("single_flight.calls").tag("outcome", "timeout").counter().count());
+
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
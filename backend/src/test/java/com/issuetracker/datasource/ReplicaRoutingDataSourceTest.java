@@ -0,0 +1,102 @@
+package com.issuetracker.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 databases stand in for the primary and the replica; each
+// holds a single row naming itself so a query shows where it was routed.
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        routing = newRouting("SELECT 0");
+
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        routing = newRouting("SELECT 0");
+
+        assertEquals("primary", readNode(false));
+    }
+
+    @Test
+    void readAfterOwnWrite_ShouldStickToPrimaryForThatUserOnly() {
+        routing = newRouting("SELECT 0");
+
+        authenticate("writer@test.com");
+        readNode(false);
+        assertEquals("primary", readNode(true));
+
+        authenticate("reader@test.com");
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void laggingReplica_ShouldFallBackToPrimary() {
+        routing = newRouting("SELECT 5000");
+
+        assertEquals(5000, routing.getLagMillis("replica-0"));
+        assertEquals("primary", readNode(true));
+    }
+
+    @Test
+    void unreachableReplica_ShouldFallBackToPrimary() {
+        routing = newRouting("SELECT lag FROM missing_table");
+
+        assertEquals(-1, routing.getLagMillis("replica-0"));
+        assertEquals("primary", readNode(true));
+    }
+
+    private ReplicaRoutingDataSource newRouting(String lagQuery) {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                h2("primary"), Map.of("replica-0", h2("replica")),
+                new ReadYourWritesFence(60_000), 1000, lagQuery, 60_000);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private String readNode(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnly);
+        JdbcTemplate jdbc = new JdbcTemplate(routing);
+        return transaction.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -1,33 +1,95 @@
 package com.issuetracker.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.issuetracker.async.SingleFlight;
+import com.issuetracker.dto.BatchOperation;
+import com.issuetracker.dto.BatchRequest;
 import com.issuetracker.dto.SignupRequest;
 import com.issuetracker.dto.AuthResponse;
+import com.issuetracker.dto.BoardColumn;
 import com.issuetracker.dto.ProjectRequest;
 import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.RankRequest;
+import com.issuetracker.dto.IssueHistoryPage;
+import com.issuetracker.dto.IssueHistoryResponse;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.SavedFilterRequest;
+import com.issuetracker.dto.SavedFilterResponse;
 import com.issuetracker.model.enums.IssuePriority;
 import com.issuetracker.model.enums.IssueStatus;
+import com.issuetracker.model.enums.UserRole;
+import com.issuetracker.service.IssueArchiver;
+import com.issuetracker.service.IssueHistoryWriter;
+import com.issuetracker.service.IssueRankBalancer;
+import com.issuetracker.service.IssueService;
+import com.issuetracker.service.SearchIndexer;
+import com.issuetracker.support.SqlStatementBudget;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
+// Observability on, so the Prometheus registry is not left out as in other tests
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 @ActiveProfiles("test")
 class IssueTrackerIntegrationTest {
 
     @LocalServerPort
     private int port;
 
+    @LocalManagementPort
+    private int managementPort;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private IssueArchiver issueArchiver;
+
+    @Autowired
+    private IssueHistoryWriter issueHistoryWriter;
+
+    @Autowired
+    private IssueRankBalancer issueRankBalancer;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private DataSource dataSource;
+
     private String getBaseUrl() {
         return "http://localhost:" + port + "/api";
     }
@@ -107,6 +169,651 @@ class IssueTrackerIntegrationTest {
         assertTrue(getIssuesResponse.getBody().contains("Integration Test Issue"));
     }
 
+    @Test
+    void listIssues_ShouldStayWithinStatementBudget() {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail("budget@test.com");
+        signupRequest.setPassword("password123");
+        signupRequest.setName("Budget Test User");
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Budget Project");
+        Long projectId = restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+
+        for (int i = 0; i < 100; i++) {
+            IssueRequest issueRequest = new IssueRequest();
+            issueRequest.setProjectId(projectId);
+            issueRequest.setTitle("Budget Issue " + i);
+            issueRequest.setAssigneeId(auth.getUserId());
+            issueRequest.setTags(List.of("tag-" + (i % 5)));
+            restTemplate.postForEntity(getBaseUrl() + "/issues",
+                new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+        }
+
+        ResponseEntity<String> response = restTemplate.exchange(
+            getBaseUrl() + "/issues?projectId=" + projectId + "&page=0&size=100",
+            HttpMethod.GET,
+            new HttpEntity<Void>(headers),
+            String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("Budget Issue 99"));
+        // user lookup, role check, page select, count, batched tags,
+        // project names and assignee names - independent of page size
+        SqlStatementBudget.of(response).statementsAtMost(7);
+    }
+
+    @Test
+    void listIssuesJoiners_ShouldHoldNoConnectionWhileTheLeaderLoads() throws Exception {
+        HttpHeaders headers = signUp("flight-joiners@test.com", "Flight Joiner");
+        Long projectId = createProject(headers, "Flight Joiners Project");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class,
+            "flight-joiners@test.com");
+        Pageable pageable = PageRequest.of(0, 20);
+
+        // A leader for the same key as getIssues with no filters, held until released
+        Page<IssueResponse> shared = new PageImpl<>(List.of());
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Page<IssueResponse>> leader = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("getIssues", projectId, Arrays.asList(projectId, null, null, null, null, false, pageable),
+                () -> {
+                    leaderStarted.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return shared;
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<Thread> joiners = new ArrayList<>();
+        List<Page<IssueResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                Thread joiner = new Thread(() -> {
+                    Page<IssueResponse> page = issueService.getIssues(projectId, null, null, null, null, false,
+                        pageable, userId);
+                    synchronized (results) {
+                        results.add(page);
+                    }
+                });
+                joiner.start();
+                joiners.add(joiner);
+            }
+            for (Thread joiner : joiners) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (joiner.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+            }
+
+            // Scheduled jobs may briefly take a connection, the waiting joiners never do
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            int fewestActive = Integer.MAX_VALUE;
+            for (int i = 0; i < 20; i++) {
+                fewestActive = Math.min(fewestActive, pool.getHikariPoolMXBean().getActiveConnections());
+                Thread.sleep(5);
+            }
+            assertEquals(0, fewestActive);
+        } finally {
+            release.countDown();
+        }
+
+        assertSame(shared, leader.get(5, TimeUnit.SECONDS));
+        for (Thread joiner : joiners) {
+            joiner.join(5000);
+        }
+        assertEquals(4, results.size());
+        results.forEach(page -> assertSame(shared, page));
+    }
+
+    @Test
+    void listProjectsWithStats_ShouldReturnCountsWithinStatementBudget() {
+        HttpHeaders headers = signUp("stats@test.com", "Stats Test User");
+
+        for (int p = 0; p < 3; p++) {
+            Long projectId = createProject(headers, "Stats Project " + p);
+
+            for (IssueStatus status : List.of(IssueStatus.OPEN, IssueStatus.OPEN, IssueStatus.IN_PROGRESS, IssueStatus.CLOSED)) {
+                IssueRequest issueRequest = new IssueRequest();
+                issueRequest.setProjectId(projectId);
+                issueRequest.setTitle("Stats Issue " + status);
+                issueRequest.setStatus(status);
+                restTemplate.postForEntity(getBaseUrl() + "/issues",
+                    new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+            }
+        }
+
+        ResponseEntity<ProjectResponse[]> response = restTemplate.exchange(
+            getBaseUrl() + "/projects?include=stats",
+            HttpMethod.GET,
+            new HttpEntity<Void>(headers),
+            ProjectResponse[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().length);
+        for (ProjectResponse project : response.getBody()) {
+            assertEquals("Stats Test User", project.getOwnerName());
+            assertEquals(UserRole.OWNER, project.getRole());
+            assertEquals(2L, project.getOpenIssues());
+            assertEquals(1L, project.getInProgressIssues());
+            assertEquals(1L, project.getClosedIssues());
+        }
+        // user lookup, project summaries, live and archived issue counts -
+        // independent of the number of projects
+        SqlStatementBudget.of(response).statementsAtMost(4);
+    }
+
+    @Test
+    void archivedIssue_ShouldBeHiddenByDefaultAndRestoredOnReopen() {
+        HttpHeaders headers = signUp("archive@test.com", "Archive Test User");
+
+        Long projectId = createProject(headers, "Archive Project", 30);
+
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle("Old closed issue");
+        issueRequest.setStatus(IssueStatus.CLOSED);
+        issueRequest.setTags(List.of("legacy"));
+        Long issueId = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody().getId();
+
+        // Closed 31 days ago; updated_at stays recent, as after a later edit
+        jdbcTemplate.update("UPDATE issues SET closed_at = DATEADD('DAY', -31, closed_at) WHERE id = ?", issueId);
+        issueArchiver.archiveAll();
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM issues WHERE id = ?", Integer.class, issueId));
+
+        HttpEntity<Void> getEntity = new HttpEntity<>(headers);
+        String hot = restTemplate.exchange(getBaseUrl() + "/issues?projectId=" + projectId,
+            HttpMethod.GET, getEntity, String.class).getBody();
+        assertFalse(hot.contains("Old closed issue"));
+        String all = restTemplate.exchange(getBaseUrl() + "/issues?projectId=" + projectId + "&includeArchived=true",
+            HttpMethod.GET, getEntity, String.class).getBody();
+        assertTrue(all.contains("Old closed issue"));
+
+        IssueResponse archived = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+            HttpMethod.GET, getEntity, IssueResponse.class).getBody();
+        assertTrue(archived.isArchived());
+        assertEquals(List.of("legacy"), archived.getTags());
+
+        issueRequest.setStatus(IssueStatus.OPEN);
+        IssueResponse reopened = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+            HttpMethod.PUT, new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody();
+        assertEquals(IssueStatus.OPEN, reopened.getStatus());
+        assertFalse(reopened.isArchived());
+        hot = restTemplate.exchange(getBaseUrl() + "/issues?projectId=" + projectId,
+            HttpMethod.GET, getEntity, String.class).getBody();
+        assertTrue(hot.contains("Old closed issue"));
+    }
+
+    @Test
+    void issueHistory_ShouldListFieldChangesNewestFirstWithCursor() {
+        HttpHeaders headers = signUp("history@test.com", "History Test User");
+
+        Long projectId = createProject(headers, "History Project");
+
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle("Tracked issue");
+        Long issueId = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody().getId();
+
+        issueRequest.setTitle("Tracked issue, renamed");
+        issueRequest.setStatus(IssueStatus.IN_PROGRESS);
+        restTemplate.exchange(getBaseUrl() + "/issues/" + issueId,
+            HttpMethod.PUT, new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+        issueHistoryWriter.flush();
+
+        HttpEntity<Void> getEntity = new HttpEntity<>(headers);
+        IssueHistoryPage first = restTemplate.exchange(getBaseUrl() + "/issues/" + issueId + "/history?size=2",
+            HttpMethod.GET, getEntity, IssueHistoryPage.class).getBody();
+        assertEquals(2, first.getEntries().size());
+        assertNotNull(first.getNextCursor());
+        IssueHistoryResponse statusChange = first.getEntries().stream()
+            .filter(entry -> entry.getField().equals("status")).findFirst().orElseThrow();
+        assertEquals("OPEN", statusChange.getOldValue());
+        assertEquals("IN_PROGRESS", statusChange.getNewValue());
+        assertEquals("History Test User", statusChange.getChangedByName());
+
+        // Creation recorded title, status and priority
+        IssueHistoryPage rest = restTemplate.exchange(
+            getBaseUrl() + "/issues/" + issueId + "/history?size=10&before=" + first.getNextCursor(),
+            HttpMethod.GET, getEntity, IssueHistoryPage.class).getBody();
+        assertEquals(3, rest.getEntries().size());
+        assertNull(rest.getNextCursor());
+        assertTrue(rest.getEntries().stream().allMatch(entry -> entry.getOldValue() == null));
+    }
+
+    @Test
+    void savedFilter_ShouldKeepMatchesCurrentAsIssuesChange() {
+        HttpHeaders headers = signUp("filters@test.com", "Filter Test User");
+
+        Long projectId = createProject(headers, "Filter Project");
+
+        Long first = createIssue(headers, projectId, "Login fails", IssuePriority.HIGH);
+        createIssue(headers, projectId, "Login is slow", IssuePriority.HIGH);
+        createIssue(headers, projectId, "Login page typo", IssuePriority.LOW);
+        createIssue(headers, projectId, "Export breaks", IssuePriority.HIGH);
+
+        SavedFilterRequest filterRequest = new SavedFilterRequest();
+        filterRequest.setName("Open high-priority login issues");
+        filterRequest.setProjectId(projectId);
+        filterRequest.setStatus(IssueStatus.OPEN);
+        filterRequest.setPriority(IssuePriority.HIGH);
+        filterRequest.setSearch("login");
+        SavedFilterResponse filter = restTemplate.postForEntity(getBaseUrl() + "/filters",
+            new HttpEntity<>(filterRequest, headers), SavedFilterResponse.class).getBody();
+        assertEquals(2, filter.getMatchCount());
+
+        // One issue created into the filter, one updated out of it
+        Long newest = createIssue(headers, projectId, "Login loops", IssuePriority.HIGH);
+        IssueRequest close = new IssueRequest();
+        close.setProjectId(projectId);
+        close.setTitle("Login fails");
+        close.setStatus(IssueStatus.CLOSED);
+        restTemplate.exchange(getBaseUrl() + "/issues/" + first,
+            HttpMethod.PUT, new HttpEntity<>(close, headers), IssueResponse.class);
+
+        HttpEntity<Void> getEntity = new HttpEntity<>(headers);
+        SavedFilterResponse[] filters = restTemplate.exchange(getBaseUrl() + "/filters",
+            HttpMethod.GET, getEntity, SavedFilterResponse[].class).getBody();
+        assertEquals(1, filters.length);
+        assertEquals(2, filters[0].getMatchCount());
+
+        ResponseEntity<String> view = restTemplate.exchange(
+            getBaseUrl() + "/filters/" + filter.getId() + "/issues?size=1",
+            HttpMethod.GET, getEntity, String.class);
+        assertEquals(HttpStatus.OK, view.getStatusCode());
+        assertTrue(view.getBody().contains("Login loops"));
+        assertTrue(view.getBody().contains("\"totalElements\":2"));
+        // user lookup, filter, role check, match ids, issues, batched tags and
+        // project names - no filter query
+        SqlStatementBudget.of(view).statementsAtMost(7);
+
+        restTemplate.exchange(getBaseUrl() + "/issues/" + newest,
+            HttpMethod.DELETE, getEntity, Void.class);
+        filters = restTemplate.exchange(getBaseUrl() + "/filters",
+            HttpMethod.GET, getEntity, SavedFilterResponse[].class).getBody();
+        assertEquals(1, filters[0].getMatchCount());
+    }
+
+    private Long createIssue(HttpHeaders headers, Long projectId, String title, IssuePriority priority) {
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle(title);
+        issueRequest.setPriority(priority);
+        return restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody().getId();
+    }
+
+    @Test
+    void board_ShouldReturnEveryColumnInOneRequest() {
+        HttpHeaders headers = signUp("board@test.com", "Board Test User");
+
+        Long projectId = createProject(headers, "Board Project");
+
+        Long oldest = createIssue(headers, projectId, "Board 1", IssuePriority.MEDIUM);
+        Long second = createIssue(headers, projectId, "Board 2", IssuePriority.MEDIUM);
+        Long third = createIssue(headers, projectId, "Board 3", IssuePriority.MEDIUM);
+        Long started = createIssue(headers, projectId, "Board 4", IssuePriority.MEDIUM);
+        IssueRequest start = new IssueRequest();
+        start.setProjectId(projectId);
+        start.setTitle("Board 4");
+        start.setStatus(IssueStatus.IN_PROGRESS);
+        restTemplate.exchange(getBaseUrl() + "/issues/" + started,
+            HttpMethod.PUT, new HttpEntity<>(start, headers), IssueResponse.class);
+
+        HttpEntity<Void> getEntity = new HttpEntity<>(headers);
+        ResponseEntity<BoardColumn[]> response = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/board?perColumn=2",
+            HttpMethod.GET, getEntity, BoardColumn[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BoardColumn[] board = response.getBody();
+        assertEquals(3, board.length);
+
+        BoardColumn open = board[0];
+        assertEquals(IssueStatus.OPEN, open.getStatus());
+        assertEquals(3, open.getTotal());
+        assertEquals(List.of(third, second), open.getIssues().stream().map(IssueResponse::getId).toList());
+        assertTrue(open.getNextCursor().endsWith("." + second));
+        assertEquals(1, board[1].getTotal());
+        assertEquals(started, board[1].getIssues().get(0).getId());
+        assertNull(board[1].getNextCursor());
+        assertEquals(0, board[2].getTotal());
+        assertTrue(board[2].getIssues().isEmpty());
+        // user lookup, role check, the windowed column query, issues, batched
+        // tags, project names and assignee names - independent of the columns
+        SqlStatementBudget.of(response).statementsAtMost(7);
+
+        BoardColumn more = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/board/OPEN?size=2&after=" + open.getNextCursor(),
+            HttpMethod.GET, getEntity, BoardColumn.class).getBody();
+        assertEquals(List.of(oldest), more.getIssues().stream().map(IssueResponse::getId).toList());
+        assertEquals(3, more.getTotal());
+        assertNull(more.getNextCursor());
+    }
+
+    @Test
+    void rank_ShouldReorderIssuesWithinAndAcrossColumns() {
+        HttpHeaders headers = signUp("rank@test.com", "Rank Test User");
+
+        Long projectId = createProject(headers, "Rank Project");
+
+        // New issues start at the top of their column
+        Long a = createIssue(headers, projectId, "Rank A", IssuePriority.MEDIUM);
+        Long b = createIssue(headers, projectId, "Rank B", IssuePriority.MEDIUM);
+        Long c = createIssue(headers, projectId, "Rank C", IssuePriority.MEDIUM);
+        assertEquals(List.of(c, b, a), columnIds(headers, projectId, 0));
+
+        // A between C and B
+        RankRequest drop = new RankRequest();
+        drop.setAfterId(c);
+        drop.setBeforeId(b);
+        ResponseEntity<IssueResponse> moved = restTemplate.exchange(getBaseUrl() + "/issues/" + a + "/rank",
+            HttpMethod.PUT, new HttpEntity<>(drop, headers), IssueResponse.class);
+        assertEquals(HttpStatus.OK, moved.getStatusCode());
+        assertEquals(List.of(c, a, b), columnIds(headers, projectId, 0));
+
+        // B over to IN_PROGRESS, an empty column
+        RankRequest start = new RankRequest();
+        start.setStatus(IssueStatus.IN_PROGRESS);
+        moved = restTemplate.exchange(getBaseUrl() + "/issues/" + b + "/rank",
+            HttpMethod.PUT, new HttpEntity<>(start, headers), IssueResponse.class);
+        assertEquals(IssueStatus.IN_PROGRESS, moved.getBody().getStatus());
+        assertEquals(List.of(c, a), columnIds(headers, projectId, 0));
+        assertEquals(List.of(b), columnIds(headers, projectId, 1));
+
+        // Neighbours from another column mean the client's board is stale
+        RankRequest stale = new RankRequest();
+        stale.setAfterId(b);
+        ResponseEntity<String> rejected = restTemplate.exchange(getBaseUrl() + "/issues/" + c + "/rank",
+            HttpMethod.PUT, new HttpEntity<>(stale, headers), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+
+        // Rebalancing rewrites the keys, not the order
+        issueRankBalancer.rebalance(projectId, IssueStatus.OPEN);
+        assertEquals(List.of(c, a), columnIds(headers, projectId, 0));
+    }
+
+    private List<Long> columnIds(HttpHeaders headers, Long projectId, int column) {
+        BoardColumn[] board = restTemplate.exchange(getBaseUrl() + "/projects/" + projectId + "/board",
+            HttpMethod.GET, new HttpEntity<>(headers), BoardColumn[].class).getBody();
+        return board[column].getIssues().stream().map(IssueResponse::getId).toList();
+    }
+
+    @Test
+    void search_ShouldRankMatchesAcrossTheCallersProjects() {
+        HttpHeaders headers = signUp("search@test.com", "Search Test User");
+        HttpHeaders otherHeaders = signUp("search-other@test.com", "Other Search User");
+        Long projectId = createProject(headers, "Search Project");
+        Long secondProjectId = createProject(headers, "Second Search Project");
+        Long otherProjectId = createProject(otherHeaders, "Other Search Project");
+
+        Long inTitle = createIssue(headers, projectId, "Checkout payment times out", IssuePriority.HIGH);
+        IssueRequest described = new IssueRequest();
+        described.setProjectId(secondProjectId);
+        described.setTitle("Slow cart page");
+        described.setDescription("The payment step of checkout hangs for seconds");
+        described.setTags(List.of("payments"));
+        Long inDescription = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(described, headers), IssueResponse.class).getBody().getId();
+        Long deleted = createIssue(headers, projectId, "Payment refund missing", IssuePriority.LOW);
+        createIssue(otherHeaders, otherProjectId, "Payment provider outage", IssuePriority.HIGH);
+        restTemplate.exchange(getBaseUrl() + "/issues/" + deleted,
+            HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+        // Title matches first; the other user's project and deleted issues never show up
+        assertEquals(List.of(inTitle, inDescription), searchIds(headers, "payment"));
+        assertEquals(List.of(inDescription), searchIds(headers, "\"payment step\""));
+        assertEquals(List.of(inDescription), searchIds(headers, "paym* hangs"));
+        assertEquals(List.of(inTitle), searchIds(headers, "payment&projectId=" + projectId));
+
+        ResponseEntity<String> denied = restTemplate.exchange(
+            getBaseUrl() + "/search?q=payment&projectId=" + otherProjectId,
+            HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, denied.getStatusCode());
+
+        // Edits are searchable as soon as they commit
+        IssueRequest rename = new IssueRequest();
+        rename.setProjectId(projectId);
+        rename.setTitle("Checkout button misaligned");
+        restTemplate.exchange(getBaseUrl() + "/issues/" + inTitle,
+            HttpMethod.PUT, new HttpEntity<>(rename, headers), IssueResponse.class);
+        assertEquals(List.of(inDescription), searchIds(headers, "payment"));
+        assertEquals(List.of(inTitle), searchIds(headers, "misaligned"));
+    }
+
+    @Test
+    void search_ShouldPickUpWritesMadeOutsideThisNode() {
+        HttpHeaders headers = signUp("search-poll@test.com", "Search Poll User");
+        Long projectId = createProject(headers, "Search Poll Project");
+        Long issueId = createIssue(headers, projectId, "Export button greyed out", IssuePriority.MEDIUM);
+
+        // Another node (or a script) renames the issue; nothing on this node hears about it
+        jdbcTemplate.update("UPDATE issues SET title = 'Quarterly invoice export broken', version = version + 1, " +
+            "updated_at = LOCALTIMESTAMP WHERE id = ?", issueId);
+
+        // The scheduled poll may get there first; either way it is in after this
+        searchIndexer.poll();
+
+        assertEquals(List.of(issueId), searchIds(headers, "invoice"));
+        assertEquals(List.of(), searchIds(headers, "greyed"));
+    }
+
+    @Test
+    void suggest_ShouldCompleteTitlesTagsAndMembersFromMemory() {
+        HttpHeaders headers = signUp("suggest@test.com", "Suggest Test User");
+        HttpHeaders otherHeaders = signUp("suggest-other@test.com", "Other Suggest User");
+        Long projectId = createProject(headers, "Suggest Project");
+
+        IssueRequest tagged = new IssueRequest();
+        tagged.setProjectId(projectId);
+        tagged.setTitle("Dark mode for settings");
+        tagged.setTags(List.of("ui", "settings"));
+        Long darkMode = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(tagged, headers), IssueResponse.class).getBody().getId();
+        Long sessions = createIssue(headers, projectId, "Settings page loses session", IssuePriority.LOW);
+
+        // Title starts first, then matches on a later word
+        assertEquals(List.of(sessions, darkMode), suggestionIds(headers, projectId, "sett", "issue"));
+        assertEquals(List.of(darkMode), suggestionIds(headers, projectId, "dark m", "issue"));
+        assertEquals(List.of("settings"), suggestionTexts(headers, projectId, "se", "tag"));
+        assertEquals(List.of("Suggest Test User"), suggestionTexts(headers, projectId, "test", "user"));
+
+        // Writes show up without a reload, and a keystroke runs no query past the user lookup
+        Long created = createIssue(headers, projectId, "Settings export", IssuePriority.LOW);
+        restTemplate.exchange(getBaseUrl() + "/issues/" + sessions,
+            HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        ResponseEntity<JsonNode> response = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/suggest?q=settings&type=issue",
+            HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+        List<Long> ids = new ArrayList<>();
+        response.getBody().forEach(suggestion -> ids.add(suggestion.get("id").asLong()));
+        assertEquals(List.of(created, darkMode), ids);
+        SqlStatementBudget.of(response).statementsAtMost(1);
+
+        ResponseEntity<String> denied = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/suggest?q=se",
+            HttpMethod.GET, new HttpEntity<>(otherHeaders), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, denied.getStatusCode());
+    }
+
+    @Test
+    void issueWrites_ShouldReplayRetriesWithTheSameIdempotencyKey() {
+        HttpHeaders headers = signUp("idempotency@test.com", "Idempotency Test User");
+        Long projectId = createProject(headers, "Idempotency Project");
+        HttpHeaders keyed = new HttpHeaders();
+        keyed.putAll(headers);
+        keyed.set("Idempotency-Key", "create-1");
+
+        IssueRequest request = new IssueRequest();
+        request.setProjectId(projectId);
+        request.setTitle("Created once");
+        ResponseEntity<IssueResponse> first = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(request, keyed), IssueResponse.class);
+        ResponseEntity<IssueResponse> retry = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(request, keyed), IssueResponse.class);
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+        // Only the user lookup; nothing is written again
+        SqlStatementBudget.of(retry).statementsAtMost(1);
+
+        ResponseEntity<JsonNode> issues = restTemplate.exchange(getBaseUrl() + "/issues?projectId=" + projectId,
+            HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+        assertEquals(1, issues.getBody().get("content").size());
+
+        // The same key with another request is refused
+        request.setTitle("Something else");
+        ResponseEntity<String> reused = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(request, keyed), String.class);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+
+        // A retried delete gets the first answer, not "Issue not found"
+        keyed.set("Idempotency-Key", "delete-1");
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ResponseEntity<Void> deleted = restTemplate.exchange(getBaseUrl() + "/issues/" + first.getBody().getId(),
+                HttpMethod.DELETE, new HttpEntity<>(keyed), Void.class);
+            assertEquals(HttpStatus.NO_CONTENT, deleted.getStatusCode());
+        }
+    }
+
+    @Test
+    void batch_ShouldRunOperationsInOrderWithPerOperationResults() {
+        HttpHeaders headers = signUp("batch@test.com", "Batch Test User");
+        HttpHeaders otherHeaders = signUp("batch-other@test.com", "Other Batch User");
+        Long projectId = createProject(headers, "Batch Project");
+        Long otherProjectId = createProject(otherHeaders, "Other Batch Project");
+        Long kept = createIssue(headers, projectId, "Kept issue", IssuePriority.LOW);
+        Long deleted = createIssue(headers, projectId, "Deleted issue", IssuePriority.LOW);
+        Long foreign = createIssue(otherHeaders, otherProjectId, "Not yours", IssuePriority.LOW);
+
+        IssueRequest created = new IssueRequest();
+        created.setProjectId(projectId);
+        created.setTitle("Created in a batch");
+        IssueRequest renamed = new IssueRequest();
+        renamed.setProjectId(projectId);
+        renamed.setTitle("Renamed in a batch");
+        BatchRequest batch = new BatchRequest();
+        batch.setOperations(List.of(
+            batchOperation(BatchOperation.Op.GET_ISSUES, null, List.of(deleted, kept, foreign, 999_999L), null),
+            batchOperation(BatchOperation.Op.CREATE_ISSUE, null, null, created),
+            batchOperation(BatchOperation.Op.UPDATE_ISSUE, kept, null, renamed),
+            batchOperation(BatchOperation.Op.DELETE_ISSUE, deleted, null, null),
+            batchOperation(BatchOperation.Op.GET_PROJECT, otherProjectId, null, null)));
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(getBaseUrl() + "/batch",
+            new HttpEntity<>(batch, headers), JsonNode.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode results = response.getBody();
+        List<Integer> statuses = new ArrayList<>();
+        results.forEach(result -> statuses.add(result.get("status").asInt()));
+        assertEquals(List.of(200, 200, 200, 204, 400), statuses);
+        // In the order asked for; missing issues and other users' issues are left out
+        List<Long> fetched = new ArrayList<>();
+        results.get(0).get("body").forEach(issue -> fetched.add(issue.get("id").asLong()));
+        assertEquals(List.of(deleted, kept), fetched);
+        assertEquals("Created in a batch", results.get(1).get("body").get("title").asText());
+        assertEquals("Renamed in a batch", results.get(2).get("body").get("title").asText());
+        assertEquals("Access denied", results.get(4).get("error").asText());
+
+        // An atomic batch that fails part way changes nothing
+        IssueRequest rolledBack = new IssueRequest();
+        rolledBack.setProjectId(projectId);
+        rolledBack.setTitle("Rolled back");
+        BatchRequest atomic = new BatchRequest();
+        atomic.setAtomic(true);
+        atomic.setOperations(List.of(
+            batchOperation(BatchOperation.Op.CREATE_ISSUE, null, null, rolledBack),
+            batchOperation(BatchOperation.Op.DELETE_ISSUE, foreign, null, null)));
+        ResponseEntity<String> failed = restTemplate.postForEntity(getBaseUrl() + "/batch",
+            new HttpEntity<>(atomic, headers), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, failed.getStatusCode());
+
+        ResponseEntity<JsonNode> issues = restTemplate.exchange(getBaseUrl() + "/issues?projectId=" + projectId,
+            HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+        List<String> titles = new ArrayList<>();
+        issues.getBody().get("content").forEach(issue -> titles.add(issue.get("title").asText()));
+        assertEquals(2, titles.size());
+        assertFalse(titles.contains("Rolled back"));
+    }
+
+    private static BatchOperation batchOperation(BatchOperation.Op op, Long id, List<Long> ids, IssueRequest issue) {
+        BatchOperation operation = new BatchOperation();
+        operation.setOp(op);
+        operation.setId(id);
+        operation.setIds(ids);
+        operation.setIssue(issue);
+        return operation;
+    }
+
+    private List<Long> suggestionIds(HttpHeaders headers, Long projectId, String query, String type) {
+        List<Long> ids = new ArrayList<>();
+        suggest(headers, projectId, query, type).forEach(suggestion -> ids.add(suggestion.get("id").asLong()));
+        return ids;
+    }
+
+    private List<String> suggestionTexts(HttpHeaders headers, Long projectId, String query, String type) {
+        List<String> texts = new ArrayList<>();
+        suggest(headers, projectId, query, type).forEach(suggestion -> texts.add(suggestion.get("text").asText()));
+        return texts;
+    }
+
+    private JsonNode suggest(HttpHeaders headers, Long projectId, String query, String type) {
+        ResponseEntity<JsonNode> response = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/suggest?q={q}&type={type}",
+            HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class, query, type);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private HttpHeaders signUp(String email, String name) {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail(email);
+        signupRequest.setPassword("password123");
+        signupRequest.setName(name);
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private Long createProject(HttpHeaders headers, String name) {
+        return createProject(headers, name, null);
+    }
+
+    private Long createProject(HttpHeaders headers, String name, Integer archiveAfterDays) {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName(name);
+        projectRequest.setArchiveAfterDays(archiveAfterDays);
+        return restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+    }
+
+    private List<Long> searchIds(HttpHeaders headers, String query) {
+        ResponseEntity<JsonNode> response = restTemplate.exchange(getBaseUrl() + "/search?q=" + query,
+            HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Long> ids = new ArrayList<>();
+        response.getBody().get("content").forEach(hit -> ids.add(hit.get("issue").get("id").asLong()));
+        return ids;
+    }
+
     @Test
     void healthCheck_ShouldReturnUp() {
         ResponseEntity<String> response = restTemplate.getForEntity(
@@ -118,6 +825,27 @@ class IssueTrackerIntegrationTest {
         assertTrue(response.getBody().contains("UP"));
     }
 
+    @Test
+    void prometheusEndpoint_ShouldExposeRequestHistograms_OnTheManagementPortOnly() {
+        restTemplate.getForEntity(getBaseUrl() + "/health", String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+            "http://localhost:" + managementPort + "/actuator/prometheus",
+            String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("http_server_requests_seconds_bucket"));
+        assertTrue(response.getBody().contains("hikaricp_connections_active"));
+        assertTrue(response.getBody().contains("websocket_sessions"));
+
+        ResponseEntity<String> publicPort = restTemplate.getForEntity(
+            "http://localhost:" + port + "/actuator/prometheus",
+            String.class
+        );
+        assertNotEquals(HttpStatus.OK, publicPort.getStatusCode());
+    }
+
     @Test
     void signup_WithInvalidEmail_ShouldReturnError() {
         SignupRequest signupRequest = new SignupRequest();
@@ -0,0 +1,108 @@
+package com.issuetracker.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The migrations use PostgreSQL-only DDL, so they run against a PostgreSQL
+// container rather than H2. The context only starts if Hibernate validates
+// the entities against the migrated schema. Skipped without Docker.
+@SpringBootTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.datasource.driver-class-name=org.postgresql.Driver"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_ShouldApplyInOrderAndMatchTheEntities() {
+        List<String> versions = jdbcTemplate.queryForList(
+            "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+        assertEquals("1", versions.get(0));
+        assertEquals(versions.size(), jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM flyway_schema_history", Integer.class));
+
+        String assigneeIndex = jdbcTemplate.queryForObject(
+            "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_issue_assignee_set'", String.class);
+        assertTrue(assigneeIndex.contains("WHERE (assignee_id IS NOT NULL)"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'idx_issue_assignee'", Integer.class));
+    }
+
+    @Test
+    void baselinedDatabase_ShouldEndUpWithTheSameIndexes() {
+        // A database whose schema Hibernate created: V1's tables and indexes without Flyway history
+        DriverManagerDataSource baselined = createDatabase("baselined");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(baselined);
+
+        Flyway.configure()
+            .dataSource(baselined)
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+
+        String indexes = "SELECT tablename || ' ' || indexdef FROM pg_indexes WHERE schemaname = 'public' " +
+            "AND tablename <> 'flyway_schema_history' ORDER BY indexname";
+        assertEquals(jdbcTemplate.queryForList(indexes, String.class),
+            new JdbcTemplate(baselined).queryForList(indexes, String.class));
+    }
+
+    @Test
+    void shardMigrations_ShouldCreateTheIssueTablesOnly_AsTheDirectoryHasThem() {
+        DriverManagerDataSource shard = createDatabase("shard");
+        Flyway.configure()
+            .dataSource(shard)
+            .locations("classpath:db/shard")
+            .table("flyway_shard_history")
+            .load()
+            .migrate();
+
+        JdbcTemplate shardJdbc = new JdbcTemplate(shard);
+        assertEquals(List.of("archived_issue_tags", "archived_issues", "flyway_shard_history", "issue_tags", "issues",
+                "shard_identity"),
+            shardJdbc.queryForList("SELECT tablename FROM pg_tables WHERE schemaname = 'public' ORDER BY tablename",
+                String.class));
+
+        String columns = "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable " +
+            "FROM information_schema.columns WHERE table_schema = 'public' AND table_name IN " +
+            "('issues', 'issue_tags', 'archived_issues', 'archived_issue_tags') ORDER BY table_name, column_name";
+        assertEquals(jdbcTemplate.queryForList(columns, String.class), shardJdbc.queryForList(columns, String.class));
+
+        String indexes = "SELECT indexdef FROM pg_indexes WHERE schemaname = 'public' AND tablename IN " +
+            "('issues', 'issue_tags', 'archived_issues', 'archived_issue_tags') ORDER BY indexname";
+        assertEquals(jdbcTemplate.queryForList(indexes, String.class), shardJdbc.queryForList(indexes, String.class));
+    }
+
+    private DriverManagerDataSource createDatabase(String name) {
+        jdbcTemplate.execute("CREATE DATABASE " + name);
+        return new DriverManagerDataSource(
+            "jdbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/" + name,
+            postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,83 @@
+package com.issuetracker.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void search_ShouldRankPhrasesPrefixesAndTitles() throws IOException {
+        SearchIndex index = open();
+        index.index(issue(1, 10, 0, "Login page crashes", "Seen on the settings page", List.of("auth")));
+        index.index(issue(2, 10, 0, "Settings layout", "The login button overlaps the page footer", List.of()));
+        index.index(issue(3, 10, 0, "Page login text", "Typo", List.of()));
+        index.index(issue(4, 20, 0, "Login page in another project", null, List.of()));
+
+        // A title match outranks the same word in a description
+        List<Long> login = ids(index.search("login", projectId -> projectId == 10, 10));
+        assertEquals(Set.of(1L, 3L), Set.copyOf(login.subList(0, 2)));
+        assertEquals(Long.valueOf(2), login.get(2));
+        assertEquals(List.of(1L), ids(index.search("\"login page\"", projectId -> projectId == 10, 10)));
+        assertEquals(List.of(1L), ids(index.search("aut*", projectId -> true, 10)));
+        assertEquals(List.of(2L), ids(index.search("footer sett*", projectId -> true, 10)));
+
+        SearchIndex.Hits page = index.search("login", projectId -> true, 2);
+        assertEquals(4, page.total());
+        assertEquals(2, page.hits().size());
+    }
+
+    @Test
+    void index_ShouldKeepNewestVersionAcrossFlushMergeAndReopen() throws IOException {
+        SearchIndex index = open();
+        for (long id = 1; id <= 6; id++) {
+            index.index(issue(id, 1, 0, "Issue number " + id, "first draft", List.of()));
+            index.flush();
+        }
+        index.index(issue(2, 1, 1, "Issue number 2", "second draft", List.of()));
+        // An older copy arriving late is ignored
+        index.index(issue(2, 1, 0, "Issue number 2", "first draft", List.of()));
+        // Nor is one of a removed issue
+        index.remove(3, 0L);
+        index.index(issue(3, 1, 0, "Issue number 3", "first draft", List.of()));
+        index.advanceCheckpoint(System.currentTimeMillis());
+        index.flush();
+        index.merge();
+
+        assertEquals(List.of(2L), ids(index.search("second", projectId -> true, 10)));
+        assertEquals(4, index.search("\"first draft\"", projectId -> true, 10).total());
+
+        index.destroy();
+        SearchIndex reopened = open();
+        assertEquals(5, reopened.size());
+        assertTrue(reopened.checkpoint() > 0);
+        assertEquals(List.of(2L), ids(reopened.search("second", projectId -> true, 10)));
+        assertEquals(4, reopened.search("\"first draft\"", projectId -> true, 10).total());
+
+        assertEquals(1, reopened.retainOnly(Set.of(1L, 2L, 4L, 5L), reopened.generation()));
+        assertEquals(3, reopened.search("\"first draft\"", projectId -> true, 10).total());
+    }
+
+    private SearchIndex open() throws IOException {
+        return new SearchIndex(new SimpleMeterRegistry(), directory, 2, 60_000);
+    }
+
+    private static IndexedIssue issue(long id, long projectId, long version, String title, String description,
+                                      List<String> tags) {
+        return new IndexedIssue(id, projectId, version, title, description, tags);
+    }
+
+    private static List<Long> ids(SearchIndex.Hits hits) {
+        return hits.hits().stream().map(SearchIndex.Hit::issueId).toList();
+    }
+}
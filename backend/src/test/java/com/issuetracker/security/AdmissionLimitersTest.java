@@ -0,0 +1,151 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionLimitersTest {
+
+    @Test
+    void tokenBucket_ShouldAllowBurstThenReject() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3);
+
+        assertEquals(0, limiter.tryAcquire("user@test.com"));
+        assertEquals(0, limiter.tryAcquire("user@test.com"));
+        assertEquals(0, limiter.tryAcquire("user@test.com"));
+        long wait = limiter.tryAcquire("user@test.com");
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "wait was " + wait);
+
+        // Budgets are per key
+        assertEquals(0, limiter.tryAcquire("other@test.com"));
+    }
+
+    @Test
+    void tokenBucket_ShouldChargeSeveralTokensAndLetAnOversizedChargeRunIntoDebt() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3);
+
+        assertEquals(0, limiter.tryAcquire("batch@test.com", 2));
+        // One token left
+        assertTrue(limiter.tryAcquire("batch@test.com", 2) > 0);
+        assertEquals(0, limiter.tryAcquire("batch@test.com", 1));
+
+        // Ten tokens on a full bucket of three go through, and the next request waits them off
+        assertEquals(0, limiter.tryAcquire("big@test.com", 10));
+        long wait = limiter.tryAcquire("big@test.com");
+        assertTrue(wait > 7_000_000_000L && wait <= 8_000_000_000L, "wait was " + wait);
+    }
+
+    @Test
+    void batchRefusedByTheReadBudget_ShouldNotSpendWriteTokens() throws Exception {
+        // One read and one write per minute
+        AdmissionControlFilter filter = new AdmissionControlFilter(true, 1 / 60.0, 1, 1 / 60.0, 1, 1, 5,
+                10, 50, 200, 2.0, new SimpleMeterRegistry(), new ObjectMapper());
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/projects"), read, new MockFilterChain());
+        assertEquals(200, read.getStatus());
+
+        // The write budget admits the batch, the spent read budget does not
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/batch");
+        batch.setContent(("{\"operations\":[{\"op\":\"GET_PROJECT\"},{\"op\":\"GET_ISSUES\"}," +
+                "{\"op\":\"DELETE_ISSUE\"}]}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(batch, refused, new MockFilterChain());
+        assertEquals(429, refused.getStatus());
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/issues"), write, new MockFilterChain());
+        assertEquals(200, write.getStatus());
+    }
+
+    @Test
+    void tokenBucket_ShouldGiveBackRefundedTokens() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3);
+
+        assertEquals(0, limiter.tryAcquire("refund@test.com", 3));
+        assertTrue(limiter.tryAcquire("refund@test.com") > 0);
+        limiter.refund("refund@test.com", 2);
+        assertEquals(0, limiter.tryAcquire("refund@test.com", 2));
+        assertTrue(limiter.tryAcquire("refund@test.com") > 0);
+    }
+
+    @Test
+    void tokenBucket_ShouldEvictOnlyRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 1);
+        limiter.tryAcquire("busy@test.com");
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void concurrencyLimiter_ShouldRejectAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, 10, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(0);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void concurrencyLimiter_ShouldShrinkWhenLatencyRisesAndGrowWhenHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 50, 100, 2.0);
+
+        for (int i = 0; i < 600; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000);
+        }
+        // A single slow request is not a trend
+        limiter.tryAcquire();
+        limiter.release(10_000_000);
+        assertEquals(50, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(10_000_000);
+        }
+        assertEquals(45, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000);
+        }
+        for (int i = 0; i < 30; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(1_000_000);
+        assertEquals(46, limiter.getLimit());
+    }
+
+    @Test
+    void concurrencyLimiter_ShouldHoldUnderAMixOfFastAndSlowEndpoints() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 50, 100, 2.0);
+
+        // Every fifth request is a 20 ms report next to 1 ms lookups: steady, not queueing
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire();
+            limiter.release(i % 5 == 0 ? 20_000_000 : 1_000_000);
+        }
+        assertEquals(50, limiter.getLimit());
+        long baseline = limiter.getBaselineNanos();
+        assertTrue(baseline > 3_000_000 && baseline < 7_000_000, "baseline was " + baseline);
+
+        // The same mix four times slower is
+        for (int i = 0; i < 30; i++) {
+            limiter.tryAcquire();
+            limiter.release(i % 5 == 0 ? 80_000_000 : 4_000_000);
+        }
+        assertTrue(limiter.getLimit() < 50, "limit was " + limiter.getLimit());
+    }
+}
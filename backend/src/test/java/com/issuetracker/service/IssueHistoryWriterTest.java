@@ -0,0 +1,111 @@
+package com.issuetracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.model.IssueHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueHistoryWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path journalDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE issue_history (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_id VARCHAR(36) NOT NULL UNIQUE, issue_id BIGINT NOT NULL, project_id BIGINT NOT NULL, " +
+                "field_name VARCHAR(32) NOT NULL, old_value VARCHAR(255), new_value VARCHAR(255), " +
+                "changed_by BIGINT NOT NULL, changed_at TIMESTAMP NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void restart_ShouldReplayLeftoverSegmentsAndSkipAHalfWrittenLine() throws Exception {
+        // The crashed node: two entries journaled, the first already inserted, then a torn append
+        IssueHistoryJournal crashed = new IssueHistoryJournal(objectMapper, journalDir, true);
+        crashed.sync(crashed.append(crashed.encode(List.of(entry("event-1"), entry("event-2")))));
+        insertRow("event-1");
+        String torn = new String(crashed.encode(List.of(entry("event-3"))), StandardCharsets.UTF_8);
+        Files.writeString(journalDir.resolve("history-1.log"), torn.substring(0, torn.length() / 2),
+                StandardOpenOption.APPEND);
+
+        IssueHistoryJournal journal = new IssueHistoryJournal(objectMapper, journalDir, true);
+        IssueHistoryWriter writer = writer(journal);
+        writer.flush();
+
+        assertEquals(List.of("event-1", "event-2"),
+                jdbcTemplate.queryForList("SELECT event_id FROM issue_history ORDER BY event_id", String.class));
+        assertFalse(Files.exists(journalDir.resolve("history-1.log")));
+        assertFalse(journal.hasSealedSegments());
+        crashed.destroy();
+        journal.destroy();
+    }
+
+    @Test
+    void failingJournal_ShouldNotFailTheWriteAndEntriesStillGetInserted() throws Exception {
+        IssueHistoryJournal journal = new IssueHistoryJournal(objectMapper, journalDir, false);
+        IssueHistoryWriter writer = writer(journal);
+        // Appends to a closed channel fail
+        journal.destroy();
+
+        assertDoesNotThrow(() -> writer.record(List.of(entry("event-4"))));
+        writer.flush();
+
+        assertEquals(List.of("event-4"),
+                jdbcTemplate.queryForList("SELECT event_id FROM issue_history", String.class));
+        journal.destroy();
+    }
+
+    private IssueHistoryWriter writer(IssueHistoryJournal journal) {
+        return new IssueHistoryWriter(journal, jdbcTemplate, new DataSourceTransactionManager(database),
+                new SimpleMeterRegistry(), 100, 10);
+    }
+
+    private void insertRow(String eventId) {
+        jdbcTemplate.update("INSERT INTO issue_history (event_id, issue_id, project_id, field_name, new_value, " +
+                "changed_by, changed_at) VALUES (?, 1, 1, 'status', 'CLOSED', 1, ?)",
+                eventId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static IssueHistory entry(String eventId) {
+        IssueHistory entry = new IssueHistory();
+        entry.setEventId(eventId);
+        entry.setIssueId(1L);
+        entry.setProjectId(1L);
+        entry.setFieldName("status");
+        entry.setOldValue("OPEN");
+        entry.setNewValue("CLOSED");
+        entry.setChangedBy(1L);
+        entry.setChangedAt(LocalDateTime.now().withNano(0));
+        return entry;
+    }
+}
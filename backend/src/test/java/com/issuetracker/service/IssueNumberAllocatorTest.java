@@ -0,0 +1,175 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.AuthResponse;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.ProjectRequest;
+import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.SignupRequest;
+import com.issuetracker.repository.ArchivedIssueRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.ProjectIssueCounterRepository;
+import com.issuetracker.sharding.ShardRouter;
+import com.issuetracker.sharding.ShardTransactions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Small blocks, so parallel creates keep racing for new ones
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.issue-keys.block-size=5")
+@ActiveProfiles("test")
+class IssueNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private IssueNumberAllocator allocator;
+
+    @Autowired
+    private ProjectIssueCounterRepository counterRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardTransactions shardTransactions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void parallelCreates_ShouldGetDistinctKeys() throws Exception {
+        HttpHeaders headers = signup("keys@test.com");
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Keys Project");
+        projectRequest.setKey("KEYS");
+        ProjectResponse project = restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody();
+        assertEquals("KEYS", project.getKey());
+
+        List<String> keys = runInParallel(25, () -> {
+            IssueRequest issueRequest = new IssueRequest();
+            issueRequest.setProjectId(project.getId());
+            issueRequest.setTitle("Parallel issue");
+            ResponseEntity<IssueResponse> response = restTemplate.postForEntity(getBaseUrl() + "/issues",
+                new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            return response.getBody().getKey();
+        });
+
+        assertEquals(THREADS * 25, new HashSet<>(keys).size());
+        assertTrue(keys.stream().allMatch(key -> key.startsWith("KEYS-")));
+
+        IssueResponse byKey = restTemplate.exchange(getBaseUrl() + "/issues/by-key/" + keys.get(0),
+            HttpMethod.GET, new HttpEntity<Void>(headers), IssueResponse.class).getBody();
+        assertEquals(keys.get(0), byKey.getKey());
+    }
+
+    @Test
+    void parallelProjectCreates_ShouldDeriveDistinctKeys() throws Exception {
+        HttpHeaders headers = signup("derived@test.com");
+
+        List<String> keys = runInParallel(2, () -> {
+            ProjectRequest projectRequest = new ProjectRequest();
+            projectRequest.setName("Race");
+            ResponseEntity<ProjectResponse> response = restTemplate.postForEntity(getBaseUrl() + "/projects",
+                new HttpEntity<>(projectRequest, headers), ProjectResponse.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            return response.getBody().getKey();
+        });
+
+        assertEquals(THREADS * 2, new HashSet<>(keys).size());
+        assertTrue(keys.stream().allMatch(key -> key.startsWith("RACE")));
+    }
+
+    @Test
+    void twoNodes_ShouldReserveDisjointBlocks() throws Exception {
+        HttpHeaders headers = signup("nodes@test.com");
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Two Nodes");
+        Long projectId = restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+
+        // A second allocator stands in for another node sharing the directory
+        IssueNumberAllocator otherNode = new IssueNumberAllocator(counterRepository, issueRepository,
+            archivedIssueRepository, shardRouter, shardTransactions, transactionManager, 5);
+        AtomicInteger calls = new AtomicInteger();
+        List<Long> numbers = runInParallel(500, () ->
+            (calls.getAndIncrement() % 2 == 0 ? allocator : otherNode).next(projectId));
+
+        Set<Long> distinct = new HashSet<>(numbers);
+        assertEquals(THREADS * 500, distinct.size());
+        assertTrue(distinct.stream().allMatch(number -> number >= 1));
+    }
+
+    private <T> List<T> runInParallel(int perThread, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    List<T> results = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        results.add(task.call());
+                    }
+                    return results;
+                }));
+            }
+            List<T> all = new ArrayList<>();
+            for (Future<List<T>> future : futures) {
+                all.addAll(future.get());
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpHeaders signup(String email) {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail(email);
+        signupRequest.setPassword("password123");
+        signupRequest.setName("Key Test User");
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api";
+    }
+}
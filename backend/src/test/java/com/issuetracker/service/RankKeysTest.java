@@ -0,0 +1,63 @@
+package com.issuetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeysTest {
+
+    @Test
+    void between_ShouldStayStrictlyBetweenNeighbours() {
+        // Dropping on the same spot over and over is the worst case for key length
+        String lo = RankKeys.between(null, null);
+        String hi = null;
+        for (int i = 0; i < 200; i++) {
+            String key = RankKeys.between(lo, hi);
+            assertTrue(key.compareTo(lo) > 0, key + " not after " + lo);
+            if (hi != null) {
+                assertTrue(key.compareTo(hi) < 0, key + " not before " + hi);
+            }
+            assertFalse(key.endsWith("0"));
+            if (i % 2 == 0) {
+                hi = key;
+            } else {
+                lo = key;
+            }
+        }
+        assertTrue(lo.length() < 150, "keys grew to " + lo.length());
+    }
+
+    @Test
+    void between_ShouldPrependAndAppendAtTheEnds() {
+        String first = "i";
+        String last = "i";
+        for (int i = 0; i < 100; i++) {
+            String before = RankKeys.between(null, first);
+            String after = RankKeys.between(last, null);
+            assertTrue(before.compareTo(first) < 0);
+            assertTrue(after.compareTo(last) > 0);
+            first = before;
+            last = after;
+        }
+    }
+
+    @Test
+    void between_ShouldRejectNeighboursOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+    }
+
+    @Test
+    void spread_ShouldReturnShortKeysInOrder() {
+        List<String> keys = RankKeys.spread(5000);
+        assertEquals(5000, keys.size());
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        assertEquals(sorted, keys);
+        assertEquals(5000, keys.stream().distinct().count());
+        assertTrue(keys.stream().allMatch(key -> key.length() <= 4 && !key.endsWith("0")));
+    }
+}
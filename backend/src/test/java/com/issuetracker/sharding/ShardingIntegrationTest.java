@@ -0,0 +1,194 @@
+package com.issuetracker.sharding;
+
+import com.issuetracker.dto.AuthResponse;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.ProjectRequest;
+import com.issuetracker.dto.ProjectResponse;
+import com.issuetracker.dto.RankRequest;
+import com.issuetracker.dto.SignupRequest;
+import com.issuetracker.support.SqlStatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Directory plus two shards, all embedded H2 databases
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:sharding_directory",
+    "app.sharding.shard-urls=jdbc:h2:mem:sharding_shard1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharding_shard2;DB_CLOSE_DELAY=-1",
+    "app.sharding.schema-script=classpath:shard-schema-h2.sql",
+    "spring.jpa.open-in-view=false"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardMover shardMover;
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api";
+    }
+
+    @Test
+    void issues_ShouldLiveOnProjectShard_AndFollowAProjectMove() {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail("sharding@test.com");
+        signupRequest.setPassword("password123");
+        signupRequest.setName("Sharding Test User");
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Sharded Project");
+        Long projectId = restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle("Sharded Issue");
+        ResponseEntity<IssueResponse> created = restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+        Long issueId = created.getBody().getId();
+
+        int sourceShard = shardRouter.shardOf(projectId);
+        assertEquals(sourceShard, shardRouter.originShardOf(issueId));
+        assertEquals(1, countIssues(sourceShard, projectId));
+
+        int targetShard = (sourceShard + 1) % shardRouter.getShardCount();
+        ResponseEntity<Void> moved = restTemplate.exchange(
+            getBaseUrl() + "/projects/" + projectId + "/move?shard=" + targetShard,
+            HttpMethod.POST, new HttpEntity<Void>(headers), Void.class);
+        assertEquals(HttpStatus.NO_CONTENT, moved.getStatusCode());
+        assertEquals(targetShard, shardRouter.shardOf(projectId));
+        assertEquals(1, countIssues(targetShard, projectId));
+
+        ResponseEntity<String> list = restTemplate.exchange(
+            getBaseUrl() + "/issues?projectId=" + projectId,
+            HttpMethod.GET, new HttpEntity<Void>(headers), String.class);
+        assertEquals(HttpStatus.OK, list.getStatusCode());
+        assertTrue(list.getBody().contains("Sharded Issue"));
+
+        issueRequest.setTitle("Sharded Issue (moved)");
+        ResponseEntity<IssueResponse> updated = restTemplate.exchange(
+            getBaseUrl() + "/issues/" + issueId,
+            HttpMethod.PUT, new HttpEntity<>(issueRequest, headers), IssueResponse.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("Sharded Issue (moved)", updated.getBody().getTitle());
+        assertEquals("Sharded Project", updated.getBody().getProjectName());
+    }
+
+    @Test
+    void rankChangedDuringTheBulkCopy_ShouldBeRecopiedAtTheSwitch() {
+        HttpHeaders headers = signUp("sharding-rank@test.com");
+        Long projectId = createProject(headers, "Sharded Rank Project");
+        Long first = createIssue(headers, projectId, "First ranked issue");
+        Long second = createIssue(headers, projectId, "Second ranked issue");
+        int sourceShard = shardRouter.shardOf(projectId);
+        int targetShard = (sourceShard + 1) % shardRouter.getShardCount();
+
+        ShardMover.Move move = shardMover.copy(projectId, targetShard);
+
+        // A board drag while the project is still served from the source; it leaves version alone
+        String copiedRank = rankOf(targetShard, first);
+        long copiedVersion = versionOf(targetShard, first);
+        RankRequest rankRequest = new RankRequest();
+        rankRequest.setBeforeId(second);
+        ResponseEntity<IssueResponse> ranked = restTemplate.exchange(
+            getBaseUrl() + "/issues/" + first + "/rank",
+            HttpMethod.PUT, new HttpEntity<>(rankRequest, headers), IssueResponse.class);
+        assertEquals(HttpStatus.OK, ranked.getStatusCode());
+        String newRank = rankOf(sourceShard, first);
+        assertNotEquals(copiedRank, newRank);
+        assertEquals(copiedVersion, versionOf(sourceShard, first));
+
+        shardMover.switchOver(move);
+
+        assertEquals(targetShard, shardRouter.shardOf(projectId));
+        assertEquals(newRank, rankOf(targetShard, first));
+    }
+
+    @Test
+    void projectStats_ShouldCountTheStatementsRunOnEveryShard() {
+        HttpHeaders headers = signUp("sharding-stats@test.com");
+        Long projectId = createProject(headers, "Sharded Stats Project");
+        createIssue(headers, projectId, "Counted issue");
+
+        ResponseEntity<String> plain = restTemplate.exchange(getBaseUrl() + "/projects",
+            HttpMethod.GET, new HttpEntity<Void>(headers), String.class);
+        ResponseEntity<String> withStats = restTemplate.exchange(getBaseUrl() + "/projects?include=stats",
+            HttpMethod.GET, new HttpEntity<Void>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, withStats.getStatusCode());
+        // Issue and archived counts on the project's shard, run on fan-out threads
+        assertTrue(SqlStatementBudget.of(withStats).getStatements()
+            >= SqlStatementBudget.of(plain).getStatements() + 2);
+    }
+
+    private HttpHeaders signUp(String email) {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setEmail(email);
+        signupRequest.setPassword("password123");
+        signupRequest.setName("Sharding Test User");
+        AuthResponse auth = restTemplate.postForEntity(
+            getBaseUrl() + "/auth/signup", signupRequest, AuthResponse.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(auth.getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private Long createProject(HttpHeaders headers, String name) {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName(name);
+        return restTemplate.postForEntity(getBaseUrl() + "/projects",
+            new HttpEntity<>(projectRequest, headers), ProjectResponse.class).getBody().getId();
+    }
+
+    private Long createIssue(HttpHeaders headers, Long projectId, String title) {
+        IssueRequest issueRequest = new IssueRequest();
+        issueRequest.setProjectId(projectId);
+        issueRequest.setTitle(title);
+        return restTemplate.postForEntity(getBaseUrl() + "/issues",
+            new HttpEntity<>(issueRequest, headers), IssueResponse.class).getBody().getId();
+    }
+
+    private String rankOf(int shardId, Long issueId) {
+        return new JdbcTemplate(shardDataSources.get(shardId))
+            .queryForObject("SELECT issue_rank FROM issues WHERE id = ?", String.class, issueId);
+    }
+
+    private long versionOf(int shardId, Long issueId) {
+        return new JdbcTemplate(shardDataSources.get(shardId))
+            .queryForObject("SELECT version FROM issues WHERE id = ?", Long.class, issueId);
+    }
+
+    private int countIssues(int shardId, Long projectId) {
+        return new JdbcTemplate(shardDataSources.get(shardId))
+            .queryForObject("SELECT COUNT(*) FROM issues WHERE project_id = ?", Integer.class, projectId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.issuetracker.startup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs only in the native profile, after both artifacts have been built:
+//   mvn -Pnative -DskipTests package native:compile
+//   mvn -Pnative test -Dtest=NativeStartupComparisonTest
+// Needs the database from docker-compose (override with -Dstartup.datasource.url=...).
+// Besides beating the JVM, native startup has to stay within
+// -Dstartup.native.max-ms (default 1000).
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "startup.native.executable", matches = ".+")
+class NativeStartupComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeStartupComparisonTest.class);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void nativeExecutable_ShouldStartFasterAndUseLessMemoryThanJvmJar() throws Exception {
+        Path nativeExecutable = Path.of(System.getProperty("startup.native.executable"));
+        Path jvmJar = Path.of(System.getProperty("startup.jvm.jar"));
+        assertTrue(Files.isExecutable(nativeExecutable), "Native executable not built: " + nativeExecutable);
+        assertTrue(Files.isRegularFile(jvmJar), "JVM jar not built: " + jvmJar);
+
+        String javaBin = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        StartupSample jvm = measure(List.of(javaBin, "-jar", jvmJar.toString()));
+        StartupSample nativeImage = measure(List.of(nativeExecutable.toString()));
+
+        long maxNativeMillis = Long.getLong("startup.native.max-ms", 1000);
+        log.info("jvm    startup={} ms rss={} MB", jvm.startupMillis, jvm.rssKb / 1024);
+        log.info("native startup={} ms rss={} MB", nativeImage.startupMillis, nativeImage.rssKb / 1024);
+
+        assertTrue(nativeImage.startupMillis < jvm.startupMillis,
+                "Native startup (" + nativeImage.startupMillis + " ms) not faster than JVM (" + jvm.startupMillis + " ms)");
+        assertTrue(nativeImage.startupMillis <= maxNativeMillis,
+                "Native startup (" + nativeImage.startupMillis + " ms) over the " + maxNativeMillis + " ms budget");
+        assertTrue(nativeImage.rssKb < jvm.rssKb,
+                "Native RSS (" + nativeImage.rssKb + " kB) not smaller than JVM (" + jvm.rssKb + " kB)");
+    }
+
+    private StartupSample measure(List<String> baseCommand) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + System.getProperty("startup.datasource.url", "jdbc:postgresql://localhost:5432/issuetracker"));
+        command.add("--spring.datasource.username=" + System.getProperty("startup.datasource.username", "postgres"));
+        command.add("--spring.datasource.password=" + System.getProperty("startup.datasource.password", "postgres"));
+        command.add("--logging.level.com.issuetracker=WARN");
+        command.add("--logging.level.org.springframework.security=WARN");
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long start = System.nanoTime();
+            awaitHealthy(port, process);
+            long startupMillis = (System.nanoTime() - start) / 1_000_000;
+            return new StartupSample(startupMillis, residentSetKb(process.pid()));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void awaitHealthy(int port, Process process) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/health"))
+                .timeout(Duration.ofMillis(500))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                fail("Process exited with code " + process.exitValue() + " before becoming healthy");
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        fail("Not healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private long residentSetKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        throw new IllegalStateException("VmRSS not reported for pid " + pid);
+    }
+
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record StartupSample(long startupMillis, long rssKb) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.issuetracker.support;
+
+import com.issuetracker.monitoring.SqlStatementFilter;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reads the X-Sql-* headers the backend returns when
+// app.sql-stats.response-headers=true (enabled in the test profile), e.g.
+//   SqlStatementBudget.of(response).statementsAtMost(6);
+public final class SqlStatementBudget {
+    private final int statements;
+    private final long rows;
+    private final long timeMillis;
+
+    private SqlStatementBudget(int statements, long rows, long timeMillis) {
+        this.statements = statements;
+        this.rows = rows;
+        this.timeMillis = timeMillis;
+    }
+
+    public static SqlStatementBudget of(ResponseEntity<?> response) {
+        String statements = response.getHeaders().getFirst(SqlStatementFilter.STATEMENTS_HEADER);
+        assertNotNull(statements, "Missing " + SqlStatementFilter.STATEMENTS_HEADER
+                + " header, is app.sql-stats.response-headers enabled?");
+        return new SqlStatementBudget(
+                Integer.parseInt(statements),
+                Long.parseLong(response.getHeaders().getFirst(SqlStatementFilter.ROWS_HEADER)),
+                Long.parseLong(response.getHeaders().getFirst(SqlStatementFilter.TIME_HEADER)));
+    }
+
+    public SqlStatementBudget statementsAtMost(int max) {
+        assertTrue(statements <= max, "Expected at most " + max + " SQL statements but request issued " + statements);
+        return this;
+    }
+
+    public SqlStatementBudget rowsAtMost(long max) {
+        assertTrue(rows <= max, "Expected at most " + max + " rows but request touched " + rows);
+        return this;
+    }
+
+    public SqlStatementBudget timeAtMost(long maxMillis) {
+        assertTrue(timeMillis <= maxMillis, "Expected at most " + maxMillis + " ms in SQL but request spent " + timeMillis);
+        return this;
+    }
+
+    public int getStatements() { return statements; }
+    public long getRows() { return rows; }
+    public long getTimeMillis() { return timeMillis; }
+}
@@ -0,0 +1,15 @@
+-- idempotency_keys for the embedded H2 directory (Flyway is off in tests and
+-- Hibernate only creates entity tables). Keep in line with V13__idempotency_keys.sql.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    principal       VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(255),
+    body            TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (principal, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created ON idempotency_keys (created_at);
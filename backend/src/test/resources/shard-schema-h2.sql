@@ -0,0 +1,51 @@
+-- Issue tables of a shard for embedded H2 shards (Flyway is off in tests).
+-- Keep in line with db/shard.
+
+CREATE TABLE IF NOT EXISTS issues (
+    id          BIGINT       PRIMARY KEY,
+    project_id  BIGINT       NOT NULL,
+    issue_number BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL,
+    priority    VARCHAR(255) NOT NULL,
+    assignee_id BIGINT,
+    issue_rank  VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    closed_at   TIMESTAMP(6),
+    version     BIGINT
+);
+
+CREATE SEQUENCE IF NOT EXISTS issues_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS archived_issues (
+    id          BIGINT       PRIMARY KEY,
+    project_id  BIGINT       NOT NULL,
+    issue_number BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL,
+    priority    VARCHAR(255) NOT NULL,
+    assignee_id BIGINT,
+    issue_rank  VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    closed_at   TIMESTAMP(6),
+    version     BIGINT,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS archived_issue_tags (
+    issue_id BIGINT NOT NULL,
+    tag      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS shard_identity (
+    shard_id INTEGER PRIMARY KEY
+);
@@ -4,7 +4,7 @@ import { FormsModule } from '@angular/forms';
 import { ActivatedRoute, Router } from '@angular/router';
 import { IssueService } from '../../services/issue.service';
 import { WebsocketService } from '../../services/websocket.service';
-import { Issue, PageResponse } from '../../models/models';
+import { Issue, PageResponse, SavedFilter } from '../../models/models';
 import { Subscription } from 'rxjs';
 
 @Component({
@@ -27,6 +27,10 @@ export class IssueListComponent implements OnInit, OnDestroy {
   searchText = '';
   sortBy = 'createdAt';
   sortOrder = 'desc';
+
+  // Saved filters of this project; activeFilter is the open saved view
+  savedFilters: SavedFilter[] = [];
+  activeFilter?: SavedFilter;
   
   // Create form
   showCreateForm = false;
@@ -49,6 +53,7 @@ export class IssueListComponent implements OnInit, OnDestroy {
     this.route.params.subscribe(params => {
       this.projectId = +params['id'];
       this.loadIssues();
+      this.loadSavedFilters();
       this.connectWebSocket();
     });
   }
@@ -63,15 +68,18 @@ export class IssueListComponent implements OnInit, OnDestroy {
     this.wsSubscription = this.wsService.getMessages().subscribe({
       next: (message) => {
         console.log('WebSocket message:', message);
-        // Reload issues when update received
+        // Reload issues (and filter counts) when update received
         this.loadIssues();
+        this.loadSavedFilters();
       }
     });
   }
 
   loadIssues(): void {
     this.loading = true;
-    this.issueService.getIssues(
+    const request = this.activeFilter
+      ? this.issueService.getSavedFilterIssues(this.activeFilter.id, this.currentPage, 20)
+      : this.issueService.getIssues(
       this.projectId,
       this.currentPage,
       20,
@@ -80,7 +88,8 @@ export class IssueListComponent implements OnInit, OnDestroy {
       this.searchText || undefined,
       this.sortBy,
       this.sortOrder
-    ).subscribe({
+    );
+    request.subscribe({
       next: (response: PageResponse<Issue>) => {
         this.issues = response.content;
         this.totalPages = response.totalPages;
@@ -93,7 +102,53 @@ export class IssueListComponent implements OnInit, OnDestroy {
     });
   }
 
+  loadSavedFilters(): void {
+    this.issueService.getSavedFilters().subscribe({
+      next: (filters) => {
+        this.savedFilters = filters.filter(filter => filter.projectId === this.projectId);
+      },
+      error: (err) => console.error('Failed to load saved filters:', err)
+    });
+  }
+
+  openSavedFilter(filter: SavedFilter): void {
+    this.activeFilter = filter;
+    this.currentPage = 0;
+    this.loadIssues();
+  }
+
+  saveFilter(): void {
+    const name = prompt('Name for this filter');
+    if (!name?.trim()) return;
+
+    this.issueService.createSavedFilter({
+      name: name.trim(),
+      projectId: this.projectId,
+      status: (this.statusFilter || undefined) as SavedFilter['status'],
+      priority: (this.priorityFilter || undefined) as SavedFilter['priority'],
+      search: this.searchText || undefined
+    }).subscribe({
+      next: () => this.loadSavedFilters(),
+      error: (err) => console.error('Failed to save filter:', err)
+    });
+  }
+
+  deleteSavedFilter(filter: SavedFilter, event: Event): void {
+    event.stopPropagation();
+    this.issueService.deleteSavedFilter(filter.id).subscribe({
+      next: () => {
+        if (this.activeFilter?.id === filter.id) {
+          this.activeFilter = undefined;
+          this.loadIssues();
+        }
+        this.loadSavedFilters();
+      },
+      error: (err) => console.error('Failed to delete saved filter:', err)
+    });
+  }
+
   applyFilters(): void {
+    this.activeFilter = undefined;
     this.currentPage = 0;
     this.loadIssues();
   }
@@ -102,6 +157,7 @@ export class IssueListComponent implements OnInit, OnDestroy {
     this.statusFilter = '';
     this.priorityFilter = '';
     this.searchText = '';
+    this.activeFilter = undefined;
     this.currentPage = 0;
     this.loadIssues();
   }
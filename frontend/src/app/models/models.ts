@@ -27,12 +27,18 @@ export interface Project {
   name: string;
   ownerId: number;
   ownerName?: string;
+  key?: string;
+  role?: 'OWNER' | 'MAINTAINER' | 'REPORTER';
+  openIssues?: number;
+  inProgressIssues?: number;
+  closedIssues?: number;
   createdAt: string;
   updatedAt: string;
 }
 
 export interface Issue {
   id: number;
+  key?: string;
   projectId: number;
   title: string;
   description: string;
@@ -43,10 +49,43 @@ export interface Issue {
   reporterId: number;
   reporterName?: string;
   tags?: string[];
+  rank?: string;
   createdAt: string;
   updatedAt: string;
 }
 
+export interface SavedFilter {
+  id: number;
+  name: string;
+  projectId: number;
+  status?: 'OPEN' | 'IN_PROGRESS' | 'CLOSED';
+  priority?: 'LOW' | 'MEDIUM' | 'HIGH' | 'CRITICAL';
+  assigneeId?: number;
+  search?: string;
+  matchCount: number;
+  createdAt: string;
+}
+
+export interface BoardColumn {
+  status: 'OPEN' | 'IN_PROGRESS' | 'CLOSED';
+  total: number;
+  issues: Issue[];
+  nextCursor?: string;
+}
+
+export interface SearchHit {
+  score: number;
+  issue: Issue;
+}
+
+// Issues: id, title and key (detail). Tags: text and count. Users: id, name and email (detail)
+export interface Suggestion {
+  id?: number;
+  text: string;
+  detail?: string;
+  count?: number;
+}
+
 export interface PageResponse<T> {
   content: T[];
   totalElements: number;
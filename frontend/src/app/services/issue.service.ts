@@ -1,13 +1,15 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Issue, PageResponse } from '../models/models';
+import { Issue, PageResponse, SavedFilter, SearchHit } from '../models/models';
 
 @Injectable({
   providedIn: 'root'
 })
 export class IssueService {
   private apiUrl = 'http://localhost:8080/api/issues';
+  private filtersUrl = 'http://localhost:8080/api/filters';
+  private searchUrl = 'http://localhost:8080/api/search';
 
   constructor(private http: HttpClient) {}
 
@@ -35,6 +37,16 @@ export class IssueService {
     return this.http.get<PageResponse<Issue>>(this.apiUrl, { params });
   }
 
+  // Best matches first; without projectId, across all of the user's projects
+  searchIssues(query: string, projectId?: number, page: number = 0, size: number = 20): Observable<PageResponse<SearchHit>> {
+    let params = new HttpParams()
+      .set('q', query)
+      .set('page', page.toString())
+      .set('size', size.toString());
+    if (projectId) params = params.set('projectId', projectId.toString());
+    return this.http.get<PageResponse<SearchHit>>(this.searchUrl, { params });
+  }
+
   getIssue(id: number): Observable<Issue> {
     return this.http.get<Issue>(`${this.apiUrl}/${id}`);
   }
@@ -47,7 +59,32 @@ export class IssueService {
     return this.http.put<Issue>(`${this.apiUrl}/${id}`, issue);
   }
 
+  // Drop between two issues of a board column (null at either end)
+  rankIssue(id: number, afterId: number | null, beforeId: number | null, status?: Issue['status']): Observable<Issue> {
+    return this.http.put<Issue>(`${this.apiUrl}/${id}/rank`, { afterId, beforeId, status });
+  }
+
   deleteIssue(id: number): Observable<void> {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
+
+  // Saved filters come with their match counts
+  getSavedFilters(): Observable<SavedFilter[]> {
+    return this.http.get<SavedFilter[]>(this.filtersUrl);
+  }
+
+  createSavedFilter(filter: Partial<SavedFilter>): Observable<SavedFilter> {
+    return this.http.post<SavedFilter>(this.filtersUrl, filter);
+  }
+
+  deleteSavedFilter(id: number): Observable<void> {
+    return this.http.delete<void>(`${this.filtersUrl}/${id}`);
+  }
+
+  getSavedFilterIssues(id: number, page: number = 0, size: number = 20): Observable<PageResponse<Issue>> {
+    const params = new HttpParams()
+      .set('page', page.toString())
+      .set('size', size.toString());
+    return this.http.get<PageResponse<Issue>>(`${this.filtersUrl}/${id}/issues`, { params });
+  }
 }
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Project } from '../models/models';
+import { BoardColumn, Project, Suggestion } from '../models/models';
 
 @Injectable({
   providedIn: 'root'
@@ -12,13 +12,27 @@ export class ProjectService {
   constructor(private http: HttpClient) {}
 
   getProjects(): Observable<Project[]> {
-    return this.http.get<Project[]>(this.apiUrl);
+    // Issue counts come with the list, no per-project issue requests
+    return this.http.get<Project[]>(this.apiUrl, { params: { include: 'stats' } });
   }
 
   getProject(id: number): Observable<Project> {
     return this.http.get<Project>(`${this.apiUrl}/${id}`);
   }
 
+  // All status columns in one request
+  getBoard(id: number, perColumn = 20): Observable<BoardColumn[]> {
+    return this.http.get<BoardColumn[]>(`${this.apiUrl}/${id}/board`, { params: { perColumn } });
+  }
+
+  getBoardColumn(id: number, status: BoardColumn['status'], after: string, size = 20): Observable<BoardColumn> {
+    return this.http.get<BoardColumn>(`${this.apiUrl}/${id}/board/${status}`, { params: { after, size } });
+  }
+
+  suggest(id: number, q: string, type: 'issue' | 'tag' | 'user' = 'issue', limit = 10): Observable<Suggestion[]> {
+    return this.http.get<Suggestion[]>(`${this.apiUrl}/${id}/suggest`, { params: { q, type, limit } });
+  }
+
   createProject(name: string): Observable<Project> {
     return this.http.post<Project>(this.apiUrl, { name });
   }